@@ -0,0 +1,114 @@
+package com.enterprise.pbac.benchmark;
+
+import com.enterprise.pbac.domain.engine.compiler.ConditionCompiler;
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import com.enterprise.pbac.domain.engine.condition.impl.ContextAttributeCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.IpRangeCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.TimeRangeCondition;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-evaluation cost of each condition implementation, using the conditions compiled from
+ * the synthetic policy set so definitions vary as they would in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionBenchmark {
+    
+    private static final int CONTEXT_COUNT = 1024;
+    
+    @Param({"10", "1000", "100000"})
+    public int policyCount;
+    
+    @Param({"CONTEXT", "IP_RANGE", "TIME_RANGE"})
+    public String conditionType;
+    
+    private Condition[] conditions;
+    private AuthorizationContext[] contexts;
+    private int nextCondition;
+    private int nextContext;
+    
+    @Setup
+    public void setUp() {
+        Class<? extends Condition> type = conditionClass(conditionType);
+        ConditionCompiler compiler = new ConditionCompiler();
+        
+        List<Condition> matching = new ArrayList<>();
+        for (Policy policy : SyntheticPolicies.policies(policyCount)) {
+            for (Condition condition : compiler.compile(policy.getConditionsJson(), policy.getEffect()).getConditions()) {
+                if (type.isInstance(condition)) {
+                    matching.add(condition);
+                }
+            }
+        }
+        if (matching.isEmpty()) {
+            // Small sets may not draw every condition type; fall back to one representative definition
+            matching.add(representative(compiler, conditionType));
+        }
+        
+        conditions = matching.toArray(new Condition[0]);
+        contexts = SyntheticPolicies.contexts(policyCount, CONTEXT_COUNT).toArray(new AuthorizationContext[0]);
+    }
+    
+    @Benchmark
+    public boolean evaluate() {
+        if (++nextCondition == conditions.length) {
+            nextCondition = 0;
+        }
+        Condition condition = conditions[nextCondition];
+        return condition.evaluate(contexts[nextContext++ & (CONTEXT_COUNT - 1)]);
+    }
+    
+    private static Class<? extends Condition> conditionClass(String conditionType) {
+        switch (conditionType) {
+            case "CONTEXT":
+                return ContextAttributeCondition.class;
+            case "IP_RANGE":
+                return IpRangeCondition.class;
+            default:
+                return TimeRangeCondition.class;
+        }
+    }
+    
+    private static Condition representative(ConditionCompiler compiler, String conditionType) {
+        String json;
+        switch (conditionType) {
+            case "CONTEXT":
+                json = "{\"context\": {\"channel\": \"web\"}}";
+                break;
+            case "IP_RANGE":
+                json = "{\"ipRange\": [\"10.0.0.0/8\", \"2001:db8::/32\"]}";
+                break;
+            default:
+                json = "{\"timeRange\": {\"start\": \"09:00\", \"end\": \"17:00\"}}";
+                break;
+        }
+        try {
+            return compiler.compile(new ObjectMapper().readTree(json), PolicyEffect.ALLOW)
+                    .getConditions().get(0);
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid benchmark condition: " + json, e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.enterprise.pbac.benchmark;
+
+import com.enterprise.pbac.application.service.PolicyIndexService;
+import com.enterprise.pbac.domain.engine.PolicyEvaluationEngine;
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.compiler.ConditionCompiler;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
+import com.enterprise.pbac.domain.engine.compiler.SubjectMatcherCompiler;
+import com.enterprise.pbac.domain.engine.metrics.ConditionCostTracker;
+import com.enterprise.pbac.domain.engine.metrics.EvaluationLatencyTracker;
+import com.enterprise.pbac.domain.engine.strategy.impl.DefaultPolicyEvaluationStrategy;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.infrastructure.cache.DecisionCache;
+import com.enterprise.pbac.infrastructure.cache.PolicyCacheService;
+import com.enterprise.pbac.infrastructure.repository.PolicyRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Wires the evaluation engine the way the application context does, without Spring or a database.
+ */
+final class EngineFixture {
+    
+    final PolicyCompiler policyCompiler;
+    final DefaultPolicyEvaluationStrategy strategy;
+    final PolicyIndexService policyIndexService;
+    final PolicyEvaluationEngine engine;
+    
+    EngineFixture(List<Policy> policies, boolean decisionCacheEnabled) {
+        PolicyRepository policyRepository = mock(PolicyRepository.class);
+        Map<List<String>, List<Policy>> byPair = policies.stream()
+                .filter(policy -> Boolean.TRUE.equals(policy.getIsActive()))
+                .collect(Collectors.groupingBy(policy -> List.of(policy.getResource(), policy.getAction()),
+                        LinkedHashMap::new, Collectors.toList()));
+        List<Object[]> versions = new ArrayList<>();
+        byPair.values().forEach(pairPolicies -> pairPolicies.forEach(policy -> versions.add(new Object[]{
+                policy.getId(), policy.getResource(), policy.getAction(), policy.getUpdatedAt()})));
+        when(policyRepository.findActivePolicyVersions()).thenReturn(versions);
+        when(policyRepository.findApplicablePolicies(anyString(), anyString())).thenAnswer(invocation ->
+                byPair.getOrDefault(List.of(invocation.getArgument(0), invocation.getArgument(1)), List.of()));
+        
+        // Every snapshot load misses the cache and goes to the (mocked) repository
+        PolicyCacheService policyCacheService = mock(PolicyCacheService.class);
+        when(policyCacheService.getOrLoad(anyString(), anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<CompiledPolicy>>>getArgument(2).get());
+        
+        policyCompiler = new PolicyCompiler(new SubjectMatcherCompiler(), new ConditionCompiler());
+        strategy = new DefaultPolicyEvaluationStrategy(policyCompiler, new ConditionCostTracker(64));
+        policyIndexService = new PolicyIndexService(policyRepository, policyCompiler,
+                mock(PlatformTransactionManager.class), policyCacheService);
+        policyIndexService.rebuild();
+        engine = new PolicyEvaluationEngine(
+                policyIndexService,
+                strategy,
+                new DecisionCache(decisionCacheEnabled, 100_000),
+                new EvaluationLatencyTracker(1000),
+                Clock.systemUTC()
+        );
+    }
+}
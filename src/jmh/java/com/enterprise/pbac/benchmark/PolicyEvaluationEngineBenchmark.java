@@ -0,0 +1,55 @@
+package com.enterprise.pbac.benchmark;
+
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end decision throughput of {@code PolicyEvaluationEngine.evaluate}, including the
+ * index lookup, network trie, condition chains and (optionally) the decision cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicyEvaluationEngineBenchmark {
+    
+    private static final int CONTEXT_COUNT = 4096;
+    
+    @Param({"10", "1000", "100000"})
+    public int policyCount;
+    
+    @Param({"true", "false"})
+    public boolean decisionCache;
+    
+    private EngineFixture fixture;
+    private AuthorizationContext[] contexts;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        fixture = new EngineFixture(SyntheticPolicies.policies(policyCount), decisionCache);
+        List<AuthorizationContext> generated = SyntheticPolicies.contexts(policyCount, CONTEXT_COUNT);
+        contexts = generated.toArray(new AuthorizationContext[0]);
+    }
+    
+    @Benchmark
+    public PolicyEvaluationResult evaluate() {
+        AuthorizationContext context = contexts[next++ & (CONTEXT_COUNT - 1)];
+        return fixture.engine.evaluate(context);
+    }
+}
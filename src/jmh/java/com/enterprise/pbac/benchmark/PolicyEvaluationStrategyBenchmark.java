@@ -0,0 +1,78 @@
+package com.enterprise.pbac.benchmark;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.entity.Policy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of matching one policy against one request with {@code DefaultPolicyEvaluationStrategy}.
+ * 
+ * Each invocation pairs a policy with a request for the same resource and action, so subject and
+ * condition checks run rather than short-circuiting on the resource comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicyEvaluationStrategyBenchmark {
+    
+    private static final int PAIR_COUNT = 4096;
+    
+    @Param({"10", "1000", "100000"})
+    public int policyCount;
+    
+    private EngineFixture fixture;
+    private Policy[] policies;
+    private CompiledPolicy[] compiledPolicies;
+    private AuthorizationContext[] contexts;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        List<Policy> generated = SyntheticPolicies.policies(policyCount);
+        List<AuthorizationContext> requests = SyntheticPolicies.contexts(policyCount, PAIR_COUNT);
+        fixture = new EngineFixture(generated, false);
+        
+        policies = new Policy[PAIR_COUNT];
+        compiledPolicies = new CompiledPolicy[PAIR_COUNT];
+        contexts = new AuthorizationContext[PAIR_COUNT];
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            Policy policy = generated.get((int) ((i * 2654435761L) % generated.size()));
+            AuthorizationContext context = requests.get(i);
+            context.setResource(policy.getResource());
+            context.setAction(policy.getAction());
+            
+            policies[i] = policy;
+            compiledPolicies[i] = fixture.policyCompiler.compile(policy);
+            contexts[i] = context;
+        }
+    }
+    
+    @Benchmark
+    public boolean matchesCompiled() {
+        int i = next++ & (PAIR_COUNT - 1);
+        return fixture.strategy.matches(compiledPolicies[i], contexts[i]);
+    }
+    
+    @Benchmark
+    public boolean matchesPolicy() {
+        // Includes the compiled-policy cache lookup done for callers holding the entity
+        int i = next++ & (PAIR_COUNT - 1);
+        return fixture.strategy.matches(policies[i], contexts[i]);
+    }
+}
@@ -0,0 +1,153 @@
+package com.enterprise.pbac.benchmark;
+
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic generator of policy sets and request contexts for benchmarks.
+ * 
+ * Mix per policy set:
+ * - subjects: 10% wildcard, 50% single role, 25% role set, 15% role + department
+ * - conditions: 50% none, 15% context, 15% IP range, 15% time window, 5% all three
+ * - effects: 15% DENY, 85% ALLOW
+ * Resources scale with the set size (about 20 policies per resource) over four actions.
+ */
+public final class SyntheticPolicies {
+    
+    static final String[] ROLES = {"admin", "manager", "engineer", "analyst", "contractor"};
+    static final String[] DEPARTMENTS = {"finance", "engineering", "sales", "hr", "operations"};
+    static final String[] ACTIONS = {"READ", "WRITE", "DELETE", "APPROVE"};
+    static final String[] CHANNELS = {"web", "mobile", "api"};
+    static final String[] NETWORKS = {"10.0.0.0/8", "192.168.0.0/16", "172.16.0.0/12", "2001:db8::/32"};
+    static final String[] CLIENT_ADDRESSES = {"10.1.2.3", "192.168.10.20", "172.20.1.1", "203.0.113.7", "2001:db8::1"};
+    static final long SEED = 42L;
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int POLICIES_PER_RESOURCE = 20;
+    
+    private SyntheticPolicies() {
+    }
+    
+    public static int resourceCount(int policyCount) {
+        return Math.max(1, policyCount / POLICIES_PER_RESOURCE);
+    }
+    
+    public static String resource(int index) {
+        return "resource-" + index;
+    }
+    
+    public static List<Policy> policies(int count) {
+        Random random = new Random(SEED);
+        int resources = resourceCount(count);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        
+        List<Policy> policies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            policies.add(Policy.builder()
+                    .id(new UUID(SEED, i))
+                    .name("policy-" + i)
+                    .effect(random.nextInt(100) < 15 ? PolicyEffect.DENY : PolicyEffect.ALLOW)
+                    .priority(random.nextInt(1000))
+                    .subjectJson(subject(random))
+                    .resource(resource(random.nextInt(resources)))
+                    .action(ACTIONS[random.nextInt(ACTIONS.length)])
+                    .conditionsJson(conditions(random))
+                    .isActive(true)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        return policies;
+    }
+    
+    /**
+     * Builds request contexts spread over the same resources, actions and attribute values
+     * as {@link #policies(int)}, with a fixed timestamp so runs are repeatable.
+     */
+    public static List<AuthorizationContext> contexts(int policyCount, int count) {
+        Random random = new Random(SEED + 1);
+        int resources = resourceCount(policyCount);
+        long timestamp = Instant.parse("2024-03-06T10:30:00Z").toEpochMilli();
+        
+        List<AuthorizationContext> contexts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put("role", ROLES[random.nextInt(ROLES.length)]);
+            attributes.put("department", DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+            
+            Map<String, Object> additionalContext = new HashMap<>();
+            additionalContext.put("channel", CHANNELS[random.nextInt(CHANNELS.length)]);
+            
+            contexts.add(AuthorizationContext.builder()
+                    .userId(new UUID(SEED + 1, i))
+                    .userAttributes(attributes)
+                    .resource(resource(random.nextInt(resources)))
+                    .action(ACTIONS[random.nextInt(ACTIONS.length)])
+                    .ipAddress(CLIENT_ADDRESSES[random.nextInt(CLIENT_ADDRESSES.length)])
+                    .timestamp(timestamp + random.nextInt(7 * 24) * 3_600_000L)
+                    .additionalContext(additionalContext)
+                    .build());
+        }
+        return contexts;
+    }
+    
+    private static ObjectNode subject(Random random) {
+        ObjectNode subject = MAPPER.createObjectNode();
+        int kind = random.nextInt(100);
+        if (kind < 10) {
+            return subject;
+        }
+        if (kind < 60) {
+            subject.put("role", ROLES[random.nextInt(ROLES.length)]);
+        } else if (kind < 85) {
+            ArrayNode roles = subject.putArray("role");
+            roles.add(ROLES[random.nextInt(ROLES.length)]);
+            roles.add(ROLES[random.nextInt(ROLES.length)]);
+        } else {
+            subject.put("role", ROLES[random.nextInt(ROLES.length)]);
+            subject.put("department", DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+        }
+        return subject;
+    }
+    
+    private static ObjectNode conditions(Random random) {
+        int kind = random.nextInt(100);
+        if (kind < 50) {
+            return null;
+        }
+        ObjectNode conditions = MAPPER.createObjectNode();
+        boolean all = kind >= 95;
+        if (kind < 65 || all) {
+            conditions.putObject("context").put("channel", CHANNELS[random.nextInt(CHANNELS.length)]);
+        }
+        if ((kind >= 65 && kind < 80) || all) {
+            ArrayNode ranges = conditions.putArray("ipRange");
+            ranges.add(NETWORKS[random.nextInt(NETWORKS.length)]);
+            ranges.add(NETWORKS[random.nextInt(NETWORKS.length)]);
+        }
+        if (kind >= 80) {
+            ObjectNode timeRange = conditions.putObject("timeRange");
+            timeRange.put("start", String.format("%02d:00", 6 + random.nextInt(4)));
+            timeRange.put("end", String.format("%02d:00", 16 + random.nextInt(6)));
+            if (random.nextBoolean()) {
+                timeRange.putArray("days").add("MONDAY").add("TUESDAY").add("WEDNESDAY").add("THURSDAY").add("FRIDAY");
+            }
+            if (random.nextBoolean()) {
+                timeRange.put("timezone", "Europe/Berlin");
+            }
+        }
+        return conditions;
+    }
+}
@@ -1,18 +1,28 @@
 package com.enterprise.pbac.api.controller;
 
-import com.enterprise.pbac.api.dto.AuditLogDto;
+import com.enterprise.pbac.api.dto.AuditLogPageDto;
+import com.enterprise.pbac.api.dto.AuditRollupDto;
+import com.enterprise.pbac.application.service.AuditExport;
+import com.enterprise.pbac.application.service.AuditExportFormat;
 import com.enterprise.pbac.application.service.AuditService;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Audit logging endpoints for viewing authorization logs and decisions.
+ * Results are limited to {@code from}..{@code to} (ISO date-times), by default the last days
+ * configured by {@code pbac.audit.query.default-window-days}, and returned newest first in pages
+ * of up to 1000 records. Follow {@code nextCursor} for the next page.
  */
 @RestController
 @RequestMapping("/api/audit")
@@ -23,44 +33,95 @@ public class AuditController {
     private final AuditService auditService;
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Page<AuditLogDto>> getUserAuditLogs(
+    public ResponseEntity<AuditLogPageDto> getUserAuditLogs(
             @PathVariable UUID userId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
         
-        Page<AuditLogDto> logs = auditService.getUserAuditLogs(
+        AuditLogPageDto logs = auditService.getUserAuditLogs(
                 userId,
-                PageRequest.of(page, size, Sort.by("timestamp").descending())
+                from,
+                to,
+                cursor,
+                size
         );
         
         return ResponseEntity.ok(logs);
     }
     
     @GetMapping("/resource/{resource}/action/{action}")
-    public ResponseEntity<Page<AuditLogDto>> getResourceActionLogs(
+    public ResponseEntity<AuditLogPageDto> getResourceActionLogs(
             @PathVariable String resource,
             @PathVariable String action,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
         
-        Page<AuditLogDto> logs = auditService.getResourceActionLogs(
+        AuditLogPageDto logs = auditService.getResourceActionLogs(
                 resource,
                 action,
-                PageRequest.of(page, size, Sort.by("timestamp").descending())
+                from,
+                to,
+                cursor,
+                size
         );
         
         return ResponseEntity.ok(logs);
     }
     
     @GetMapping("/denied")
-    public ResponseEntity<Page<AuditLogDto>> getDeniedAuthorizationLogs(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<AuditLogPageDto> getDeniedAuthorizationLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
         
-        Page<AuditLogDto> logs = auditService.getDeniedAuthorizationLogs(
-                PageRequest.of(page, size, Sort.by("timestamp").descending())
+        AuditLogPageDto logs = auditService.getDeniedAuthorizationLogs(
+                from,
+                to,
+                cursor,
+                size
         );
         
         return ResponseEntity.ok(logs);
     }
+    
+    /**
+     * Gets decision counts per minute, hour or day, optionally for one resource, action or decision.
+     * Served from pre-aggregated rollups, so the cost does not depend on the audit volume.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<AuditRollupDto>> getDecisionRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "minute") String granularity,
+            @RequestParam(required = false) String resource,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) AuthorizationDecision decision) {
+        
+        return ResponseEntity.ok(auditService.getDecisionRollups(from, to, granularity, resource, action, decision));
+    }
+    
+    /**
+     * Streams every record in the window, oldest first, as NDJSON or CSV. The response is
+     * written while rows are read, so exports of any size use constant memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        
+        AuditExportFormat exportFormat = AuditExportFormat.parse(format);
+        AuditExport export = auditService.exportAuditLogs(from, to, exportFormat);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"audit-export." + exportFormat.getFileExtension() + "\"")
+                .body(export::writeTo);
+    }
 }
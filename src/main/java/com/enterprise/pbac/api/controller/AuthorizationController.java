@@ -2,14 +2,24 @@ package com.enterprise.pbac.api.controller;
 
 import com.enterprise.pbac.api.dto.AuthorizationRequestDto;
 import com.enterprise.pbac.api.dto.AuthorizationResponseDto;
+import com.enterprise.pbac.api.dto.BatchAuthorizationRequestDto;
+import com.enterprise.pbac.api.dto.BatchAuthorizationResponseDto;
+import com.enterprise.pbac.application.service.UserService;
 import com.enterprise.pbac.domain.engine.PolicyEvaluationEngine;
 import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
 import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import com.enterprise.pbac.infrastructure.security.ClientAddresses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Authorization evaluation endpoint for testing authorization decisions.
@@ -21,27 +31,78 @@ import java.util.UUID;
 public class AuthorizationController {
     
     private final PolicyEvaluationEngine policyEvaluationEngine;
+    private final UserService userService;
     
     @PostMapping("/check")
     public ResponseEntity<AuthorizationResponseDto> checkAuthorization(
             @RequestBody AuthorizationRequestDto request,
-            @RequestAttribute UUID userId) {
+            @RequestAttribute UUID userId,
+            HttpServletRequest httpRequest) {
         
         AuthorizationContext context = AuthorizationContext.builder()
                 .userId(userId)
+                .userAttributes(userService.getUserAttributes(userId))
                 .resource(request.getResource())
                 .action(request.getAction())
+                .ipAddress(ClientAddresses.resolve(httpRequest))
                 .additionalContext(request.getContext())
                 .build();
         
+        long startNanos = System.nanoTime();
         PolicyEvaluationResult result = policyEvaluationEngine.evaluate(context);
+        long elapsedNanos = System.nanoTime() - startNanos;
         
         AuthorizationResponseDto response = AuthorizationResponseDto.builder()
                 .decision(result.getDecision())
                 .reason(result.getReason())
-                .evaluationTimeMs(result.getEvaluationTimeMs())
+                .evaluationTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .evaluationTimeNanos(elapsedNanos)
                 .build();
         
         return ResponseEntity.ok(response);
     }
+    
+    @PostMapping("/check-batch")
+    public ResponseEntity<BatchAuthorizationResponseDto> checkAuthorizationBatch(
+            @Valid @RequestBody BatchAuthorizationRequestDto request,
+            @RequestAttribute UUID userId,
+            HttpServletRequest httpRequest) {
+        
+        long startTime = System.currentTimeMillis();
+        
+        // Resolve the caller's attributes and address once for the whole batch
+        Map<String, String> userAttributes = userService.getUserAttributes(userId);
+        String ipAddress = ClientAddresses.resolve(httpRequest);
+        
+        List<AuthorizationContext> contexts = request.getChecks().stream()
+                .map(check -> AuthorizationContext.builder()
+                        .userId(userId)
+                        .userAttributes(userAttributes)
+                        .resource(check.getResource())
+                        .action(check.getAction())
+                        .ipAddress(ipAddress)
+                        .additionalContext(check.getContext())
+                        .build())
+                .collect(Collectors.toList());
+        
+        // Checks share one evaluation pass, so each result reports the batch's evaluation time
+        long evaluationStartNanos = System.nanoTime();
+        List<PolicyEvaluationResult> evaluated = policyEvaluationEngine.evaluateAll(contexts);
+        long evaluationNanos = System.nanoTime() - evaluationStartNanos;
+        
+        List<AuthorizationResponseDto> results = evaluated.stream()
+                .map(result -> AuthorizationResponseDto.builder()
+                        .decision(result.getDecision())
+                        .reason(result.getReason())
+                        .evaluationTimeMs(TimeUnit.NANOSECONDS.toMillis(evaluationNanos))
+                        .evaluationTimeNanos(evaluationNanos)
+                        .build())
+                .collect(Collectors.toList());
+        
+        log.debug("Evaluated {} authorization checks for user {}", results.size(), userId);
+        return ResponseEntity.ok(BatchAuthorizationResponseDto.builder()
+                .results(results)
+                .evaluationTimeMs(System.currentTimeMillis() - startTime)
+                .build());
+    }
 }
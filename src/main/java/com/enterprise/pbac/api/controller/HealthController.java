@@ -1,6 +1,8 @@
 package com.enterprise.pbac.api.controller;
 
+import com.enterprise.pbac.application.service.PolicyWarmupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,13 +18,34 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class HealthController {
     
+    private final PolicyWarmupService policyWarmupService;
+    
     @GetMapping
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
+        response.put("ready", policyWarmupService.isReady());
         response.put("service", "PBAC System");
         response.put("version", "1.0.0");
         response.put("timestamp", System.currentTimeMillis());
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Readiness probe: 503 until policies have been loaded and the caches warmed.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", policyWarmupService.isReady() ? "READY" : "NOT_READY");
+        response.put("warmup", policyWarmupService.getState());
+        if (policyWarmupService.isReady()) {
+            response.put("warmupDurationMs", policyWarmupService.getDurationMs());
+        } else if (policyWarmupService.getLastError() != null) {
+            response.put("lastError", policyWarmupService.getLastError());
+        }
+        response.put("timestamp", System.currentTimeMillis());
+        HttpStatus status = policyWarmupService.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(response);
+    }
 }
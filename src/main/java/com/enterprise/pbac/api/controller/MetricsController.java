@@ -0,0 +1,60 @@
+package com.enterprise.pbac.api.controller;
+
+import com.enterprise.pbac.domain.engine.metrics.ConditionCostTracker;
+import com.enterprise.pbac.domain.engine.metrics.EvaluationLatencyTracker;
+import com.enterprise.pbac.infrastructure.audit.AuditRecordSink;
+import com.enterprise.pbac.infrastructure.audit.AuditRollupAggregator;
+import com.enterprise.pbac.infrastructure.cache.DecisionCache;
+import com.enterprise.pbac.infrastructure.cache.PolicyCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+
+/**
+ * Runtime metrics endpoints for the policy evaluation engine.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+    
+    private final ConditionCostTracker conditionCostTracker;
+    private final DecisionCache decisionCache;
+    private final EvaluationLatencyTracker evaluationLatencyTracker;
+    private final PolicyCacheService policyCacheService;
+    private final AuditRecordSink auditSink;
+    private final AuditRollupAggregator auditRollupAggregator;
+    
+    @GetMapping("/conditions")
+    public ResponseEntity<Map<String, Map<String, Object>>> conditionCosts() {
+        return ResponseEntity.ok(conditionCostTracker.snapshot());
+    }
+    
+    @GetMapping("/decision-cache")
+    public ResponseEntity<Map<String, Object>> decisionCache() {
+        return ResponseEntity.ok(decisionCache.getStats());
+    }
+    
+    @GetMapping("/policy-cache")
+    public ResponseEntity<Map<String, Object>> policyCache() {
+        return ResponseEntity.ok(policyCacheService.getStats());
+    }
+    
+    @GetMapping("/latency")
+    public ResponseEntity<Map<String, Object>> evaluationLatency() {
+        return ResponseEntity.ok(evaluationLatencyTracker.snapshot());
+    }
+    
+    @GetMapping("/audit")
+    public ResponseEntity<Map<String, Object>> auditSink() {
+        return ResponseEntity.ok(auditSink.getStats());
+    }
+    
+    @GetMapping("/audit-rollup")
+    public ResponseEntity<Map<String, Object>> auditRollup() {
+        return ResponseEntity.ok(auditRollupAggregator.getStats());
+    }
+}
@@ -0,0 +1,20 @@
+package com.enterprise.pbac.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * One page of audit records, newest first. Pass {@code nextCursor} back as {@code cursor} to get
+ * the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogPageDto {
+    private List<AuditLogDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.enterprise.pbac.api.dto;
+
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditRollupDto {
+    private LocalDateTime bucketStart;
+    private String resource;
+    private String action;
+    private AuthorizationDecision decision;
+    private long count;
+}
@@ -14,4 +14,5 @@ public class AuthorizationResponseDto {
     private AuthorizationDecision decision;
     private String reason;
     private long evaluationTimeMs;
+    private long evaluationTimeNanos;
 }
@@ -0,0 +1,20 @@
+package com.enterprise.pbac.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchAuthorizationRequestDto {
+    
+    @NotEmpty(message = "At least one check is required")
+    @Size(max = 500, message = "At most 500 checks are allowed per batch")
+    private List<AuthorizationRequestDto> checks;
+}
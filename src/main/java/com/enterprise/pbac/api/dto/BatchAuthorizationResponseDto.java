@@ -0,0 +1,16 @@
+package com.enterprise.pbac.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchAuthorizationResponseDto {
+    private List<AuthorizationResponseDto> results;
+    private long evaluationTimeMs;
+}
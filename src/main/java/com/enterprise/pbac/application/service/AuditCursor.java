@@ -0,0 +1,83 @@
+package com.enterprise.pbac.application.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Continuation token for audit queries paged by (timestamp, id) descending.
+ *
+ * Holds the position of the last record returned and the start of the query window, so every
+ * page of a query covers the same window even when the default window moves on between calls.
+ * Clients treat the encoded form as opaque.
+ */
+final class AuditCursor {
+    
+    private static final byte VERSION = 1;
+    private static final int ENCODED_BYTES = 1 + 12 + 12 + 16;
+    
+    private final LocalDateTime windowStart;
+    private final LocalDateTime timestamp;
+    private final UUID id;
+    
+    AuditCursor(LocalDateTime windowStart, LocalDateTime timestamp, UUID id) {
+        this.windowStart = windowStart;
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+    
+    LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+    
+    LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    UUID getId() {
+        return id;
+    }
+    
+    String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        buffer.put(VERSION);
+        putTimestamp(buffer, windowStart);
+        putTimestamp(buffer, timestamp);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+    
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or from another version
+     */
+    static AuditCursor decode(String token) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.remaining() != ENCODED_BYTES || buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Invalid audit cursor");
+            }
+            LocalDateTime windowStart = getTimestamp(buffer);
+            LocalDateTime timestamp = getTimestamp(buffer);
+            return new AuditCursor(windowStart, timestamp, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid audit cursor", e);
+        }
+    }
+    
+    private static void putTimestamp(ByteBuffer buffer, LocalDateTime value) {
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+    
+    private static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, buffer.getInt(), ZoneOffset.UTC);
+    }
+}
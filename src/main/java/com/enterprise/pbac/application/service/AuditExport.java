@@ -0,0 +1,13 @@
+package com.enterprise.pbac.application.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An audit export whose parameters have been validated, ready to be written to a stream.
+ */
+@FunctionalInterface
+public interface AuditExport {
+    
+    void writeTo(OutputStream out) throws IOException;
+}
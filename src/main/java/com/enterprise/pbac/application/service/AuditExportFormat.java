@@ -0,0 +1,39 @@
+package com.enterprise.pbac.application.service;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the audit export.
+ */
+public enum AuditExportFormat {
+    
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+    
+    private final String contentType;
+    private final String fileExtension;
+    
+    AuditExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getFileExtension() {
+        return fileExtension;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the name is not a supported format
+     */
+    public static AuditExportFormat parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format '" + name + "', expected ndjson or csv");
+        }
+    }
+}
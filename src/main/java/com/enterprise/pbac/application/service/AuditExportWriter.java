@@ -0,0 +1,155 @@
+package com.enterprise.pbac.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes audit rows straight from a result set to an output stream, one line per record,
+ * without building entities or DTOs. Request contexts are copied through as JSON text.
+ */
+abstract class AuditExportWriter {
+    
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    private long rows;
+    
+    static AuditExportWriter create(AuditExportFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return format == AuditExportFormat.CSV ? new Csv(out) : new Ndjson(out, objectMapper);
+    }
+    
+    abstract void writeHeader() throws IOException;
+    
+    abstract void writeRecord(ResultSet row) throws SQLException, IOException;
+    
+    /**
+     * Flushes buffered output; the stream itself is left open.
+     */
+    abstract void finish() throws IOException;
+    
+    void writeRow(ResultSet row) throws SQLException, IOException {
+        writeRecord(row);
+        rows++;
+    }
+    
+    long getRows() {
+        return rows;
+    }
+    
+    static String formatTimestamp(Timestamp timestamp) {
+        return TIMESTAMP_FORMAT.format(timestamp.toLocalDateTime());
+    }
+    
+    private static final class Ndjson extends AuditExportWriter {
+        
+        private final JsonGenerator generator;
+        
+        private Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Records are separated by the newline written after each one, not Jackson's default space
+            this.generator.setRootValueSeparator(null);
+        }
+        
+        @Override
+        void writeHeader() {
+        }
+        
+        @Override
+        void writeRecord(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", row.getString("id"));
+            generator.writeStringField("userId", row.getString("user_id"));
+            generator.writeStringField("resource", row.getString("resource"));
+            generator.writeStringField("action", row.getString("action"));
+            generator.writeStringField("decision", row.getString("decision"));
+            generator.writeStringField("reason", row.getString("reason"));
+            String requestContext = row.getString("request_context");
+            generator.writeFieldName("requestContext");
+            if (requestContext == null) {
+                generator.writeNull();
+            } else {
+                generator.writeRawValue(requestContext);
+            }
+            generator.writeStringField("timestamp", formatTimestamp(row.getTimestamp("timestamp")));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+    
+    private static final class Csv extends AuditExportWriter {
+        
+        private final Writer writer;
+        
+        private Csv(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        void writeHeader() throws IOException {
+            writer.write("id,user_id,resource,action,decision,reason,request_context,timestamp\r\n");
+        }
+        
+        @Override
+        void writeRecord(ResultSet row) throws SQLException, IOException {
+            writer.write(row.getString("id"));
+            writer.write(',');
+            writer.write(row.getString("user_id"));
+            writer.write(',');
+            writeField(row.getString("resource"));
+            writer.write(',');
+            writeField(row.getString("action"));
+            writer.write(',');
+            writer.write(row.getString("decision"));
+            writer.write(',');
+            writeField(row.getString("reason"));
+            writer.write(',');
+            writeField(row.getString("request_context"));
+            writer.write(',');
+            writer.write(formatTimestamp(row.getTimestamp("timestamp")));
+            writer.write("\r\n");
+        }
+        
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+        
+        /**
+         * Writes a field, quoted if it contains a delimiter, quote or line break (RFC 4180).
+         * Null is written as an empty field.
+         */
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.infrastructure.repository.AuditPartitionRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditPartitionRepository.AuditPartition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Maintains the time partitions of the audit_logs table.
+ *
+ * On startup and then on a schedule, creates partitions for the current period and the next
+ * {@code premake} periods (days or months), and drops partitions whose rows are all older than
+ * the retention period. Expired partitions are detached concurrently and then dropped, which removes
+ * their rows without a DELETE and without blocking audit reads or writes. When partitions of another
+ * interval already cover part of a period, the uncovered days get daily partitions. Instances
+ * coordinate through an advisory lock, so only one plans maintenance at a time.
+ */
+@Service
+@Slf4j
+public class AuditPartitionService {
+    
+    public enum Interval {
+        DAILY,
+        MONTHLY
+    }
+    
+    private final AuditPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Interval interval;
+    private final int premake;
+    private final int retentionDays;
+    
+    public AuditPartitionService(AuditPartitionRepository partitionRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 Clock clock,
+                                 @Value("${pbac.audit.partitions.enabled:true}") boolean enabled,
+                                 @Value("${pbac.audit.partitions.interval:monthly}") String interval,
+                                 @Value("${pbac.audit.partitions.premake:2}") int premake,
+                                 @Value("${pbac.audit.partitions.retention-days:0}") int retentionDays) {
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.interval = Interval.valueOf(interval.trim().toUpperCase(Locale.ROOT));
+        this.premake = Math.max(1, premake);
+        this.retentionDays = retentionDays;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runMaintenance();
+    }
+    
+    @Scheduled(cron = "${pbac.audit.partitions.maintenance-cron:0 15 * * * *}")
+    public void runMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.error("Audit partition maintenance failed", e);
+        }
+    }
+    
+    /**
+     * Creates upcoming partitions and drops expired ones.
+     */
+    public synchronized void maintain() {
+        List<AuditPartition> expired = transactionTemplate.execute(status -> {
+            if (!partitionRepository.tryLockForMaintenance()) {
+                log.debug("Audit partition maintenance running on another instance");
+                return List.of();
+            }
+            LocalDate today = LocalDate.now(clock);
+            List<AuditPartition> partitions = partitionRepository.findPartitions();
+            createAhead(today, partitions);
+            return findExpired(today, partitions);
+        });
+        // Detaching concurrently cannot run in a transaction, so expired partitions are dropped after it
+        for (AuditPartition partition : expired) {
+            try {
+                partitionRepository.detachAndDrop(partition);
+                log.info("Dropped audit partition {} ({} to {}), older than {} days",
+                        partition.getName(), partition.getFrom(), partition.getTo(), retentionDays);
+            } catch (RuntimeException e) {
+                log.warn("Could not drop audit partition {}; retrying on the next run", partition.getName(), e);
+            }
+        }
+    }
+    
+    private void createAhead(LocalDate today, List<AuditPartition> partitions) {
+        List<AuditPartition> created = new ArrayList<>();
+        LocalDate periodStart = periodStart(today);
+        for (int i = 0; i <= premake; i++) {
+            LocalDate periodEnd = nextPeriod(periodStart);
+            if (!overlapsAny(partitions, periodStart, periodEnd)) {
+                created.add(interval == Interval.DAILY
+                        ? partitionRepository.createDaily(periodStart)
+                        : partitionRepository.createMonthly(YearMonth.from(periodStart)));
+            } else {
+                for (LocalDate day = periodStart; day.isBefore(periodEnd); day = day.plusDays(1)) {
+                    if (!overlapsAny(partitions, day, day.plusDays(1))) {
+                        created.add(partitionRepository.createDaily(day));
+                    }
+                }
+            }
+            periodStart = periodEnd;
+        }
+        partitions.addAll(created);
+        if (!created.isEmpty()) {
+            log.info("Created audit partitions {}", created.stream().map(AuditPartition::getName).toList());
+        }
+    }
+    
+    private List<AuditPartition> findExpired(LocalDate today, List<AuditPartition> partitions) {
+        if (retentionDays <= 0) {
+            return List.of();
+        }
+        LocalDate cutoff = today.minusDays(retentionDays);
+        return partitions.stream()
+                .filter(partition -> !partition.getTo().isAfter(cutoff))
+                .toList();
+    }
+    
+    private LocalDate periodStart(LocalDate day) {
+        return interval == Interval.DAILY ? day : day.withDayOfMonth(1);
+    }
+    
+    private LocalDate nextPeriod(LocalDate periodStart) {
+        return interval == Interval.DAILY ? periodStart.plusDays(1) : periodStart.plusMonths(1);
+    }
+    
+    private static boolean overlapsAny(List<AuditPartition> partitions, LocalDate from, LocalDate to) {
+        return partitions.stream().anyMatch(partition -> partition.overlaps(from, to));
+    }
+}
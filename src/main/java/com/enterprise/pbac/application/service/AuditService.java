@@ -1,48 +1,95 @@
 package com.enterprise.pbac.application.service;
 
 import com.enterprise.pbac.api.dto.AuditLogDto;
+import com.enterprise.pbac.api.dto.AuditLogPageDto;
+import com.enterprise.pbac.api.dto.AuditRollupDto;
 import com.enterprise.pbac.domain.entity.AuditLog;
 import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.domain.id.UuidV7;
+import com.enterprise.pbac.infrastructure.audit.AuditRecordSink;
+import com.enterprise.pbac.infrastructure.audit.AuditRollupCount;
+import com.enterprise.pbac.infrastructure.repository.AuditLogExportRepository;
 import com.enterprise.pbac.infrastructure.repository.AuditLogRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditRollupRepository;
 import com.enterprise.pbac.infrastructure.mapper.AuditLogMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Service for immutable audit logging.
  * All operations are append-only to maintain compliance and auditability.
+ *
+ * Decisions are handed to the configured {@link AuditRecordSink} and inserted in batches off the
+ * request thread, so recording a decision opens no transaction and borrows no connection.
+ *
+ * Queries always cover a bounded time window so they only touch the matching audit_logs
+ * partitions. Without explicit bounds the window is the last {@code default-window-days} days.
+ * Pages are read by seeking past the last (timestamp, id) returned, carried in an
+ * {@link AuditCursor} token, so deep pages cost no more than the first and nothing is counted.
+ * Decision counts over time come from per-minute rollups that the sink maintains as it writes
+ * decisions, not from audit_logs.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class AuditService {
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    // A week of minutes
+    private static final long MAX_ROLLUP_BUCKETS = 7 * 24 * 60;
+    private static final UUID FIRST_PAGE_ID = new UUID(0L, 0L);
+    
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
+    private final AuditRecordSink auditSink;
+    private final AuditRollupRepository rollupRepository;
+    private final AuditLogExportRepository auditLogExportRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    
+    @Value("${pbac.audit.query.default-window-days:7}")
+    private int defaultWindowDays = 7;
+    
+    @Value("${pbac.audit.query.max-window-days:93}")
+    private int maxWindowDays = 93;
     
     public void logAuthorizationDecision(UUID userId, String resource, String action,
                                          AuthorizationDecision decision, String reason,
                                          JsonNode requestContext) {
+        // The id carries the same millisecond as the timestamp, so id order follows time order
+        Instant now = clock.instant();
         AuditLog auditLog = AuditLog.builder()
+                .id(UuidV7.next(now.toEpochMilli()))
                 .userId(userId)
                 .resource(resource)
                 .action(action)
                 .decision(decision)
                 .reason(reason)
                 .requestContext(requestContext)
+                .timestamp(LocalDateTime.ofInstant(now, clock.getZone()))
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditSink.submit(auditLog);
         
         if (decision == AuthorizationDecision.DENY) {
             log.warn("Authorization denied for user {} on {}/{}: {}", userId, resource, action, reason);
@@ -51,28 +98,169 @@ public class AuditService {
         }
     }
     
+    /**
+     * Gets a page of a user's audit records, newest first.
+     *
+     * @param cursor token from the previous page, or null for the first page; when given, it
+     *               determines the window and {@code from}/{@code to} are ignored
+     */
     @Transactional(readOnly = true)
-    public Page<AuditLogDto> getUserAuditLogs(UUID userId, Pageable pageable) {
-        return auditLogRepository.findByUserIdOrderByTimestampDesc(userId, pageable)
-                .map(auditLogMapper::toDto);
+    public AuditLogPageDto getUserAuditLogs(UUID userId, LocalDateTime from, LocalDateTime to,
+                                            String cursor, int size) {
+        AuditCursor position = resolveCursor(from, to, cursor);
+        int limit = pageLimit(size);
+        return toPage(auditLogRepository.findUserPage(userId, position.getWindowStart(),
+                position.getTimestamp(), position.getId(), limit + 1), position, limit);
     }
     
     @Transactional(readOnly = true)
-    public Page<AuditLogDto> getResourceActionLogs(String resource, String action, Pageable pageable) {
-        return auditLogRepository.findByResourceAndAction(resource, action, pageable)
-                .map(auditLogMapper::toDto);
+    public AuditLogPageDto getResourceActionLogs(String resource, String action, LocalDateTime from,
+                                                 LocalDateTime to, String cursor, int size) {
+        AuditCursor position = resolveCursor(from, to, cursor);
+        int limit = pageLimit(size);
+        return toPage(auditLogRepository.findResourceActionPage(resource, action, position.getWindowStart(),
+                position.getTimestamp(), position.getId(), limit + 1), position, limit);
     }
     
     @Transactional(readOnly = true)
-    public Page<AuditLogDto> getDeniedAuthorizationLogs(Pageable pageable) {
-        return auditLogRepository.findByDecision(AuthorizationDecision.DENY, pageable)
-                .map(auditLogMapper::toDto);
+    public AuditLogPageDto getDeniedAuthorizationLogs(LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        AuditCursor position = resolveCursor(from, to, cursor);
+        int limit = pageLimit(size);
+        return toPage(auditLogRepository.findDecisionPage(AuthorizationDecision.DENY.name(), position.getWindowStart(),
+                position.getTimestamp(), position.getId(), limit + 1), position, limit);
     }
     
-    @Transactional(readOnly = true)
-    public List<AuditLogDto> getAuditLogsByTimestampRange(LocalDateTime start, LocalDateTime end) {
-        return auditLogRepository.findByTimestampRange(start, end).stream()
-                .map(auditLogMapper::toDto)
+    /**
+     * Gets decision counts per bucket of {@code granularity} (minute, hour or day) from the
+     * rollups. Counts recorded in the last {@code pbac.audit.rollup.flush-interval-ms} may be missing.
+     */
+    public List<AuditRollupDto> getDecisionRollups(LocalDateTime from, LocalDateTime to, String granularity,
+                                                   String resource, String action, AuthorizationDecision decision) {
+        LocalDateTime end = resolveEnd(to);
+        LocalDateTime start = resolveStart(from, end);
+        ChronoUnit unit = parseGranularity(granularity);
+        if (unit.between(start, end) > MAX_ROLLUP_BUCKETS) {
+            throw new IllegalArgumentException("Too many " + granularity + " buckets in the window, use a coarser granularity");
+        }
+        return rollupRepository.findCounts(start, end, unit, resource, action, decision).stream()
+                .map(AuditService::toDto)
                 .collect(Collectors.toList());
     }
+    
+    /**
+     * Prepares an export of all records in the window, oldest first. The window is validated
+     * here; rows are read and written only when the export is written to a stream, in a read-only
+     * transaction through a database cursor, so memory use does not depend on the number of rows.
+     */
+    public AuditExport exportAuditLogs(LocalDateTime from, LocalDateTime to, AuditExportFormat format) {
+        LocalDateTime end = resolveEnd(to);
+        LocalDateTime start = resolveStart(from, end);
+        return out -> writeExport(start, end, format, out);
+    }
+    
+    private AuditCursor resolveCursor(LocalDateTime from, LocalDateTime to, String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            return validateCursor(AuditCursor.decode(cursor));
+        }
+        LocalDateTime end = resolveEnd(to);
+        // PostgreSQL stores microseconds; every row at or before the end sorts below (end + 1us, nil id)
+        LocalDateTime bound = end.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+        return new AuditCursor(resolveStart(from, end), bound, FIRST_PAGE_ID);
+    }
+    
+    /**
+     * Cursors come back from clients, so a decoded one must still describe a window this service
+     * would have accepted: starting no later than now and its position, and at most max-window-days long.
+     */
+    private AuditCursor validateCursor(AuditCursor cursor) {
+        LocalDateTime start = cursor.getWindowStart();
+        if (start.isAfter(LocalDateTime.now(clock)) || start.isAfter(cursor.getTimestamp())
+                || Duration.between(start, cursor.getTimestamp()).toDays() > maxWindowDays) {
+            throw new IllegalArgumentException("Invalid audit cursor");
+        }
+        return cursor;
+    }
+    
+    private void writeExport(LocalDateTime start, LocalDateTime end, AuditExportFormat format, OutputStream out)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        AuditExportWriter writer = AuditExportWriter.create(format, out, objectMapper);
+        writer.writeHeader();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        try {
+            template.executeWithoutResult(status -> auditLogExportRepository.streamByTimestampRange(start, end, row -> {
+                try {
+                    writer.writeRow(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed with the transaction
+            throw e.getCause();
+        }
+        writer.finish();
+        log.info("Exported {} audit records from {} to {} as {} in {} ms",
+                writer.getRows(), start, end, format, System.currentTimeMillis() - startTime);
+    }
+    
+    private static ChronoUnit parseGranularity(String granularity) {
+        switch (granularity.trim().toLowerCase(Locale.ROOT)) {
+            case "minute":
+                return ChronoUnit.MINUTES;
+            case "hour":
+                return ChronoUnit.HOURS;
+            case "day":
+                return ChronoUnit.DAYS;
+            default:
+                throw new IllegalArgumentException("Unsupported granularity '" + granularity + "', expected minute, hour or day");
+        }
+    }
+    
+    private static AuditRollupDto toDto(AuditRollupCount count) {
+        return AuditRollupDto.builder()
+                .bucketStart(count.getKey().getBucketStart())
+                .resource(count.getKey().getResource())
+                .action(count.getKey().getAction())
+                .decision(count.getKey().getDecision())
+                .count(count.getCount())
+                .build();
+    }
+    
+    private static int pageLimit(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * Builds a page from up to limit + 1 rows; the extra row only shows that another page exists.
+     */
+    private AuditLogPageDto toPage(List<AuditLog> rows, AuditCursor position, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<AuditLog> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = items.get(items.size() - 1);
+            nextCursor = new AuditCursor(position.getWindowStart(), last.getTimestamp(), last.getId()).encode();
+        }
+        return AuditLogPageDto.builder()
+                .items(items.stream().map(auditLogMapper::toDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private LocalDateTime resolveEnd(LocalDateTime to) {
+        return to != null ? to : LocalDateTime.now(clock);
+    }
+    
+    private LocalDateTime resolveStart(LocalDateTime from, LocalDateTime end) {
+        LocalDateTime start = from != null ? from : end.minusDays(defaultWindowDays);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Audit query start " + start + " is after its end " + end);
+        }
+        if (Duration.between(start, end).toDays() > maxWindowDays) {
+            throw new IllegalArgumentException("Audit queries may span at most " + maxWindowDays + " days");
+        }
+        return start;
+    }
 }
@@ -0,0 +1,229 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
+import com.enterprise.pbac.domain.engine.index.PolicyDecisionIndex;
+import com.enterprise.pbac.domain.engine.index.PolicySnapshot;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.infrastructure.cache.PolicyCacheService;
+import com.enterprise.pbac.infrastructure.repository.PolicyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current {@link PolicySnapshot} used by the evaluation engine.
+ *
+ * Readers take the snapshot from an atomic reference and never lock, open a transaction or
+ * borrow a connection. Writers are serialized: a committed policy change re-reads that one policy
+ * and swaps in a snapshot where only its buckets are rebuilt. The first snapshot is built lazily,
+ * or eagerly by {@link PolicyWarmupService}.
+ *
+ * Full builds are driven by the database: the id, pair and version of every active policy are read
+ * from Postgres first. The {@link PolicyCacheService} is only a hint on top of that; a cached pair is
+ * used when it holds exactly the committed versions, and any other pair (missing, stale, or written
+ * by a racing load on another node) is read and compiled from the database and re-cached. A node
+ * restarting against a warm cache therefore skips loading and recompiling unchanged policies without
+ * ever trusting a cache entry over the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PolicyIndexService {
+    
+    private final PolicyRepository policyRepository;
+    private final PolicyCompiler policyCompiler;
+    private final PlatformTransactionManager transactionManager;
+    private final PolicyCacheService policyCacheService;
+    private final AtomicReference<PolicySnapshot> snapshot = new AtomicReference<>();
+    
+    public PolicySnapshot getSnapshot() {
+        PolicySnapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot.get();
+                if (current == null) {
+                    current = buildSnapshot(0);
+                    snapshot.set(current);
+                }
+            }
+        }
+        return current;
+    }
+    
+    public PolicyDecisionIndex getIndex() {
+        return getSnapshot().getIndex();
+    }
+    
+    public synchronized void rebuild() {
+        PolicySnapshot current = snapshot.get();
+        snapshot.set(buildSnapshot(current == null ? 0 : current.getVersion() + 1));
+    }
+    
+    /**
+     * Applies a committed change to a single policy.
+     *
+     * The policy is re-read in its own transaction while holding the writer lock, so concurrent
+     * changes are applied in commit order and a late caller never reinstates an older version.
+     * Falls back to a full rebuild if the incremental update fails.
+     */
+    public synchronized void refreshPolicy(UUID policyId) {
+        PolicySnapshot current = snapshot.get();
+        if (current == null) {
+            // Nothing built yet; the first reader loads the committed state
+            return;
+        }
+        
+        try {
+            Optional<Policy> committed = readCommitted(policyId);
+            PolicySnapshot next = committed
+                    .map(policy -> current.withPolicy(policyCompiler.compile(policy)))
+                    .orElseGet(() -> current.withoutPolicy(policyId));
+            if (committed.isEmpty() || !Boolean.TRUE.equals(committed.get().getIsActive())) {
+                policyCompiler.evict(policyId);
+            }
+            snapshot.set(next);
+            log.debug("Policy snapshot {} published after change to policy {}", next.getVersion(), policyId);
+        } catch (RuntimeException e) {
+            log.warn("Incremental policy snapshot update failed for {}, rebuilding", policyId, e);
+            rebuild();
+        }
+    }
+    
+    /**
+     * Rebuilds the snapshot if it no longer holds exactly the committed versions of the active policies.
+     *
+     * Changes normally arrive through {@link #refreshPolicy}; this catches any that did not, such as
+     * a change notification from another node that was lost, so staleness is bounded by how often it runs.
+     * Only ids and versions are read unless a rebuild is needed.
+     *
+     * @return whether the snapshot was rebuilt
+     */
+    public synchronized boolean reconcile() {
+        PolicySnapshot current = snapshot.get();
+        if (current == null) {
+            return false;
+        }
+        
+        List<Object[]> committed =
+                newReadOnlyTransaction().execute(status -> policyRepository.findActivePolicyVersions());
+        if (holdsExactly(current, committed)) {
+            return false;
+        }
+        log.info("Policy snapshot {} differs from the database, rebuilding", current.getVersion());
+        rebuild();
+        return true;
+    }
+    
+    private Optional<Policy> readCommitted(UUID policyId) {
+        return newReadOnlyTransaction().execute(status -> policyRepository.findById(policyId));
+    }
+    
+    /**
+     * Reads and compiles the active policies of one pair from the database.
+     */
+    private List<CompiledPolicy> loadApplicablePolicies(String resource, String action) {
+        return newReadOnlyTransaction().execute(status ->
+                policyRepository.findApplicablePolicies(resource, action).stream()
+                        .map(policyCompiler::compile)
+                        .collect(Collectors.toList()));
+    }
+    
+    private TransactionTemplate newReadOnlyTransaction() {
+        // A new transaction gets a fresh persistence context, never the caller's cached entities
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template;
+    }
+    
+    private PolicySnapshot buildSnapshot(long version) {
+        long startTime = System.currentTimeMillis();
+        Map<List<String>, Map<UUID, LocalDateTime>> committed = new LinkedHashMap<>();
+        for (Object[] row : policyRepository.findActivePolicyVersions()) {
+            committed.computeIfAbsent(List.of((String) row[1], (String) row[2]), pair -> new HashMap<>())
+                    .put((UUID) row[0], (LocalDateTime) row[3]);
+        }
+        
+        Map<UUID, CompiledPolicy> compiled = new LinkedHashMap<>();
+        for (Map.Entry<List<String>, Map<UUID, LocalDateTime>> pair : committed.entrySet()) {
+            String resource = pair.getKey().get(0);
+            String action = pair.getKey().get(1);
+            for (CompiledPolicy policy : loadPair(resource, action, pair.getValue())) {
+                // A policy moved to another pair during the build can appear under both; keep the newer version
+                compiled.merge(policy.getId(), policy, PolicyIndexService::newer);
+            }
+        }
+        policyCompiler.retainAll(compiled.keySet());
+        
+        PolicySnapshot built = PolicySnapshot.of(version, compiled.values());
+        log.info("Policy snapshot {} built with {} policies in {} ms",
+                built.getVersion(), built.getPolicyCount(), System.currentTimeMillis() - startTime);
+        return built;
+    }
+    
+    /**
+     * Gets one pair's compiled policies, taking the cached set only if it holds exactly the committed versions.
+     */
+    private List<CompiledPolicy> loadPair(String resource, String action, Map<UUID, LocalDateTime> committed) {
+        List<CompiledPolicy> cached =
+                policyCacheService.getOrLoad(resource, action, () -> loadApplicablePolicies(resource, action));
+        if (holdsExactly(cached, committed)) {
+            return cached;
+        }
+        
+        log.debug("Cached policies for {}:{} differ from the database, reloading", resource, action);
+        List<CompiledPolicy> loaded = loadApplicablePolicies(resource, action);
+        policyCacheService.cacheApplicablePolicies(resource, action, loaded);
+        return loaded;
+    }
+    
+    private static boolean holdsExactly(Collection<CompiledPolicy> policies, Map<UUID, LocalDateTime> versions) {
+        if (policies.size() != versions.size()) {
+            return false;
+        }
+        for (CompiledPolicy policy : policies) {
+            if (!versions.containsKey(policy.getId())
+                    || !Objects.equals(versions.get(policy.getId()), policy.getVersion())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean holdsExactly(PolicySnapshot snapshot, List<Object[]> versions) {
+        if (snapshot.getPolicyCount() != versions.size()) {
+            return false;
+        }
+        for (Object[] row : versions) {
+            CompiledPolicy policy = snapshot.getPolicy((UUID) row[0]);
+            if (policy == null || !Objects.equals(policy.getVersion(), row[3])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static CompiledPolicy newer(CompiledPolicy current, CompiledPolicy candidate) {
+        if (current.getVersion() == null) {
+            return candidate;
+        }
+        return candidate.getVersion() != null && candidate.getVersion().isAfter(current.getVersion())
+                ? candidate
+                : current;
+    }
+}
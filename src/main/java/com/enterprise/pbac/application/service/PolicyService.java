@@ -1,16 +1,24 @@
 package com.enterprise.pbac.application.service;
 
 import com.enterprise.pbac.api.dto.PolicyDto;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
 import com.enterprise.pbac.domain.entity.Policy;
-import com.enterprise.pbac.domain.enums.PolicyEffect;
 import com.enterprise.pbac.infrastructure.repository.PolicyRepository;
 import com.enterprise.pbac.infrastructure.mapper.PolicyMapper;
 import com.enterprise.pbac.application.exception.ResourceNotFoundException;
+import com.enterprise.pbac.infrastructure.cache.CacheInvalidation;
+import com.enterprise.pbac.infrastructure.cache.CacheInvalidationBus;
+import com.enterprise.pbac.infrastructure.cache.DecisionCache;
 import com.enterprise.pbac.infrastructure.cache.PolicyCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -28,16 +36,23 @@ public class PolicyService {
     private final PolicyRepository policyRepository;
     private final PolicyMapper policyMapper;
     private final PolicyCacheService policyCacheService;
+    private final PolicyIndexService policyIndexService;
+    private final PolicyCompiler policyCompiler;
+    private final DecisionCache decisionCache;
+    private final CacheInvalidationBus invalidationBus;
     
     public PolicyDto createPolicy(PolicyDto policyDto, UUID createdBy) {
         Policy policy = policyMapper.toEntity(policyDto);
-        policy.setId(UUID.randomUUID());
+        // No id yet: save() persists instead of merging, and onCreate assigns a time-ordered id
         
         // Fetch user for createdBy
         // Note: In production, fetch user entity
         
         Policy savedPolicy = policyRepository.save(policy);
-        policyCacheService.invalidateApplicablePoliciesCache(policy.getResource(), policy.getAction());
+        afterCommit(() -> {
+            policyCacheService.invalidateApplicablePoliciesCache(savedPolicy.getResource(), savedPolicy.getAction());
+            publishPolicyChange(savedPolicy.getId());
+        });
         
         log.info("Policy created: {} ({})", policy.getName(), policy.getId());
         return policyMapper.toDto(savedPolicy);
@@ -53,6 +68,8 @@ public class PolicyService {
     public PolicyDto updatePolicy(UUID policyId, PolicyDto policyDto) {
         Policy policy = policyRepository.findById(policyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Policy not found: " + policyId));
+        String previousResource = policy.getResource();
+        String previousAction = policy.getAction();
         
         policy.setName(policyDto.getName());
         policy.setDescription(policyDto.getDescription());
@@ -65,7 +82,13 @@ public class PolicyService {
         policy.setIsActive(policyDto.getIsActive());
         
         Policy updatedPolicy = policyRepository.save(policy);
-        policyCacheService.invalidateApplicablePoliciesCache(policy.getResource(), policy.getAction());
+        policyCompiler.evict(policyId);
+        afterCommit(() -> {
+            // A policy moved to another resource/action must also leave the old pair's cached list
+            policyCacheService.invalidateApplicablePoliciesCache(previousResource, previousAction);
+            policyCacheService.invalidateApplicablePoliciesCache(updatedPolicy.getResource(), updatedPolicy.getAction());
+            publishPolicyChange(policyId);
+        });
         
         log.info("Policy updated: {}", policyId);
         return policyMapper.toDto(updatedPolicy);
@@ -76,7 +99,11 @@ public class PolicyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Policy not found: " + policyId));
         
         policyRepository.deleteById(policyId);
-        policyCacheService.invalidateApplicablePoliciesCache(policy.getResource(), policy.getAction());
+        policyCompiler.evict(policyId);
+        afterCommit(() -> {
+            policyCacheService.invalidateApplicablePoliciesCache(policy.getResource(), policy.getAction());
+            publishPolicyChange(policyId);
+        });
         
         log.info("Policy deleted: {}", policyId);
     }
@@ -95,16 +122,55 @@ public class PolicyService {
                 .collect(Collectors.toList());
     }
     
-    @Transactional(readOnly = true)
-    public List<Policy> getApplicablePolicies(String resource, String action) {
-        // Try to get from cache first
-        List<Policy> cached = policyCacheService.getApplicablePolicies(resource, action);
-        if (cached != null) {
-            return cached;
+    /**
+     * Refreshes this node's snapshot for a policy changed on another node.
+     */
+    @EventListener(condition = "#invalidation.type.name() == 'POLICY'")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onRemotePolicyChange(CacheInvalidation invalidation) {
+        applyPolicyChange(invalidation.getPolicyId());
+    }
+    
+    /**
+     * Periodically checks this node's snapshot against the database and rebuilds it if a change was missed.
+     */
+    @Scheduled(fixedDelayString = "${pbac.policy-index.reconcile-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcilePolicies() {
+        try {
+            if (policyIndexService.reconcile()) {
+                decisionCache.bumpEpoch();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Policy snapshot reconciliation failed: {}", e.getMessage());
         }
-        
-        List<Policy> policies = policyRepository.findApplicablePolicies(resource, action);
-        policyCacheService.cacheApplicablePolicies(resource, action, policies);
-        return policies;
+    }
+    
+    private void afterCommit(Runnable action) {
+        // Invalidate and publish only once the change is visible to other transactions and nodes.
+        // Callers invalidate the cache before refreshing the snapshot: snapshot builds read through the
+        // cache, so a build that starts after the invalidation loads the change from the database, and
+        // one already running holds the writer lock, so the refresh is applied on top of its result.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private void publishPolicyChange(UUID policyId) {
+        applyPolicyChange(policyId);
+        invalidationBus.publish(CacheInvalidation.policy(policyId));
+    }
+    
+    private void applyPolicyChange(UUID policyId) {
+        policyIndexService.refreshPolicy(policyId);
+        // Bump only after the new snapshot is visible, so new-epoch decisions see new policies
+        decisionCache.bumpEpoch();
     }
 }
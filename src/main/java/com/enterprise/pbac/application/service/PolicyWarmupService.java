@@ -0,0 +1,114 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.domain.engine.index.PolicySnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.util.Map;
+
+/**
+ * Loads policies into memory before the instance takes traffic.
+ *
+ * Once the application has started, a background thread builds the policy snapshot. The build reads
+ * every (resource, action) pair through the policy cache, so it also fills the local tier and, for
+ * pairs loaded from Postgres, Redis; the first requests after a restart then hit neither. {@link #isReady()} stays false
+ * until this completes; failed attempts are retried.
+ */
+@Service
+@Slf4j
+public class PolicyWarmupService {
+    
+    public enum State {
+        PENDING,
+        RUNNING,
+        READY,
+        FAILED
+    }
+    
+    private final PolicyIndexService policyIndexService;
+    private final boolean enabled;
+    private final long retryDelayMs;
+    private volatile State state = State.PENDING;
+    private volatile String lastError;
+    private volatile long durationMs;
+    
+    public PolicyWarmupService(PolicyIndexService policyIndexService,
+                               @Value("${pbac.warmup.enabled:true}") boolean enabled,
+                               @Value("${pbac.warmup.retry-delay-ms:5000}") long retryDelayMs) {
+        this.policyIndexService = policyIndexService;
+        this.enabled = enabled;
+        this.retryDelayMs = retryDelayMs;
+        if (!enabled) {
+            state = State.READY;
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Policy warm-up disabled");
+            return;
+        }
+        Thread worker = new Thread(this::runUntilReady, "policy-warmup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    public boolean isReady() {
+        return state == State.READY;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    /**
+     * Gets the failure message of the last attempt, or null if it has not failed.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    private void runUntilReady() {
+        while (true) {
+            try {
+                warmUp();
+                return;
+            } catch (RuntimeException e) {
+                state = State.FAILED;
+                lastError = e.getMessage();
+                log.warn("Policy warm-up failed, retrying in {} ms: {}", retryDelayMs, e.getMessage());
+            }
+            
+            try {
+                Thread.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private void warmUp() {
+        state = State.RUNNING;
+        long startTime = System.currentTimeMillis();
+        
+        PolicySnapshot snapshot = policyIndexService.getSnapshot();
+        int keys = 0;
+        for (Map<String, ?> byAction : snapshot.getIndex().getBuckets().values()) {
+            keys += byAction.size();
+        }
+        
+        durationMs = System.currentTimeMillis() - startTime;
+        lastError = null;
+        state = State.READY;
+        log.info("Policy warm-up completed: {} policies, {} resource/action pairs in {} ms",
+                snapshot.getPolicyCount(), keys, durationMs);
+    }
+}
@@ -10,7 +10,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -54,6 +56,21 @@ public class UserService {
         return userMapper.toDto(user);
     }
     
+    @Transactional(readOnly = true)
+    public Map<String, String> getUserAttributes(UUID userId) {
+        User user = userRepository.findByIdWithAttributes(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+        // Keys are unique per user in the schema; should unsaved duplicates appear anyway, the smallest
+        // value wins so the result does not depend on the set's iteration order
+        return user.getAttributes().stream()
+                .filter(attr -> attr.getKey() != null && attr.getValue() != null)
+                .collect(Collectors.toMap(
+                        attr -> attr.getKey(),
+                        attr -> attr.getValue(),
+                        (first, second) -> first.compareTo(second) <= 0 ? first : second
+                ));
+    }
+    
     public void addUserAttribute(UUID userId, String key, String value) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
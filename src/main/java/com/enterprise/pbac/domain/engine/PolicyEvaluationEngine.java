@@ -1,110 +1,205 @@
 package com.enterprise.pbac.domain.engine;
 
-import com.enterprise.pbac.domain.entity.Policy;
-import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.index.PolicyBucket;
+import com.enterprise.pbac.domain.engine.index.PolicyDecisionIndex;
+import com.enterprise.pbac.domain.engine.metrics.EvaluationLatencyTracker;
 import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.network.IpAddress;
 import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
-import com.enterprise.pbac.domain.enums.AuthorizationDecision;
 import com.enterprise.pbac.domain.engine.strategy.PolicyEvaluationStrategy;
-import com.enterprise.pbac.application.service.PolicyService;
+import com.enterprise.pbac.application.service.PolicyIndexService;
+import com.enterprise.pbac.infrastructure.cache.DecisionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 /**
  * Core policy evaluation engine implementing PBAC logic.
  * 
  * Evaluation Algorithm:
- * 1. Fetch all applicable policies (by resource and action)
- * 2. Evaluate policies in priority order (highest first)
- * 3. Apply DENY-overrides-ALLOW conflict resolution
- * 4. Return first matching decision
- * 5. Default to DENY if no policies match
+ * 1. Look up the pre-built candidate bucket (by resource and action)
+ * 2. Narrow to policies whose subject accepts the user via per-attribute bitsets
+ * 3. Evaluate remaining conditions in priority order (highest first)
+ * 4. Apply DENY-overrides-ALLOW conflict resolution
+ * 5. Return first matching decision
+ * 6. Default to DENY if no policies match
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PolicyEvaluationEngine {
     
-    private final PolicyService policyService;
+    private final PolicyIndexService policyIndexService;
     private final PolicyEvaluationStrategy evaluationStrategy;
+    private final DecisionCache decisionCache;
+    private final EvaluationLatencyTracker latencyTracker;
+    private final Clock clock;
     
     public PolicyEvaluationResult evaluate(AuthorizationContext context) {
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
         try {
-            // 1. Fetch applicable policies
-            List<Policy> applicablePolicies = policyService.getApplicablePolicies(
+            // Resolve the request time once; time conditions read it instead of the wall clock
+            if (context.getTimestamp() <= 0) {
+                context.setTimestamp(clock.millis());
+            }
+            
+            // Read the epoch before the index so a stale decision is never cached under a newer epoch
+            long policyEpoch = decisionCache.currentEpoch();
+            
+            // 1. Look up candidate policies, ordered DENY first and by priority within each effect
+            PolicyDecisionIndex index = policyIndexService.getIndex();
+            PolicyBucket bucket = index.getBucket(
                     context.getResource(),
                     context.getAction()
             );
+            int[] encodedAttributes = index.getDictionary().encode(context.getUserAttributes());
             
-            // 2. Look for explicit DENY policies first (DENY overrides ALLOW)
-            PolicyEvaluationResult denyResult = evaluatePoliciesByEffect(
-                    applicablePolicies,
-                    context,
-                    PolicyEffect.DENY
-            );
-            
-            if (denyResult != null) {
-                denyResult.setEvaluationTimeMs(System.currentTimeMillis() - startTime);
-                return denyResult;
+            PolicyEvaluationResult result;
+            if (bucket.isConditionFree()) {
+                result = decisionCache.get(policyEpoch, context,
+                        () -> evaluateBucket(bucket, encodedAttributes, null, context));
+            } else {
+                // Resolve every IP range condition in the bucket with one trie lookup
+                long[] networkMatches = bucket.hasNetworkConditions()
+                        ? bucket.matchNetwork(IpAddress.tryParse(context.getIpAddress()))
+                        : null;
+                result = evaluateBucket(bucket, encodedAttributes, networkMatches, context);
             }
             
-            // 3. If no DENY, look for ALLOW policies
-            PolicyEvaluationResult allowResult = evaluatePoliciesByEffect(
-                    applicablePolicies,
-                    context,
-                    PolicyEffect.ALLOW
-            );
+            return recordLatency(result, context, startNanos);
             
-            if (allowResult != null) {
-                allowResult.setEvaluationTimeMs(System.currentTimeMillis() - startTime);
-                return allowResult;
+        } catch (Exception e) {
+            return recordLatency(evaluationError(e), context, startNanos);
+        }
+    }
+    
+    /**
+     * Evaluates many checks in one pass and returns the results in request order.
+     *
+     * All checks are evaluated against the same index snapshot. Checks are grouped by
+     * (resource, action) so each candidate bucket is looked up once, each distinct client
+     * address is resolved against a bucket's prefix trie only once, and each distinct attribute
+     * map (usually one per batch) is dictionary-encoded once.
+     */
+    public List<PolicyEvaluationResult> evaluateAll(List<AuthorizationContext> contexts) {
+        long batchStartNanos = System.nanoTime();
+        PolicyEvaluationResult[] results = new PolicyEvaluationResult[contexts.size()];
+        
+        try {
+            long policyEpoch = decisionCache.currentEpoch();
+            PolicyDecisionIndex index = policyIndexService.getIndex();
+            long now = clock.millis();
+            Map<Map<String, String>, int[]> encodedByAttributes = new IdentityHashMap<>();
+            
+            Map<String, Map<String, List<Integer>>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < contexts.size(); i++) {
+                AuthorizationContext context = contexts.get(i);
+                if (context.getTimestamp() <= 0) {
+                    context.setTimestamp(now);
+                }
+                groups.computeIfAbsent(context.getResource(), r -> new LinkedHashMap<>())
+                        .computeIfAbsent(context.getAction(), a -> new ArrayList<>())
+                        .add(i);
             }
             
-            // 4. Default to DENY if no policies match
-            return PolicyEvaluationResult.builder()
-                    .decision(AuthorizationDecision.DENY)
-                    .reason("No applicable policies found for resource: " + context.getResource() +
-                            ", action: " + context.getAction())
-                    .evaluationTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
+            groups.forEach((resource, byAction) -> byAction.forEach((action, positions) -> {
+                PolicyBucket bucket = index.getBucket(resource, action);
+                Map<String, long[]> networkMatchesByAddress = bucket.hasNetworkConditions()
+                        ? new HashMap<>()
+                        : null;
+                
+                for (int position : positions) {
+                    long startNanos = System.nanoTime();
+                    AuthorizationContext context = contexts.get(position);
+                    int[] encodedAttributes = encodedByAttributes.computeIfAbsent(
+                            context.getUserAttributes(), index.getDictionary()::encode);
+                    if (bucket.isConditionFree()) {
+                        results[position] = recordLatency(decisionCache.get(policyEpoch, context,
+                                () -> evaluateBucket(bucket, encodedAttributes, null, context)), context, startNanos);
+                        continue;
+                    }
+                    
+                    long[] networkMatches = networkMatchesByAddress == null ? null
+                            : networkMatchesByAddress.computeIfAbsent(
+                                    String.valueOf(context.getIpAddress()),
+                                    address -> bucket.matchNetwork(IpAddress.tryParse(context.getIpAddress())));
+                    PolicyEvaluationResult result;
+                    try {
+                        result = evaluateBucket(bucket, encodedAttributes, networkMatches, context);
+                    } catch (Exception e) {
+                        result = evaluationError(e);
+                    }
+                    results[position] = recordLatency(result, context, startNanos);
+                }
+            }));
             
         } catch (Exception e) {
-            log.error("Error during policy evaluation", e);
-            // Fail secure: deny on evaluation error
-            return PolicyEvaluationResult.builder()
-                    .decision(AuthorizationDecision.DENY)
-                    .reason("Policy evaluation error: " + e.getMessage())
-                    .evaluationTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
+            PolicyEvaluationResult error = evaluationError(e);
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = recordLatency(error, contexts.get(i), batchStartNanos);
+                }
+            }
         }
+        
+        return Arrays.asList(results);
     }
     
-    private PolicyEvaluationResult evaluatePoliciesByEffect(
-            List<Policy> policies,
-            AuthorizationContext context,
-            PolicyEffect targetEffect) {
+    private PolicyEvaluationResult evaluateBucket(PolicyBucket bucket, int[] encodedAttributes,
+                                                  long[] networkMatches, AuthorizationContext context) {
+        // 2. Narrow to policies whose subject (and indexed IP range) accepts the request
+        long[] candidates = bucket.selectCandidates(encodedAttributes, networkMatches);
         
-        for (Policy policy : policies) {
-            if (policy.getEffect() != targetEffect) {
-                continue;
-            }
-            
-            if (evaluationStrategy.matches(policy, context)) {
-                log.debug("Policy matched: {} (Effect: {})", policy.getName(), targetEffect);
-                return PolicyEvaluationResult.builder()
-                        .decision(targetEffect == PolicyEffect.ALLOW ?
-                                AuthorizationDecision.ALLOW : AuthorizationDecision.DENY)
-                        .reason("Matched policy: " + policy.getName())
-                        .matchedPolicyId(policy.getId())
-                        .build();
+        // 3. Walk candidates in ordinal order: DENY policies come first, so DENY overrides ALLOW
+        for (int word = 0; word < candidates.length; word++) {
+            long bits = candidates[word];
+            while (bits != 0) {
+                int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                
+                CompiledPolicy policy = bucket.getPolicy(ordinal);
+                // An indexed IP range was already resolved by the trie lookup
+                ConditionChain conditions = policy.getIpRangeCondition() != null
+                        ? policy.getNonNetworkConditions()
+                        : policy.getConditions();
+                if (evaluationStrategy.matchesConditions(conditions, context)) {
+                    return matched(policy);
+                }
             }
         }
         
-        return null;
+        // 4. Default to DENY if no policies match
+        PolicyEvaluationResult noMatch = bucket.getNoMatchResult();
+        return noMatch != null ? noMatch
+                : PolicyEvaluationResult.noApplicablePolicies(context.getResource(), context.getAction());
+    }
+    
+    private PolicyEvaluationResult evaluationError(Exception e) {
+        log.error("Error during policy evaluation", e);
+        // Fail secure: deny on evaluation error
+        return PolicyEvaluationResult.evaluationError(e.getMessage());
+    }
+    
+    private PolicyEvaluationResult recordLatency(PolicyEvaluationResult result, AuthorizationContext context,
+                                                 long startNanos) {
+        latencyTracker.record(context.getResource(), context.getAction(), result.getDecision(),
+                System.nanoTime() - startNanos);
+        return result;
+    }
+    
+    private PolicyEvaluationResult matched(CompiledPolicy policy) {
+        log.debug("Policy matched: {} (Effect: {})", policy.getName(), policy.getEffect());
+        return policy.getMatchedResult();
     }
 }
@@ -0,0 +1,145 @@
+package com.enterprise.pbac.domain.engine.compiler;
+
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.condition.impl.IpRangeCondition;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import com.enterprise.pbac.domain.engine.subject.SubjectMatcher;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.UUID;
+
+/**
+ * Immutable, evaluation-ready form of a single policy version.
+ * Holds only what evaluation needs, not the entity or its JSON, so it can also be rebuilt
+ * directly from the policy cache's binary form.
+ */
+public final class CompiledPolicy {
+    
+    private final UUID id;
+    private final String name;
+    private final PolicyEffect effect;
+    private final int priority;
+    private final String resource;
+    private final String action;
+    private final boolean active;
+    private final LocalDateTime version;
+    private final SubjectMatcher subjectMatcher;
+    private final ConditionChain conditions;
+    private final IpRangeCondition ipRangeCondition;
+    private final ConditionChain nonNetworkConditions;
+    private final PolicyEvaluationResult matchedResult;
+    
+    public CompiledPolicy(Policy policy, SubjectMatcher subjectMatcher, ConditionChain conditions) {
+        this(policy.getId(), policy.getName(), policy.getEffect(),
+                policy.getPriority() == null ? 0 : policy.getPriority(),
+                policy.getResource(), policy.getAction(), Boolean.TRUE.equals(policy.getIsActive()),
+                policy.getUpdatedAt(), subjectMatcher, conditions);
+    }
+    
+    public CompiledPolicy(UUID id, String name, PolicyEffect effect, int priority, String resource, String action,
+                          boolean active, LocalDateTime version, SubjectMatcher subjectMatcher,
+                          ConditionChain conditions) {
+        this.id = id;
+        this.name = name;
+        this.effect = effect;
+        this.priority = priority;
+        this.resource = resource;
+        this.action = action;
+        this.active = active;
+        this.version = version;
+        this.subjectMatcher = subjectMatcher;
+        this.conditions = conditions;
+        
+        List<IpRangeCondition> ipRanges = conditions.getConditions().stream()
+                .filter(IpRangeCondition.class::isInstance)
+                .map(IpRangeCondition.class::cast)
+                .collect(Collectors.toList());
+        if (ipRanges.size() == 1) {
+            this.ipRangeCondition = ipRanges.get(0);
+            this.nonNetworkConditions = ConditionChain.of(conditions.getConditions().stream()
+                    .filter(condition -> !(condition instanceof IpRangeCondition))
+                    .collect(Collectors.toList()));
+        } else {
+            // Zero or several IP conditions: nothing to index, evaluate the full chain
+            this.ipRangeCondition = null;
+            this.nonNetworkConditions = conditions;
+        }
+        
+        this.matchedResult = PolicyEvaluationResult.matched(
+                effect == PolicyEffect.ALLOW ? AuthorizationDecision.ALLOW : AuthorizationDecision.DENY,
+                id,
+                name
+        );
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public PolicyEffect getEffect() {
+        return effect;
+    }
+    
+    public int getPriority() {
+        return priority;
+    }
+    
+    public String getResource() {
+        return resource;
+    }
+    
+    public String getAction() {
+        return action;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    /**
+     * Gets the policy's last-modified timestamp at compile time, used to detect stale compilations.
+     */
+    public LocalDateTime getVersion() {
+        return version;
+    }
+    
+    public SubjectMatcher getSubjectMatcher() {
+        return subjectMatcher;
+    }
+    
+    /**
+     * Gets the full condition chain, including any IP range condition.
+     */
+    public ConditionChain getConditions() {
+        return conditions;
+    }
+    
+    /**
+     * Gets the IP range condition indexed in the bucket's prefix trie, or null if there is none.
+     */
+    public IpRangeCondition getIpRangeCondition() {
+        return ipRangeCondition;
+    }
+    
+    /**
+     * Gets the conditions left to evaluate once the IP range has been resolved through the trie.
+     */
+    public ConditionChain getNonNetworkConditions() {
+        return nonNetworkConditions;
+    }
+    
+    /**
+     * Gets the shared result returned whenever this policy decides a request.
+     */
+    public PolicyEvaluationResult getMatchedResult() {
+        return matchedResult;
+    }
+}
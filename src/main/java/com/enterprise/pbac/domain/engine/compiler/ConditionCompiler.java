@@ -0,0 +1,141 @@
+package com.enterprise.pbac.domain.engine.compiler;
+
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.condition.impl.ConstantCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.ContextAttributeCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.IpRangeCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.TimeRangeCondition;
+import com.enterprise.pbac.domain.engine.network.IpPrefix;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles a policy's conditions JSON into a cost-ordered {@link ConditionChain}.
+ *
+ * Supported keys (all must hold):
+ * - "enabled": false disables the policy
+ * - "context": {"channel": "web"} requires exact request context values
+ * - "ipRange": "10.0.0.0/8" or ["10.0.0.0/8", "2001:db8::/32"] restricts the client address
+ * - "timeRange": {"start": "09:00", "end": "17:00"} restricts the time of day; optional
+ *   "days": ["MONDAY", ...] and "timezone": "Europe/Berlin" (default UTC)
+ *
+ * Definitions that cannot be compiled (unsupported types, malformed values) fail closed, which
+ * depends on the policy's effect: an ALLOW policy's conditions never hold, while a DENY policy's
+ * always hold, so a typo or a condition type this version does not know can never grant access.
+ */
+@Component
+@Slf4j
+public class ConditionCompiler {
+    
+    public ConditionChain compile(JsonNode conditionsJson, PolicyEffect effect) {
+        if (conditionsJson == null || conditionsJson.isNull()) {
+            return ConditionChain.EMPTY;
+        }
+        
+        if (!conditionsJson.isObject()) {
+            return failClosed("conditions must be an object", effect);
+        }
+        
+        List<Condition> conditions = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = conditionsJson.fields();
+        
+        try {
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                compileCondition(field.getKey(), field.getValue(), conditions);
+            }
+        } catch (RuntimeException e) {
+            return failClosed(e.getMessage(), effect);
+        }
+        
+        return ConditionChain.of(conditions);
+    }
+    
+    private void compileCondition(String type, JsonNode value, List<Condition> conditions) {
+        switch (type) {
+            case "enabled":
+                conditions.add(new ConstantCondition(value.asBoolean(true), "enabled"));
+                break;
+            case "context":
+                if (!value.isObject()) {
+                    throw new IllegalArgumentException("context condition must be an object");
+                }
+                value.fields().forEachRemaining(entry -> conditions.add(
+                        new ContextAttributeCondition(entry.getKey(), entry.getValue().asText())));
+                break;
+            case "ipRange":
+                conditions.add(compileIpRange(value));
+                break;
+            case "timeRange":
+                conditions.add(compileTimeRange(value));
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported condition: " + type);
+        }
+    }
+    
+    private IpRangeCondition compileIpRange(JsonNode value) {
+        List<IpPrefix> ranges = new ArrayList<>();
+        if (value.isArray()) {
+            for (JsonNode element : value) {
+                ranges.add(IpPrefix.parse(requireText("ipRange", element)));
+            }
+        } else {
+            ranges.add(IpPrefix.parse(requireText("ipRange", value)));
+        }
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("ipRange must list at least one CIDR block");
+        }
+        return new IpRangeCondition(List.copyOf(ranges));
+    }
+    
+    private TimeRangeCondition compileTimeRange(JsonNode value) {
+        Set<DayOfWeek> days = EnumSet.allOf(DayOfWeek.class);
+        if (value.has("days")) {
+            days = EnumSet.noneOf(DayOfWeek.class);
+            for (JsonNode day : value.get("days")) {
+                days.add(DayOfWeek.valueOf(requireText("timeRange.days", day).toUpperCase(Locale.ROOT)));
+            }
+        }
+        
+        ZoneId zone = value.has("timezone")
+                ? ZoneId.of(requireText("timeRange.timezone", value.get("timezone")))
+                : ZoneOffset.UTC;
+        
+        return new TimeRangeCondition(
+                LocalTime.parse(requireText("timeRange.start", value.path("start"))),
+                LocalTime.parse(requireText("timeRange.end", value.path("end"))),
+                days,
+                zone
+        );
+    }
+    
+    private String requireText(String name, JsonNode value) {
+        if (!value.isTextual() || value.asText().isEmpty()) {
+            throw new IllegalArgumentException(name + " must be a non-empty string");
+        }
+        return value.asText();
+    }
+    
+    private ConditionChain failClosed(String reason, PolicyEffect effect) {
+        // A DENY that stopped matching would grant access, so it matches unconditionally instead
+        boolean matches = effect == PolicyEffect.DENY;
+        log.error("Invalid policy conditions ({}); {} policy will {}",
+                reason, effect, matches ? "match regardless of conditions" : "never match");
+        return ConditionChain.of(List.of(new ConstantCondition(matches, "invalid: " + reason)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.enterprise.pbac.domain.engine.compiler;
+
+import com.enterprise.pbac.domain.entity.Policy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles policies into their evaluation-ready form and keeps one compilation per policy version.
+ * A cached compilation is reused until the policy's updatedAt changes or it is explicitly evicted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PolicyCompiler {
+    
+    private final SubjectMatcherCompiler subjectMatcherCompiler;
+    private final ConditionCompiler conditionCompiler;
+    private final Map<UUID, CompiledPolicy> compiledPolicies = new ConcurrentHashMap<>();
+    
+    public CompiledPolicy compile(Policy policy) {
+        if (policy.getId() == null) {
+            return doCompile(policy);
+        }
+        
+        CompiledPolicy cached = compiledPolicies.get(policy.getId());
+        if (cached != null && Objects.equals(cached.getVersion(), policy.getUpdatedAt())) {
+            return cached;
+        }
+        
+        CompiledPolicy compiled = doCompile(policy);
+        compiledPolicies.put(policy.getId(), compiled);
+        return compiled;
+    }
+    
+    public void evict(UUID policyId) {
+        if (compiledPolicies.remove(policyId) != null) {
+            log.debug("Compiled policy evicted: {}", policyId);
+        }
+    }
+    
+    /**
+     * Drops compilations for policies that are no longer loaded, e.g. after a full index rebuild.
+     */
+    public void retainAll(Collection<UUID> policyIds) {
+        compiledPolicies.keySet().retainAll(policyIds);
+    }
+    
+    private CompiledPolicy doCompile(Policy policy) {
+        return new CompiledPolicy(
+                policy,
+                subjectMatcherCompiler.compile(policy.getSubjectJson(), policy.getEffect()),
+                conditionCompiler.compile(policy.getConditionsJson(), policy.getEffect())
+        );
+    }
+}
@@ -0,0 +1,93 @@
+package com.enterprise.pbac.domain.engine.compiler;
+
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import com.enterprise.pbac.domain.engine.subject.SubjectMatcher;
+import com.enterprise.pbac.domain.engine.subject.impl.AttributeSubjectMatcher;
+import com.enterprise.pbac.domain.engine.subject.impl.WildcardSubjectMatcher;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles a policy's subject JSON into a {@link SubjectMatcher}.
+ *
+ * Supported forms:
+ * - "*" matches every user
+ * - {"role": "admin"} requires an exact attribute value
+ * - {"role": ["admin", "manager"]} accepts any value from the set
+ * - {"department": "*"} accepts any value for that attribute
+ *
+ * Any other subject is invalid and fails closed like invalid conditions: an ALLOW policy never
+ * matches and a DENY policy applies to every user.
+ */
+@Component
+@Slf4j
+public class SubjectMatcherCompiler {
+    
+    private static final String WILDCARD = "*";
+    /** Key of the constraint that no user satisfies, used for ALLOW policies with an invalid subject. */
+    private static final String INVALID_SUBJECT_KEY = "invalid subject";
+    
+    public SubjectMatcher compile(JsonNode subjectJson, PolicyEffect effect) {
+        if (subjectJson != null && subjectJson.isTextual() && WILDCARD.equals(subjectJson.asText())) {
+            return WildcardSubjectMatcher.INSTANCE;
+        }
+        if (subjectJson == null || !subjectJson.isObject()) {
+            return failClosed(subjectJson == null ? "missing subject" : "subject must be \"*\" or an object", effect);
+        }
+        
+        List<AttributeConstraint> constraints = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = subjectJson.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            AttributeConstraint constraint = compileConstraint(field.getKey(), field.getValue());
+            if (constraint.getKind() != AttributeConstraint.Kind.WILDCARD) {
+                constraints.add(constraint);
+            }
+        }
+        
+        if (constraints.isEmpty()) {
+            return WildcardSubjectMatcher.INSTANCE;
+        }
+        return new AttributeSubjectMatcher(constraints);
+    }
+    
+    private AttributeConstraint compileConstraint(String key, JsonNode valueNode) {
+        if (valueNode.isArray()) {
+            Set<String> values = new LinkedHashSet<>();
+            for (JsonNode element : valueNode) {
+                String value = element.asText();
+                if (WILDCARD.equals(value)) {
+                    return AttributeConstraint.wildcard(key);
+                }
+                values.add(value);
+            }
+            return AttributeConstraint.valueSet(key, values);
+        }
+        
+        String value = valueNode.asText();
+        if (WILDCARD.equals(value)) {
+            return AttributeConstraint.wildcard(key);
+        }
+        return AttributeConstraint.exact(key, value);
+    }
+    
+    private SubjectMatcher failClosed(String reason, PolicyEffect effect) {
+        // A DENY that stopped matching would grant access, so it applies to every user instead
+        boolean matches = effect == PolicyEffect.DENY;
+        log.error("Invalid policy subject ({}); {} policy will {}",
+                reason, effect, matches ? "apply to every user" : "never match");
+        if (matches) {
+            return WildcardSubjectMatcher.INSTANCE;
+        }
+        // An empty value set accepts no value, and the decision index never selects the policy
+        return new AttributeSubjectMatcher(List.of(AttributeConstraint.valueSet(INVALID_SUBJECT_KEY, Set.of())));
+    }
+}
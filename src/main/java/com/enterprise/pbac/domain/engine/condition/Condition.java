@@ -13,6 +13,12 @@ public interface Condition {
      */
     boolean evaluate(AuthorizationContext context);
     
+    /**
+     * Gets the relative cost of evaluating this condition.
+     * Chains evaluate cheaper conditions first so expensive checks are skipped on early rejection.
+     */
+    int getCost();
+    
     /**
      * Gets a description of this condition for logging/debugging.
      */
@@ -0,0 +1,75 @@
+package com.enterprise.pbac.domain.engine.condition;
+
+import com.enterprise.pbac.domain.engine.metrics.ConditionCostTracker;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, cost-ordered chain of conditions evaluated with AND semantics.
+ * Conditions run cheapest-first and evaluation stops at the first unsatisfied condition.
+ */
+public final class ConditionChain {
+    
+    public static final ConditionChain EMPTY = new ConditionChain(new Condition[0]);
+    
+    private final Condition[] conditions;
+    
+    private ConditionChain(Condition[] conditions) {
+        this.conditions = conditions;
+    }
+    
+    public static ConditionChain of(Collection<? extends Condition> conditions) {
+        if (conditions.isEmpty()) {
+            return EMPTY;
+        }
+        List<Condition> ordered = new ArrayList<>(conditions);
+        ordered.sort(Comparator.comparingInt(Condition::getCost));
+        return new ConditionChain(ordered.toArray(new Condition[0]));
+    }
+    
+    public boolean evaluate(AuthorizationContext context) {
+        for (Condition condition : conditions) {
+            if (!condition.evaluate(context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Evaluates the chain, recording the elapsed time of each executed condition when the
+     * tracker samples this evaluation.
+     */
+    public boolean evaluate(AuthorizationContext context, ConditionCostTracker costTracker) {
+        if (!costTracker.shouldSample()) {
+            return evaluate(context);
+        }
+        for (Condition condition : conditions) {
+            long startTime = System.nanoTime();
+            boolean satisfied = condition.evaluate(context);
+            costTracker.record(condition, System.nanoTime() - startTime, satisfied);
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public boolean isEmpty() {
+        return conditions.length == 0;
+    }
+    
+    public List<Condition> getConditions() {
+        return List.of(conditions);
+    }
+    
+    public String getDescription() {
+        return List.of(conditions).stream()
+                .map(Condition::getDescription)
+                .collect(Collectors.joining(" AND "));
+    }
+}
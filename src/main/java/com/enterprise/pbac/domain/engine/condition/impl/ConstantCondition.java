@@ -0,0 +1,36 @@
+package com.enterprise.pbac.domain.engine.condition.impl;
+
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Condition with a fixed outcome, e.g. {"enabled": false} to switch a policy off.
+ * Also used to fail closed on condition definitions that cannot be compiled: false for ALLOW
+ * policies, true for DENY policies.
+ */
+@Data
+@AllArgsConstructor
+public class ConstantCondition implements Condition {
+    
+    public static final int CONSTANT_COST = 0;
+    
+    private boolean result;
+    private String label;
+    
+    @Override
+    public boolean evaluate(AuthorizationContext context) {
+        return result;
+    }
+    
+    @Override
+    public int getCost() {
+        return CONSTANT_COST;
+    }
+    
+    @Override
+    public String getDescription() {
+        return String.format("Constant: %s (%s)", result, label);
+    }
+}
@@ -0,0 +1,38 @@
+package com.enterprise.pbac.domain.engine.condition.impl;
+
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Condition that requires a request context attribute to have an exact value.
+ */
+@Data
+@AllArgsConstructor
+public class ContextAttributeCondition implements Condition {
+    
+    public static final int CONTEXT_ATTRIBUTE_COST = 1;
+    
+    private String key;
+    private String expectedValue;
+    
+    @Override
+    public boolean evaluate(AuthorizationContext context) {
+        if (context.getAdditionalContext() == null) {
+            return false;
+        }
+        Object actualValue = context.getAdditionalContext().get(key);
+        return actualValue != null && expectedValue.equals(actualValue.toString());
+    }
+    
+    @Override
+    public int getCost() {
+        return CONTEXT_ATTRIBUTE_COST;
+    }
+    
+    @Override
+    public String getDescription() {
+        return String.format("Context: %s=%s", key, expectedValue);
+    }
+}
@@ -2,27 +2,52 @@ package com.enterprise.pbac.domain.engine.condition.impl;
 
 import com.enterprise.pbac.domain.engine.condition.Condition;
 import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.network.IpAddress;
+import com.enterprise.pbac.domain.engine.network.IpPrefix;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import java.util.List;
 
 /**
  * Condition that checks if the request originates from an allowed IP range.
  * Useful for network-based access control.
+ *
+ * Ranges are parsed CIDR blocks (IPv4 or IPv6) and the condition holds if any of them contains
+ * the client address. Indexed evaluation resolves these ranges through the bucket's prefix trie;
+ * {@link #evaluate} is the direct fallback.
  */
 @Data
 @AllArgsConstructor
 public class IpRangeCondition implements Condition {
-    private String allowedIpRange;
+    
+    public static final int IP_RANGE_COST = 10;
+    
+    private List<IpPrefix> allowedRanges;
     
     @Override
     public boolean evaluate(AuthorizationContext context) {
-        // Simplified IP range check; in production, use proper CIDR parsing
-        return context.getIpAddress() != null && 
-               context.getIpAddress().startsWith(allowedIpRange);
+        return matches(IpAddress.tryParse(context.getIpAddress()));
+    }
+    
+    public boolean matches(IpAddress address) {
+        if (address == null) {
+            return false;
+        }
+        for (IpPrefix range : allowedRanges) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public int getCost() {
+        return IP_RANGE_COST;
     }
     
     @Override
     public String getDescription() {
-        return String.format("IP range: %s", allowedIpRange);
+        return String.format("IP range: %s", allowedRanges);
     }
 }
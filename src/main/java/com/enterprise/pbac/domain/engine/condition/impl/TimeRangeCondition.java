@@ -2,28 +2,138 @@ package com.enterprise.pbac.domain.engine.condition.impl;
 
 import com.enterprise.pbac.domain.engine.condition.Condition;
 import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
- * Condition that checks if the current time is within a specified range.
+ * Condition that checks if the request time is within a specified range.
  * Useful for access control during business hours.
+ *
+ * The window is compiled into a minute-of-week bitmap in the policy's time zone and checked
+ * against {@link AuthorizationContext#getTimestamp()}, never the wall clock, so decisions are
+ * reproducible. The start minute is inclusive and the end minute exclusive; a window whose end
+ * is before its start wraps past midnight into the following day, and equal bounds cover the
+ * whole day.
  */
-@Data
-@AllArgsConstructor
+@Getter
 public class TimeRangeCondition implements Condition {
-    private LocalTime startTime;
-    private LocalTime endTime;
+    
+    public static final int TIME_RANGE_COST = 20;
+    
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    // 1970-01-01 was a Thursday; shifts epoch minutes so that Monday 00:00 is minute 0
+    private static final long EPOCH_MONDAY_SHIFT_MINUTES = 3L * MINUTES_PER_DAY;
+    
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Set<DayOfWeek> days;
+    private final ZoneId zone;
+    
+    @Getter(AccessLevel.NONE)
+    private final long[] minuteOfWeekBitmap;
+    @Getter(AccessLevel.NONE)
+    private final ZoneRules zoneRules;
+    @Getter(AccessLevel.NONE)
+    private volatile OffsetWindow offsetWindow;
+    
+    public TimeRangeCondition(LocalTime startTime, LocalTime endTime) {
+        this(startTime, endTime, EnumSet.allOf(DayOfWeek.class), ZoneOffset.UTC);
+    }
+    
+    public TimeRangeCondition(LocalTime startTime, LocalTime endTime, Set<DayOfWeek> days, ZoneId zone) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.days = Set.copyOf(days);
+        this.zone = zone;
+        this.zoneRules = zone.getRules();
+        this.minuteOfWeekBitmap = buildBitmap(startTime, endTime, days);
+    }
+    
+    private static long[] buildBitmap(LocalTime startTime, LocalTime endTime, Set<DayOfWeek> days) {
+        long[] bitmap = new long[(MINUTES_PER_WEEK + 63) / 64];
+        int start = startTime.getHour() * 60 + startTime.getMinute();
+        int end = endTime.getHour() * 60 + endTime.getMinute();
+        int length = end > start ? end - start : end + MINUTES_PER_DAY - start;
+        
+        for (DayOfWeek day : days) {
+            int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY + start;
+            for (int i = 0; i < length; i++) {
+                int minute = (dayStart + i) % MINUTES_PER_WEEK;
+                bitmap[minute >>> 6] |= 1L << minute;
+            }
+        }
+        return bitmap;
+    }
     
     @Override
     public boolean evaluate(AuthorizationContext context) {
-        LocalTime currentTime = LocalTime.now();
-        return currentTime.isAfter(startTime) && currentTime.isBefore(endTime);
+        return containsInstant(context.getTimestamp());
+    }
+    
+    public boolean containsInstant(long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        long localEpochMinute = Math.floorDiv(epochSecond + offsetSecondsAt(epochSecond), 60L);
+        int minute = (int) Math.floorMod(localEpochMinute + EPOCH_MONDAY_SHIFT_MINUTES, (long) MINUTES_PER_WEEK);
+        return (minuteOfWeekBitmap[minute >>> 6] & (1L << minute)) != 0;
+    }
+    
+    private int offsetSecondsAt(long epochSecond) {
+        OffsetWindow window = offsetWindow;
+        if (window == null || epochSecond < window.validFrom || epochSecond >= window.validUntil) {
+            window = OffsetWindow.resolve(zoneRules, epochSecond);
+            offsetWindow = window;
+        }
+        return window.offsetSeconds;
+    }
+    
+    @Override
+    public int getCost() {
+        return TIME_RANGE_COST;
     }
     
     @Override
     public String getDescription() {
-        return String.format("Time range: %s - %s", startTime, endTime);
+        return String.format("Time range: %s - %s %s on %s", startTime, endTime, zone, days);
+    }
+    
+    /**
+     * Zone offset together with the interval between transitions in which it applies,
+     * so the zone rules are consulted only when a transition is crossed.
+     */
+    private static final class OffsetWindow {
+        private final long validFrom;
+        private final long validUntil;
+        private final int offsetSeconds;
+        
+        private OffsetWindow(long validFrom, long validUntil, int offsetSeconds) {
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+            this.offsetSeconds = offsetSeconds;
+        }
+        
+        private static OffsetWindow resolve(ZoneRules rules, long epochSecond) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            int offset = rules.getOffset(instant).getTotalSeconds();
+            if (rules.isFixedOffset()) {
+                return new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, offset);
+            }
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            return new OffsetWindow(
+                    previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+                    next == null ? Long.MAX_VALUE : next.toEpochSecond(),
+                    offset
+            );
+        }
     }
 }
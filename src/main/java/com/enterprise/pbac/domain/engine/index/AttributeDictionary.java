@@ -0,0 +1,127 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the attribute keys and values named by policy subjects into dense integer ids.
+ * 
+ * Only keys and values that some policy constrains are interned; anything else a user carries
+ * cannot change a decision and encodes as {@link #UNKNOWN}. Ids are stable for the lifetime of
+ * the dictionary, so per-bucket bitsets can be indexed by them directly.
+ */
+public final class AttributeDictionary {
+    
+    public static final int UNKNOWN = -1;
+    
+    public static final AttributeDictionary EMPTY = new AttributeDictionary(Map.of(), List.of());
+    
+    private final Map<String, Integer> keyIds;
+    private final List<Map<String, Integer>> valueIdsByKey;
+    
+    private AttributeDictionary(Map<String, Integer> keyIds, List<Map<String, Integer>> valueIdsByKey) {
+        this.keyIds = keyIds;
+        this.valueIdsByKey = valueIdsByKey;
+    }
+    
+    public static AttributeDictionary build(Collection<CompiledPolicy> policies) {
+        return EMPTY.extend(policies);
+    }
+    
+    /**
+     * Returns a dictionary that also interns the values named by the given policies.
+     * Existing ids are kept, so bitsets built against this dictionary stay valid against the result;
+     * returns this instance if nothing new is named.
+     */
+    public AttributeDictionary extend(Collection<CompiledPolicy> policies) {
+        if (!namesAnythingNew(policies)) {
+            return this;
+        }
+        
+        // Copy; dictionaries are shared by live indexes
+        Map<String, Integer> extendedKeyIds = new HashMap<>(keyIds);
+        List<Map<String, Integer>> extendedValueIds = new ArrayList<>(valueIdsByKey.size() + 1);
+        for (Map<String, Integer> valueIds : valueIdsByKey) {
+            extendedValueIds.add(new HashMap<>(valueIds));
+        }
+        for (CompiledPolicy policy : policies) {
+            for (AttributeConstraint constraint : policy.getSubjectMatcher().getConstraints()) {
+                if (constraint.getKind() == AttributeConstraint.Kind.WILDCARD) {
+                    continue;
+                }
+                // The key is interned even if no value is named: a constraint that accepts no value
+                // still needs a key id for the subject index to exclude its policy
+                int id = extendedKeyIds.computeIfAbsent(constraint.getKey(), key -> {
+                    extendedValueIds.add(new HashMap<>());
+                    return extendedValueIds.size() - 1;
+                });
+                Map<String, Integer> values = extendedValueIds.get(id);
+                for (String value : constraint.getValues()) {
+                    values.putIfAbsent(value, values.size());
+                }
+            }
+        }
+        return new AttributeDictionary(extendedKeyIds, extendedValueIds);
+    }
+    
+    private boolean namesAnythingNew(Collection<CompiledPolicy> policies) {
+        for (CompiledPolicy policy : policies) {
+            for (AttributeConstraint constraint : policy.getSubjectMatcher().getConstraints()) {
+                if (constraint.getKind() == AttributeConstraint.Kind.WILDCARD) {
+                    continue;
+                }
+                Integer keyId = keyIds.get(constraint.getKey());
+                if (keyId == null || !valueIdsByKey.get(keyId).keySet().containsAll(constraint.getValues())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    public int keyId(String key) {
+        Integer id = keyIds.get(key);
+        return id == null ? UNKNOWN : id;
+    }
+    
+    public int valueId(int keyId, String value) {
+        if (keyId == UNKNOWN || value == null) {
+            return UNKNOWN;
+        }
+        Integer id = valueIdsByKey.get(keyId).get(value);
+        return id == null ? UNKNOWN : id;
+    }
+    
+    public int keyCount() {
+        return valueIdsByKey.size();
+    }
+    
+    public int valueCount(int keyId) {
+        return valueIdsByKey.get(keyId).size();
+    }
+    
+    /**
+     * Encodes a user's attributes as one value id per interned key, {@link #UNKNOWN} where the user
+     * has no value for the key or a value no policy names.
+     */
+    public int[] encode(Map<String, String> userAttributes) {
+        int[] encoded = new int[keyIds.size()];
+        Arrays.fill(encoded, UNKNOWN);
+        if (userAttributes == null || encoded.length == 0) {
+            return encoded;
+        }
+        for (Map.Entry<String, String> attribute : userAttributes.entrySet()) {
+            int keyId = keyId(attribute.getKey());
+            if (keyId != UNKNOWN) {
+                encoded[keyId] = valueId(keyId, attribute.getValue());
+            }
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,22 @@
+package com.enterprise.pbac.domain.engine.index;
+
+/**
+ * Helpers for fixed-size bitsets stored as {@code long[]} words.
+ */
+public final class BitSets {
+    
+    private BitSets() {
+    }
+    
+    public static long[] create(int bits) {
+        return new long[(bits + 63) >>> 6];
+    }
+    
+    public static void set(long[] words, int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+    
+    public static boolean get(long[] words, int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+}
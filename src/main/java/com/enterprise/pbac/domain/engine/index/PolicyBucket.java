@@ -0,0 +1,188 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import com.enterprise.pbac.domain.engine.network.IpAddress;
+import com.enterprise.pbac.domain.engine.network.IpPrefix;
+import com.enterprise.pbac.domain.engine.network.IpPrefixTrie;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of candidate policies for a single (resource, action) pair.
+ * DENY and ALLOW policies are split up front and each list is sorted by priority (highest first),
+ * so evaluation can walk straight to the first match without filtering by effect.
+ *
+ * Policies are numbered by ordinal: DENY policies first (0..d-1), then ALLOW policies.
+ * IP range conditions of all policies in the bucket are indexed in one shared prefix trie keyed
+ * by those ordinals, so a request resolves every network condition with a single lookup.
+ * Subjects are indexed by attribute value in a {@link SubjectIndex} over the same ordinals.
+ */
+public final class PolicyBucket {
+    
+    public static final PolicyBucket EMPTY = new PolicyBucket(List.of(), List.of(), AttributeDictionary.EMPTY, null);
+    
+    private static final long[] NO_MATCHES = new long[0];
+    
+    static final Comparator<CompiledPolicy> PRIORITY_ORDER = Comparator
+            .comparingInt(CompiledPolicy::getPriority)
+            .reversed()
+            .thenComparing(CompiledPolicy::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private final List<CompiledPolicy> denyPolicies;
+    private final List<CompiledPolicy> allowPolicies;
+    private final CompiledPolicy[] policiesByOrdinal;
+    private final SubjectIndex subjectIndex;
+    private final IpPrefixTrie networkIndex;
+    private final long[] networkConstrained;
+    private final boolean conditionFree;
+    private final PolicyEvaluationResult noMatchResult;
+    
+    private PolicyBucket(List<CompiledPolicy> denyPolicies, List<CompiledPolicy> allowPolicies,
+                         AttributeDictionary dictionary, PolicyEvaluationResult noMatchResult) {
+        this.denyPolicies = denyPolicies;
+        this.allowPolicies = allowPolicies;
+        this.noMatchResult = noMatchResult;
+        
+        List<CompiledPolicy> ordered = new ArrayList<>(denyPolicies.size() + allowPolicies.size());
+        ordered.addAll(denyPolicies);
+        ordered.addAll(allowPolicies);
+        this.policiesByOrdinal = ordered.toArray(new CompiledPolicy[0]);
+        this.subjectIndex = SubjectIndex.build(ordered, dictionary);
+        this.networkIndex = buildNetworkIndex(ordered);
+        this.networkConstrained = networkConstrained(ordered);
+        this.conditionFree = ordered.stream().allMatch(policy -> policy.getConditions().isEmpty());
+    }
+    
+    /**
+     * Builds a bucket from policies sharing one resource and action. The dictionary must
+     * contain every attribute value the policies' subjects name.
+     */
+    public static PolicyBucket of(Collection<CompiledPolicy> policies, AttributeDictionary dictionary) {
+        List<CompiledPolicy> deny = new ArrayList<>();
+        List<CompiledPolicy> allow = new ArrayList<>();
+        
+        for (CompiledPolicy policy : policies) {
+            if (policy.getEffect() == PolicyEffect.DENY) {
+                deny.add(policy);
+            } else if (policy.getEffect() == PolicyEffect.ALLOW) {
+                allow.add(policy);
+            }
+        }
+        
+        if (deny.isEmpty() && allow.isEmpty()) {
+            return EMPTY;
+        }
+        
+        deny.sort(PRIORITY_ORDER);
+        allow.sort(PRIORITY_ORDER);
+        CompiledPolicy first = deny.isEmpty() ? allow.get(0) : deny.get(0);
+        return new PolicyBucket(
+                Collections.unmodifiableList(deny),
+                Collections.unmodifiableList(allow),
+                dictionary,
+                PolicyEvaluationResult.noApplicablePolicies(first.getResource(), first.getAction())
+        );
+    }
+    
+    private static IpPrefixTrie buildNetworkIndex(List<CompiledPolicy> policiesByOrdinal) {
+        IpPrefixTrie.Builder builder = IpPrefixTrie.builder(policiesByOrdinal.size());
+        for (int ordinal = 0; ordinal < policiesByOrdinal.size(); ordinal++) {
+            CompiledPolicy policy = policiesByOrdinal.get(ordinal);
+            if (policy.getIpRangeCondition() != null) {
+                for (IpPrefix range : policy.getIpRangeCondition().getAllowedRanges()) {
+                    builder.add(range, ordinal);
+                }
+            }
+        }
+        IpPrefixTrie trie = builder.build();
+        return trie.getPrefixCount() == 0 ? null : trie;
+    }
+    
+    private static long[] networkConstrained(List<CompiledPolicy> policiesByOrdinal) {
+        long[] constrained = BitSets.create(policiesByOrdinal.size());
+        boolean any = false;
+        for (int ordinal = 0; ordinal < policiesByOrdinal.size(); ordinal++) {
+            if (policiesByOrdinal.get(ordinal).getIpRangeCondition() != null) {
+                BitSets.set(constrained, ordinal);
+                any = true;
+            }
+        }
+        return any ? constrained : null;
+    }
+    
+    public List<CompiledPolicy> getDenyPolicies() {
+        return denyPolicies;
+    }
+    
+    public List<CompiledPolicy> getAllowPolicies() {
+        return allowPolicies;
+    }
+    
+    /**
+     * Gets the policy with the given ordinal; DENY policies occupy the ordinals below the ALLOW ones.
+     */
+    public CompiledPolicy getPolicy(int ordinal) {
+        return policiesByOrdinal[ordinal];
+    }
+    
+    /**
+     * Whether no policy in this bucket has conditions, i.e. decisions depend only on
+     * the user's attributes and are safe to cache.
+     */
+    public boolean isConditionFree() {
+        return conditionFree;
+    }
+    
+    public boolean hasNetworkConditions() {
+        return networkIndex != null;
+    }
+    
+    /**
+     * Resolves all IP range conditions in this bucket against the address in one trie lookup.
+     * The returned bitset has a bit set for every policy ordinal whose ranges contain the address.
+     */
+    public long[] matchNetwork(IpAddress address) {
+        return networkIndex == null ? NO_MATCHES : networkIndex.match(address);
+    }
+    
+    /**
+     * Selects the policies whose subject accepts the encoded user attributes and whose IP range,
+     * if indexed, contains the client address. Remaining conditions still need evaluating.
+     *
+     * @param encodedAttributes attributes encoded with the index's {@link AttributeDictionary}
+     * @param networkMatches result of {@link #matchNetwork}, or null if the address was not resolved
+     *                       (only valid when the bucket has no network conditions)
+     */
+    public long[] selectCandidates(int[] encodedAttributes, long[] networkMatches) {
+        long[] candidates = subjectIndex.select(encodedAttributes);
+        if (networkConstrained != null) {
+            long[] matches = networkMatches == null ? NO_MATCHES : networkMatches;
+            for (int word = 0; word < candidates.length; word++) {
+                long matched = word < matches.length ? matches[word] : 0L;
+                candidates[word] &= ~networkConstrained[word] | matched;
+            }
+        }
+        return candidates;
+    }
+    
+    /**
+     * Gets the shared default-deny result for requests no policy in this bucket matches,
+     * or null for {@link #EMPTY}, which is not tied to a resource and action.
+     */
+    public PolicyEvaluationResult getNoMatchResult() {
+        return noMatchResult;
+    }
+    
+    public boolean isEmpty() {
+        return policiesByOrdinal.length == 0;
+    }
+    
+    public int size() {
+        return policiesByOrdinal.length;
+    }
+}
@@ -0,0 +1,149 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, pre-built lookup structure mapping (resource, action) to its candidate policies.
+ *
+ * Built once from the full set of active policies and replaced wholesale when policies change.
+ * Lookups are two plain hash probes, so the request path needs no cache or database round trip.
+ */
+public final class PolicyDecisionIndex {
+    
+    public static final PolicyDecisionIndex EMPTY = new PolicyDecisionIndex(Map.of(), AttributeDictionary.EMPTY, 0);
+    
+    private final Map<String, Map<String, PolicyBucket>> buckets;
+    private final AttributeDictionary dictionary;
+    private final int policyCount;
+    
+    private PolicyDecisionIndex(Map<String, Map<String, PolicyBucket>> buckets, AttributeDictionary dictionary,
+                                int policyCount) {
+        this.buckets = buckets;
+        this.dictionary = dictionary;
+        this.policyCount = policyCount;
+    }
+    
+    public static PolicyDecisionIndex build(Collection<CompiledPolicy> policies) {
+        Map<String, Map<String, List<CompiledPolicy>>> grouped = new HashMap<>();
+        List<CompiledPolicy> active = new ArrayList<>();
+        
+        for (CompiledPolicy policy : policies) {
+            if (!policy.isActive()) {
+                continue;
+            }
+            active.add(policy);
+            grouped.computeIfAbsent(policy.getResource(), r -> new HashMap<>())
+                    .computeIfAbsent(policy.getAction(), a -> new ArrayList<>())
+                    .add(policy);
+        }
+        
+        AttributeDictionary dictionary = AttributeDictionary.build(active);
+        Map<String, Map<String, PolicyBucket>> buckets = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((resource, byAction) -> {
+            Map<String, PolicyBucket> actionBuckets = new HashMap<>(byAction.size() * 2);
+            byAction.forEach((action, list) -> actionBuckets.put(action, PolicyBucket.of(list, dictionary)));
+            buckets.put(resource, Map.copyOf(actionBuckets));
+        });
+        
+        return new PolicyDecisionIndex(Map.copyOf(buckets), dictionary, active.size());
+    }
+    
+    /**
+     * Returns a copy of this index with one policy replaced, added or removed.
+     *
+     * Only the buckets of the previous and current (resource, action) are rebuilt, so a policy
+     * that moved is dropped from its old bucket; every other bucket is shared with this index.
+     *
+     * @param previous the policy's compilation in this index, or null if it was not indexed
+     * @param current the policy's new compilation, or null if it was deleted or deactivated
+     */
+    public PolicyDecisionIndex withChange(CompiledPolicy previous, CompiledPolicy current) {
+        if (current != null && !current.isActive()) {
+            current = null;
+        }
+        if (previous == null && current == null) {
+            return this;
+        }
+        
+        UUID policyId = previous != null ? previous.getId() : current.getId();
+        AttributeDictionary extended = current == null ? dictionary : dictionary.extend(List.of(current));
+        
+        Map<String, Map<String, PolicyBucket>> updated = new HashMap<>(buckets);
+        for (CompiledPolicy affected : previous == null || current == null || sameBucket(previous, current)
+                ? List.of(previous != null ? previous : current)
+                : List.of(previous, current)) {
+            String resource = affected.getResource();
+            String action = affected.getAction();
+            
+            PolicyBucket bucket = getBucket(resource, action);
+            List<CompiledPolicy> policies = new ArrayList<>(bucket.size() + 1);
+            for (int ordinal = 0; ordinal < bucket.size(); ordinal++) {
+                CompiledPolicy policy = bucket.getPolicy(ordinal);
+                if (!policyId.equals(policy.getId())) {
+                    policies.add(policy);
+                }
+            }
+            if (current != null && sameBucket(affected, current)) {
+                policies.add(current);
+            }
+            
+            Map<String, PolicyBucket> actionBuckets = new HashMap<>(updated.getOrDefault(resource, Map.of()));
+            PolicyBucket rebuilt = PolicyBucket.of(policies, extended);
+            if (rebuilt.isEmpty()) {
+                actionBuckets.remove(action);
+            } else {
+                actionBuckets.put(action, rebuilt);
+            }
+            if (actionBuckets.isEmpty()) {
+                updated.remove(resource);
+            } else {
+                updated.put(resource, Map.copyOf(actionBuckets));
+            }
+        }
+        
+        int count = policyCount - (previous != null ? 1 : 0) + (current != null ? 1 : 0);
+        return new PolicyDecisionIndex(Map.copyOf(updated), extended, count);
+    }
+    
+    private static boolean sameBucket(CompiledPolicy first, CompiledPolicy second) {
+        return first.getResource().equals(second.getResource()) && first.getAction().equals(second.getAction());
+    }
+    
+    /**
+     * Returns the candidate policies for the given pair, or {@link PolicyBucket#EMPTY} if none exist.
+     */
+    public PolicyBucket getBucket(String resource, String action) {
+        if (resource == null || action == null) {
+            return PolicyBucket.EMPTY;
+        }
+        Map<String, PolicyBucket> byAction = buckets.get(resource);
+        if (byAction == null) {
+            return PolicyBucket.EMPTY;
+        }
+        return byAction.getOrDefault(action, PolicyBucket.EMPTY);
+    }
+    
+    /**
+     * Gets all buckets, keyed by resource and then action.
+     */
+    public Map<String, Map<String, PolicyBucket>> getBuckets() {
+        return buckets;
+    }
+    
+    /**
+     * Gets the dictionary user attributes must be encoded with before selecting candidates from a bucket.
+     */
+    public AttributeDictionary getDictionary() {
+        return dictionary;
+    }
+    
+    public int getPolicyCount() {
+        return policyCount;
+    }
+}
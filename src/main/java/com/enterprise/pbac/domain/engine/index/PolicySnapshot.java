@@ -0,0 +1,82 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable point-in-time view of all active policies, as seen by the evaluation engine.
+ *
+ * Snapshots are never modified: a policy change produces a new snapshot that shares every
+ * unaffected bucket with its predecessor, and is published by swapping a single reference.
+ * Readers therefore evaluate against a consistent set of policies without locks or transactions.
+ */
+public final class PolicySnapshot {
+    
+    private final long version;
+    private final Map<UUID, CompiledPolicy> policiesById;
+    private final PolicyDecisionIndex index;
+    
+    private PolicySnapshot(long version, Map<UUID, CompiledPolicy> policiesById, PolicyDecisionIndex index) {
+        this.version = version;
+        this.policiesById = policiesById;
+        this.index = index;
+    }
+    
+    public static PolicySnapshot of(long version, Collection<CompiledPolicy> policies) {
+        PolicyDecisionIndex index = PolicyDecisionIndex.build(policies);
+        Map<UUID, CompiledPolicy> byId = new HashMap<>(policies.size() * 2);
+        for (CompiledPolicy policy : policies) {
+            if (policy.getId() != null && policy.isActive()) {
+                byId.put(policy.getId(), policy);
+            }
+        }
+        return new PolicySnapshot(version, byId, index);
+    }
+    
+    /**
+     * Returns the next snapshot with the given policy added or replaced, or removed if it is inactive.
+     */
+    public PolicySnapshot withPolicy(CompiledPolicy policy) {
+        if (!policy.isActive()) {
+            return withoutPolicy(policy.getId());
+        }
+        Map<UUID, CompiledPolicy> byId = new HashMap<>(policiesById);
+        CompiledPolicy previous = byId.put(policy.getId(), policy);
+        return new PolicySnapshot(version + 1, byId, index.withChange(previous, policy));
+    }
+    
+    /**
+     * Returns the next snapshot without the given policy, or this snapshot if it is not present.
+     */
+    public PolicySnapshot withoutPolicy(UUID policyId) {
+        CompiledPolicy previous = policiesById.get(policyId);
+        if (previous == null) {
+            return this;
+        }
+        Map<UUID, CompiledPolicy> byId = new HashMap<>(policiesById);
+        byId.remove(policyId);
+        return new PolicySnapshot(version + 1, byId, index.withChange(previous, null));
+    }
+    
+    /**
+     * Gets a counter incremented by every published change or full rebuild.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public PolicyDecisionIndex getIndex() {
+        return index;
+    }
+    
+    public CompiledPolicy getPolicy(UUID policyId) {
+        return policiesById.get(policyId);
+    }
+    
+    public int getPolicyCount() {
+        return policiesById.size();
+    }
+}
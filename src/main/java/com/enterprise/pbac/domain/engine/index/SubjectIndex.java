@@ -0,0 +1,113 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bitset index of which policies in a bucket accept which subject attribute values.
+ * 
+ * For every attribute key some policy in the bucket constrains, the index keeps one bitset of the
+ * policies that leave the key unconstrained (absent or "*"), and one bitset per interned value of
+ * the policies accepting that value, with the unconstrained policies folded in. Selecting the
+ * policies whose subject accepts a user is then one AND per constrained key over {@code long[]} words.
+ * Bits are numbered by the bucket's policy ordinals.
+ */
+final class SubjectIndex {
+    
+    private final long[] allPolicies;
+    private final int[] keyIds;
+    private final long[][] unconstrained;
+    private final long[][][] byValue;
+    
+    private SubjectIndex(long[] allPolicies, int[] keyIds, long[][] unconstrained, long[][][] byValue) {
+        this.allPolicies = allPolicies;
+        this.keyIds = keyIds;
+        this.unconstrained = unconstrained;
+        this.byValue = byValue;
+    }
+    
+    static SubjectIndex build(List<CompiledPolicy> policiesByOrdinal, AttributeDictionary dictionary) {
+        int policyCount = policiesByOrdinal.size();
+        long[] allPolicies = BitSets.create(policyCount);
+        for (int ordinal = 0; ordinal < policyCount; ordinal++) {
+            BitSets.set(allPolicies, ordinal);
+        }
+        
+        // Collect the constraining (non-wildcard) constraints per key id
+        Map<Integer, AttributeConstraint[]> constraintsByKey = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < policyCount; ordinal++) {
+            for (AttributeConstraint constraint : policiesByOrdinal.get(ordinal).getSubjectMatcher().getConstraints()) {
+                if (constraint.getKind() == AttributeConstraint.Kind.WILDCARD) {
+                    continue;
+                }
+                constraintsByKey.computeIfAbsent(dictionary.keyId(constraint.getKey()),
+                        keyId -> new AttributeConstraint[policyCount])[ordinal] = constraint;
+            }
+        }
+        
+        int[] keyIds = new int[constraintsByKey.size()];
+        long[][] unconstrained = new long[keyIds.length][];
+        long[][][] byValue = new long[keyIds.length][][];
+        int slot = 0;
+        for (Map.Entry<Integer, AttributeConstraint[]> entry : constraintsByKey.entrySet()) {
+            int keyId = entry.getKey();
+            AttributeConstraint[] constraints = entry.getValue();
+            
+            long[] open = allPolicies.clone();
+            for (int ordinal = 0; ordinal < policyCount; ordinal++) {
+                if (constraints[ordinal] != null) {
+                    open[ordinal >>> 6] &= ~(1L << ordinal);
+                }
+            }
+            
+            long[][] values = new long[dictionary.valueCount(keyId)][];
+            for (int ordinal = 0; ordinal < policyCount; ordinal++) {
+                if (constraints[ordinal] == null) {
+                    continue;
+                }
+                for (String value : constraints[ordinal].getValues()) {
+                    int valueId = dictionary.valueId(keyId, value);
+                    if (values[valueId] == null) {
+                        values[valueId] = open.clone();
+                    }
+                    BitSets.set(values[valueId], ordinal);
+                }
+            }
+            
+            keyIds[slot] = keyId;
+            unconstrained[slot] = open;
+            byValue[slot] = values;
+            slot++;
+        }
+        
+        return new SubjectIndex(allPolicies, keyIds, unconstrained, byValue);
+    }
+    
+    /**
+     * Returns a fresh bitset of the policies whose subject accepts the encoded attributes.
+     */
+    long[] select(int[] encodedAttributes) {
+        long[] selected = allPolicies.clone();
+        for (int slot = 0; slot < keyIds.length; slot++) {
+            int keyId = keyIds[slot];
+            int valueId = keyId < encodedAttributes.length ? encodedAttributes[keyId] : AttributeDictionary.UNKNOWN;
+            long[][] values = byValue[slot];
+            long[] accepted = valueId >= 0 && valueId < values.length && values[valueId] != null
+                    ? values[valueId]
+                    : unconstrained[slot];
+            
+            long remaining = 0;
+            for (int word = 0; word < selected.length; word++) {
+                selected[word] &= accepted[word];
+                remaining |= selected[word];
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return selected;
+    }
+}
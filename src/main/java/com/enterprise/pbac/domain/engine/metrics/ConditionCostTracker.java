@@ -0,0 +1,80 @@
+package com.enterprise.pbac.domain.engine.metrics;
+
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates measured evaluation cost per condition type.
+ * Used to see which conditions dominate decision latency.
+ *
+ * Only about one in {@code sample-rate} chain evaluations is timed and recorded; the rest run
+ * without clock reads or counter updates. Counts in the report are therefore sample counts,
+ * and averages are averages over the sample.
+ */
+@Component
+public class ConditionCostTracker {
+    
+    private final ConcurrentMap<Class<?>, ConditionStats> statsByType = new ConcurrentHashMap<>();
+    private final int sampleRate;
+    private final int sampleMask;
+    
+    /**
+     * @param sampleRate evaluations per sample, rounded up to a power of two; 1 times every evaluation
+     */
+    public ConditionCostTracker(@Value("${pbac.metrics.condition-cost.sample-rate:64}") int sampleRate) {
+        this.sampleRate = sampleRate <= 1 ? 1 : Integer.highestOneBit(sampleRate - 1) << 1;
+        this.sampleMask = this.sampleRate - 1;
+    }
+    
+    /**
+     * Whether the caller should time the evaluation it is about to run and record it.
+     */
+    public boolean shouldSample() {
+        return sampleMask == 0 || (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+    }
+    
+    public void record(Condition condition, long elapsedNanos, boolean satisfied) {
+        ConditionStats stats = statsByType.get(condition.getClass());
+        if (stats == null) {
+            stats = statsByType.computeIfAbsent(condition.getClass(), type -> new ConditionStats());
+        }
+        stats.evaluations.increment();
+        stats.totalNanos.add(elapsedNanos);
+        if (!satisfied) {
+            stats.rejections.increment();
+        }
+    }
+    
+    /**
+     * Gets a point-in-time report keyed by condition type.
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> report = new TreeMap<>();
+        statsByType.forEach((type, stats) -> {
+            long evaluations = stats.evaluations.sum();
+            long totalNanos = stats.totalNanos.sum();
+            
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("sampleRate", sampleRate);
+            entry.put("sampledEvaluations", evaluations);
+            entry.put("sampledRejections", stats.rejections.sum());
+            entry.put("avgNanos", evaluations == 0 ? 0 : totalNanos / evaluations);
+            report.put(type.getSimpleName(), entry);
+        });
+        return report;
+    }
+    
+    private static final class ConditionStats {
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+    }
+}
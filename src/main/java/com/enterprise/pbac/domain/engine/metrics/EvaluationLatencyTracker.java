@@ -0,0 +1,91 @@
+package com.enterprise.pbac.domain.engine.metrics;
+
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records policy evaluation latency per (resource, action) and per decision.
+ * 
+ * Resource and action names come from callers, so the number of (resource, action)
+ * series is capped; checks beyond the cap are folded into a shared overflow series.
+ */
+@Component
+public class EvaluationLatencyTracker {
+    
+    static final String OVERFLOW_KEY = "_other";
+    
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private final Map<AuthorizationDecision, LatencyHistogram> byDecision = new EnumMap<>(AuthorizationDecision.class);
+    private final ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> byResourceAction = new ConcurrentHashMap<>();
+    private final LatencyHistogram overflow = new LatencyHistogram();
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final int maxSeries;
+    
+    public EvaluationLatencyTracker(@Value("${pbac.metrics.latency.max-series:1000}") int maxSeries) {
+        this.maxSeries = maxSeries;
+        for (AuthorizationDecision decision : AuthorizationDecision.values()) {
+            byDecision.put(decision, new LatencyHistogram());
+        }
+    }
+    
+    public void record(String resource, String action, AuthorizationDecision decision, long elapsedNanos) {
+        overall.record(elapsedNanos);
+        if (decision != null) {
+            byDecision.get(decision).record(elapsedNanos);
+        }
+        histogramFor(String.valueOf(resource), String.valueOf(action)).record(elapsedNanos);
+    }
+    
+    /**
+     * Gets a point-in-time report: overall, by decision and by resource then action.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> decisions = new LinkedHashMap<>();
+        byDecision.forEach((decision, histogram) -> decisions.put(decision.name(), histogram.snapshot()));
+        
+        Map<String, Map<String, Object>> resources = new TreeMap<>();
+        byResourceAction.forEach((resource, byAction) -> {
+            Map<String, Object> actions = new TreeMap<>();
+            byAction.forEach((action, histogram) -> actions.put(action, histogram.snapshot()));
+            resources.put(resource, actions);
+        });
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("overall", overall.snapshot());
+        report.put("byDecision", decisions);
+        report.put("byResourceAction", resources);
+        report.put(OVERFLOW_KEY, overflow.snapshot());
+        return report;
+    }
+    
+    private LatencyHistogram histogramFor(String resource, String action) {
+        ConcurrentMap<String, LatencyHistogram> byAction = byResourceAction.get(resource);
+        LatencyHistogram histogram = byAction == null ? null : byAction.get(action);
+        if (histogram != null) {
+            return histogram;
+        }
+        
+        // Reserve a slot before creating the series so concurrent first calls cannot overshoot the cap
+        if (seriesCount.incrementAndGet() > maxSeries) {
+            seriesCount.decrementAndGet();
+            return overflow;
+        }
+        LatencyHistogram created = new LatencyHistogram();
+        LatencyHistogram existing = byResourceAction
+                .computeIfAbsent(resource, r -> new ConcurrentHashMap<>())
+                .putIfAbsent(action, created);
+        if (existing != null) {
+            seriesCount.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+}
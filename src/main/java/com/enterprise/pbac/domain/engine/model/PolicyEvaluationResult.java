@@ -1,22 +1,89 @@
 package com.enterprise.pbac.domain.engine.model;
 
 import com.enterprise.pbac.domain.enums.AuthorizationDecision;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
 import java.util.UUID;
 
 /**
  * Result of policy evaluation containing the decision and explanation.
+ * 
+ * Results are immutable and shared: one instance is pre-built per compiled policy and per
+ * (resource, action) default deny, so the evaluation path returns them without allocating.
+ * The reason text is only assembled the first time {@link #getReason()} is called.
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class PolicyEvaluationResult {
-    private AuthorizationDecision decision;
+public final class PolicyEvaluationResult {
+    
+    private enum ReasonKind {
+        MATCHED_POLICY,
+        NO_APPLICABLE_POLICIES,
+        EVALUATION_ERROR
+    }
+    
+    private final AuthorizationDecision decision;
+    private final UUID matchedPolicyId;
+    private final ReasonKind reasonKind;
+    private final String firstArgument;
+    private final String secondArgument;
+    
+    // Benign race: concurrent callers may both build the same immutable string
     private String reason;
-    private UUID matchedPolicyId;
-    private long evaluationTimeMs;
+    
+    private PolicyEvaluationResult(AuthorizationDecision decision, UUID matchedPolicyId, ReasonKind reasonKind,
+                                   String firstArgument, String secondArgument) {
+        this.decision = decision;
+        this.matchedPolicyId = matchedPolicyId;
+        this.reasonKind = reasonKind;
+        this.firstArgument = firstArgument;
+        this.secondArgument = secondArgument;
+    }
+    
+    public static PolicyEvaluationResult matched(AuthorizationDecision decision, UUID policyId, String policyName) {
+        return new PolicyEvaluationResult(decision, policyId, ReasonKind.MATCHED_POLICY, policyName, null);
+    }
+    
+    public static PolicyEvaluationResult noApplicablePolicies(String resource, String action) {
+        return new PolicyEvaluationResult(AuthorizationDecision.DENY, null, ReasonKind.NO_APPLICABLE_POLICIES,
+                resource, action);
+    }
+    
+    /**
+     * Fail-secure result for an evaluation that threw: always DENY.
+     */
+    public static PolicyEvaluationResult evaluationError(String message) {
+        return new PolicyEvaluationResult(AuthorizationDecision.DENY, null, ReasonKind.EVALUATION_ERROR,
+                message, null);
+    }
+    
+    public AuthorizationDecision getDecision() {
+        return decision;
+    }
+    
+    public UUID getMatchedPolicyId() {
+        return matchedPolicyId;
+    }
+    
+    public String getReason() {
+        String current = reason;
+        if (current == null) {
+            current = buildReason();
+            reason = current;
+        }
+        return current;
+    }
+    
+    private String buildReason() {
+        switch (reasonKind) {
+            case MATCHED_POLICY:
+                return "Matched policy: " + firstArgument;
+            case NO_APPLICABLE_POLICIES:
+                return "No applicable policies found for resource: " + firstArgument + ", action: " + secondArgument;
+            default:
+                return "Policy evaluation error: " + firstArgument;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "PolicyEvaluationResult(decision=" + decision + ", matchedPolicyId=" + matchedPolicyId
+                + ", reason=" + getReason() + ")";
+    }
 }
@@ -0,0 +1,236 @@
+package com.enterprise.pbac.domain.engine.network;
+
+/**
+ * Numeric 128-bit form of an IPv4 or IPv6 address.
+ * IPv4 addresses are stored IPv4-mapped (::ffff:a.b.c.d) so both families share one key space.
+ */
+public final class IpAddress {
+    
+    static final long IPV4_MAPPED_PREFIX = 0x0000_FFFF_0000_0000L;
+    
+    private final long high;
+    private final long low;
+    
+    IpAddress(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+    
+    /**
+     * Parses an address literal. Host names are rejected; no DNS lookup is ever made.
+     *
+     * @throws IllegalArgumentException if the text is not an IPv4 or IPv6 literal
+     */
+    public static IpAddress parse(String text) {
+        IpAddress address = tryParse(text);
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid IP address: " + text);
+        }
+        return address;
+    }
+    
+    /**
+     * Parses an address literal, returning null if the text is missing or malformed.
+     */
+    public static IpAddress tryParse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        return trimmed.indexOf(':') >= 0 ? parseIpv6(trimmed) : parseIpv4(trimmed);
+    }
+    
+    private static IpAddress parseIpv4(String text) {
+        long value = 0;
+        int octet = -1;
+        int dots = 0;
+        
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return null;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                value = (value << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return null;
+            }
+        }
+        
+        if (dots != 3 || octet < 0) {
+            return null;
+        }
+        value = (value << 8) | octet;
+        return new IpAddress(0L, IPV4_MAPPED_PREFIX | value);
+    }
+    
+    private static IpAddress parseIpv6(String text) {
+        String literal = text;
+        if (literal.startsWith("[") && literal.endsWith("]")) {
+            literal = literal.substring(1, literal.length() - 1);
+        }
+        int zoneIndex = literal.indexOf('%');
+        if (zoneIndex >= 0) {
+            literal = literal.substring(0, zoneIndex);
+        }
+        
+        int[] groups = parseIpv6Groups(literal);
+        if (groups == null) {
+            return null;
+        }
+        
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 4; i++) {
+            high = (high << 16) | groups[i];
+            low = (low << 16) | groups[i + 4];
+        }
+        return new IpAddress(high, low);
+    }
+    
+    /**
+     * Parses the eight 16-bit groups of an IPv6 literal (RFC 4291 text form), including a single
+     * "::" run of zero groups and a trailing dotted IPv4 part. Returns null for anything else.
+     */
+    private static int[] parseIpv6Groups(String literal) {
+        int compressAt = literal.indexOf("::");
+        if (compressAt >= 0 && literal.indexOf("::", compressAt + 1) >= 0) {
+            return null;
+        }
+        
+        String head = compressAt >= 0 ? literal.substring(0, compressAt) : literal;
+        String tail = compressAt >= 0 ? literal.substring(compressAt + 2) : "";
+        int[] headGroups = new int[8];
+        int[] tailGroups = new int[8];
+        int headCount = parseGroupList(head, headGroups, compressAt < 0);
+        int tailCount = parseGroupList(tail, tailGroups, true);
+        if (headCount < 0 || tailCount < 0) {
+            return null;
+        }
+        
+        int total = headCount + tailCount;
+        if (compressAt >= 0 ? total > 7 : total != 8) {
+            return null;
+        }
+        
+        int[] groups = new int[8];
+        System.arraycopy(headGroups, 0, groups, 0, headCount);
+        System.arraycopy(tailGroups, 0, groups, 8 - tailCount, tailCount);
+        return groups;
+    }
+    
+    /**
+     * Parses colon-separated hex groups into {@code groups}, returning the number of groups
+     * written or -1 if malformed. When {@code ipv4TailAllowed} the last element may be a dotted
+     * IPv4 address, which fills two groups.
+     */
+    private static int parseGroupList(String text, int[] groups, boolean ipv4TailAllowed) {
+        if (text.isEmpty()) {
+            return 0;
+        }
+        
+        int count = 0;
+        int start = 0;
+        while (true) {
+            int end = text.indexOf(':', start);
+            String part = end >= 0 ? text.substring(start, end) : text.substring(start);
+            
+            if (end < 0 && ipv4TailAllowed && part.indexOf('.') >= 0) {
+                IpAddress ipv4 = parseIpv4(part);
+                if (ipv4 == null || count > 6) {
+                    return -1;
+                }
+                groups[count++] = (int) (ipv4.low >>> 16) & 0xFFFF;
+                groups[count++] = (int) ipv4.low & 0xFFFF;
+                return count;
+            }
+            
+            int group = parseHexGroup(part);
+            if (group < 0 || count == 8) {
+                return -1;
+            }
+            groups[count++] = group;
+            
+            if (end < 0) {
+                return count;
+            }
+            start = end + 1;
+        }
+    }
+    
+    private static int parseHexGroup(String part) {
+        if (part.isEmpty() || part.length() > 4) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+    
+    public boolean isIpv4() {
+        return high == 0L && (low & 0xFFFF_FFFF_0000_0000L) == IPV4_MAPPED_PREFIX;
+    }
+    
+    /**
+     * Gets bit {@code index} counted from the most significant bit (0..127).
+     */
+    public int bit(int index) {
+        return index < 64
+                ? (int) (high >>> (63 - index)) & 1
+                : (int) (low >>> (127 - index)) & 1;
+    }
+    
+    public long getHigh() {
+        return high;
+    }
+    
+    public long getLow() {
+        return low;
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IpAddress)) {
+            return false;
+        }
+        IpAddress that = (IpAddress) other;
+        return high == that.high && low == that.low;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+    
+    @Override
+    public String toString() {
+        if (isIpv4()) {
+            return String.format("%d.%d.%d.%d",
+                    (low >>> 24) & 0xFF, (low >>> 16) & 0xFF, (low >>> 8) & 0xFF, low & 0xFF);
+        }
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,84 @@
+package com.enterprise.pbac.domain.engine.network;
+
+/**
+ * Parsed CIDR block, e.g. 10.0.0.0/8 or 2001:db8::/32.
+ * A bare address is treated as a single-host prefix (/32 or /128).
+ */
+public final class IpPrefix {
+    
+    private static final int IPV4_MAPPED_BITS = 96;
+    
+    private final IpAddress network;
+    private final int length;
+    private final long highMask;
+    private final long lowMask;
+    private final String text;
+    
+    private IpPrefix(IpAddress address, int length, String text) {
+        this.length = length;
+        this.highMask = highMask(length);
+        this.lowMask = lowMask(length);
+        this.network = new IpAddress(address.getHigh() & highMask, address.getLow() & lowMask);
+        this.text = text;
+    }
+    
+    /**
+     * Parses CIDR notation.
+     *
+     * @throws IllegalArgumentException if the text is not a valid IPv4 or IPv6 CIDR block
+     */
+    public static IpPrefix parse(String cidr) {
+        if (cidr == null) {
+            throw new IllegalArgumentException("CIDR block is required");
+        }
+        String trimmed = cidr.trim();
+        int slash = trimmed.indexOf('/');
+        IpAddress address = IpAddress.parse(slash >= 0 ? trimmed.substring(0, slash) : trimmed);
+        
+        int familyBits = address.isIpv4() ? 32 : 128;
+        int length = familyBits;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(trimmed.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + cidr);
+            }
+            if (length < 0 || length > familyBits) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + cidr);
+            }
+        }
+        
+        int mappedLength = address.isIpv4() ? IPV4_MAPPED_BITS + length : length;
+        return new IpPrefix(address, mappedLength, trimmed);
+    }
+    
+    private static long highMask(int length) {
+        return length >= 64 ? -1L : length == 0 ? 0L : -1L << (64 - length);
+    }
+    
+    private static long lowMask(int length) {
+        return length <= 64 ? 0L : length == 128 ? -1L : -1L << (128 - length);
+    }
+    
+    public boolean contains(IpAddress address) {
+        return address != null
+                && (address.getHigh() & highMask) == network.getHigh()
+                && (address.getLow() & lowMask) == network.getLow();
+    }
+    
+    public IpAddress getNetwork() {
+        return network;
+    }
+    
+    /**
+     * Gets the prefix length in the shared 128-bit key space (IPv4 prefixes are offset by 96).
+     */
+    public int getLength() {
+        return length;
+    }
+    
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,101 @@
+package com.enterprise.pbac.domain.engine.network;
+
+import com.enterprise.pbac.domain.engine.index.BitSets;
+import java.util.Arrays;
+
+/**
+ * Immutable binary prefix trie over the 128-bit address space.
+ *
+ * Each prefix is stored with the ordinal of the policy it belongs to. A single walk from the root
+ * along the address bits visits every prefix containing the address, so one lookup answers
+ * "which policies accept this address" regardless of how many prefixes are indexed.
+ */
+public final class IpPrefixTrie {
+    
+    private static final int[] NO_VALUES = new int[0];
+    
+    private final Node root;
+    private final int ordinalCount;
+    private final int prefixCount;
+    
+    private IpPrefixTrie(Node root, int ordinalCount, int prefixCount) {
+        this.root = root;
+        this.ordinalCount = ordinalCount;
+        this.prefixCount = prefixCount;
+    }
+    
+    public static Builder builder(int ordinalCount) {
+        return new Builder(ordinalCount);
+    }
+    
+    /**
+     * Returns a bitset of the ordinals whose prefixes contain the address.
+     * A null address matches nothing.
+     */
+    public long[] match(IpAddress address) {
+        long[] matches = BitSets.create(ordinalCount);
+        if (address == null) {
+            return matches;
+        }
+        
+        Node node = root;
+        int depth = 0;
+        while (node != null) {
+            for (int ordinal : node.values) {
+                BitSets.set(matches, ordinal);
+            }
+            if (depth == 128) {
+                break;
+            }
+            node = address.bit(depth++) == 0 ? node.zero : node.one;
+        }
+        return matches;
+    }
+    
+    public int getPrefixCount() {
+        return prefixCount;
+    }
+    
+    private static final class Node {
+        private Node zero;
+        private Node one;
+        private int[] values = NO_VALUES;
+    }
+    
+    public static final class Builder {
+        
+        private final Node root = new Node();
+        private final int ordinalCount;
+        private int prefixCount;
+        
+        private Builder(int ordinalCount) {
+            this.ordinalCount = ordinalCount;
+        }
+        
+        public Builder add(IpPrefix prefix, int ordinal) {
+            IpAddress network = prefix.getNetwork();
+            Node node = root;
+            for (int depth = 0; depth < prefix.getLength(); depth++) {
+                if (network.bit(depth) == 0) {
+                    if (node.zero == null) {
+                        node.zero = new Node();
+                    }
+                    node = node.zero;
+                } else {
+                    if (node.one == null) {
+                        node.one = new Node();
+                    }
+                    node = node.one;
+                }
+            }
+            node.values = Arrays.copyOf(node.values, node.values.length + 1);
+            node.values[node.values.length - 1] = ordinal;
+            prefixCount++;
+            return this;
+        }
+        
+        public IpPrefixTrie build() {
+            return new IpPrefixTrie(root, ordinalCount, prefixCount);
+        }
+    }
+}
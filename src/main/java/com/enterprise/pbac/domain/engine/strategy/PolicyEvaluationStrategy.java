@@ -1,5 +1,7 @@
 package com.enterprise.pbac.domain.engine.strategy;
 
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
 import com.enterprise.pbac.domain.entity.Policy;
 import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
 
@@ -14,6 +16,17 @@ public interface PolicyEvaluationStrategy {
      */
     boolean matches(Policy policy, AuthorizationContext context);
     
+    /**
+     * Evaluates if an already compiled policy matches the given context.
+     */
+    boolean matches(CompiledPolicy policy, AuthorizationContext context);
+    
+    /**
+     * Evaluates only the given conditions, for policies whose resource, action, subject and
+     * (optionally) IP range the caller has already resolved through the decision index.
+     */
+    boolean matchesConditions(ConditionChain conditions, AuthorizationContext context);
+    
     /**
      * Gets the strategy name for logging.
      */
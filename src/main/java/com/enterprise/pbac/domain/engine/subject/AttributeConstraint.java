@@ -0,0 +1,81 @@
+package com.enterprise.pbac.domain.engine.subject;
+
+import java.util.Set;
+
+/**
+ * Compiled requirement on a single user attribute.
+ * A constraint either accepts any value, one exact value, or any value from a fixed set.
+ */
+public final class AttributeConstraint {
+    
+    public enum Kind {
+        WILDCARD,
+        EXACT,
+        VALUE_SET
+    }
+    
+    private final String key;
+    private final Kind kind;
+    private final String value;
+    private final Set<String> values;
+    
+    private AttributeConstraint(String key, Kind kind, String value, Set<String> values) {
+        this.key = key;
+        this.kind = kind;
+        this.value = value;
+        this.values = values;
+    }
+    
+    public static AttributeConstraint wildcard(String key) {
+        return new AttributeConstraint(key, Kind.WILDCARD, null, Set.of());
+    }
+    
+    public static AttributeConstraint exact(String key, String value) {
+        return new AttributeConstraint(key, Kind.EXACT, value, Set.of(value));
+    }
+    
+    public static AttributeConstraint valueSet(String key, Set<String> values) {
+        if (values.size() == 1) {
+            return exact(key, values.iterator().next());
+        }
+        return new AttributeConstraint(key, Kind.VALUE_SET, null, Set.copyOf(values));
+    }
+    
+    public boolean accepts(String actualValue) {
+        switch (kind) {
+            case WILDCARD:
+                return true;
+            case EXACT:
+                return value.equals(actualValue);
+            default:
+                return actualValue != null && values.contains(actualValue);
+        }
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Gets the accepted values; empty for wildcard constraints.
+     */
+    public Set<String> getValues() {
+        return values;
+    }
+    
+    @Override
+    public String toString() {
+        switch (kind) {
+            case WILDCARD:
+                return key + "=*";
+            case EXACT:
+                return key + "=" + value;
+            default:
+                return key + " in " + values;
+        }
+    }
+}
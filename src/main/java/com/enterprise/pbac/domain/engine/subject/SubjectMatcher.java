@@ -0,0 +1,27 @@
+package com.enterprise.pbac.domain.engine.subject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-compiled form of a policy's subject definition.
+ * Matchers are built once per policy version so no JSON is inspected on the evaluation path.
+ */
+public interface SubjectMatcher {
+    
+    /**
+     * Checks whether the given user attributes satisfy this subject.
+     */
+    boolean matches(Map<String, String> userAttributes);
+    
+    /**
+     * Gets the constraints that must all accept the user's attributes; empty if every user matches.
+     * The decision index relies on this to build its subject bitsets, so it must agree with {@link #matches}.
+     */
+    List<AttributeConstraint> getConstraints();
+    
+    /**
+     * Gets a description of this matcher for logging/debugging.
+     */
+    String getDescription();
+}
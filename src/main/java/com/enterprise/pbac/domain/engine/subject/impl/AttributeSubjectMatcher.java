@@ -0,0 +1,40 @@
+package com.enterprise.pbac.domain.engine.subject.impl;
+
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import com.enterprise.pbac.domain.engine.subject.SubjectMatcher;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matcher requiring every attribute constraint to accept the user's value for that key.
+ */
+public final class AttributeSubjectMatcher implements SubjectMatcher {
+    
+    private final AttributeConstraint[] constraints;
+    
+    public AttributeSubjectMatcher(List<AttributeConstraint> constraints) {
+        this.constraints = constraints.toArray(new AttributeConstraint[0]);
+    }
+    
+    @Override
+    public boolean matches(Map<String, String> userAttributes) {
+        for (AttributeConstraint constraint : constraints) {
+            String actualValue = userAttributes == null ? null : userAttributes.get(constraint.getKey());
+            if (!constraint.accepts(actualValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public List<AttributeConstraint> getConstraints() {
+        return List.of(constraints);
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Subject: " + Arrays.toString(constraints);
+    }
+}
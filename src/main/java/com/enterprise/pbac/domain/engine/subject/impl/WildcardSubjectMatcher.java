@@ -0,0 +1,32 @@
+package com.enterprise.pbac.domain.engine.subject.impl;
+
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import com.enterprise.pbac.domain.engine.subject.SubjectMatcher;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matcher for subjects that apply to every user ("*" or no attribute constraints).
+ */
+public final class WildcardSubjectMatcher implements SubjectMatcher {
+    
+    public static final WildcardSubjectMatcher INSTANCE = new WildcardSubjectMatcher();
+    
+    private WildcardSubjectMatcher() {
+    }
+    
+    @Override
+    public boolean matches(Map<String, String> userAttributes) {
+        return true;
+    }
+    
+    @Override
+    public List<AttributeConstraint> getConstraints() {
+        return List.of();
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Subject: *";
+    }
+}
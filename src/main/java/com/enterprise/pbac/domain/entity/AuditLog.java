@@ -1,5 +1,6 @@
 package com.enterprise.pbac.domain.entity;
 
+import com.enterprise.pbac.domain.id.UuidV7;
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.*;
@@ -9,11 +10,16 @@ import java.util.UUID;
 /**
  * Immutable audit log entity recording all authorization decisions.
  * This table is append-only for compliance and debugging purposes.
+ *
+ * The table is range-partitioned on timestamp, so its primary key is (id, timestamp); the id alone
+ * is still unique in practice and serves as the entity identifier.
  */
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_user_timestamp", columnList = "user_id,timestamp DESC"),
-        @Index(name = "idx_resource_action", columnList = "resource,action")
+        @Index(name = "idx_audit_logs_user_timestamp_id", columnList = "user_id,timestamp DESC,id DESC"),
+        @Index(name = "idx_audit_logs_resource_action_timestamp_id", columnList = "resource,action,timestamp DESC,id DESC"),
+        @Index(name = "idx_audit_logs_decision_timestamp_id", columnList = "decision,timestamp DESC,id DESC"),
+        @Index(name = "idx_audit_logs_timestamp_id", columnList = "timestamp DESC,id DESC")
 })
 @Data
 @NoArgsConstructor
@@ -49,7 +55,11 @@ public class AuditLog {
     
     @PrePersist
     protected void onCreate() {
-        this.id = UUID.randomUUID();
-        this.timestamp = LocalDateTime.now();
+        if (this.id == null) {
+            this.id = UuidV7.next();
+        }
+        if (this.timestamp == null) {
+            this.timestamp = LocalDateTime.now();
+        }
     }
 }
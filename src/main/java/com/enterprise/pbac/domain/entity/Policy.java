@@ -1,5 +1,6 @@
 package com.enterprise.pbac.domain.entity;
 
+import com.enterprise.pbac.domain.id.UuidV7;
 import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.*;
@@ -61,7 +62,9 @@ public class Policy {
     
     @PrePersist
     protected void onCreate() {
-        this.id = UUID.randomUUID();
+        if (this.id == null) {
+            this.id = UuidV7.next();
+        }
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -1,5 +1,6 @@
 package com.enterprise.pbac.domain.entity;
 
+import com.enterprise.pbac.domain.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -43,7 +44,9 @@ public class User {
     
     @PrePersist
     protected void onCreate() {
-        this.id = UUID.randomUUID();
+        if (this.id == null) {
+            this.id = UuidV7.next();
+        }
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -1,5 +1,6 @@
 package com.enterprise.pbac.domain.entity;
 
+import com.enterprise.pbac.domain.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.UUID;
@@ -28,6 +29,8 @@ public class UserAttribute {
     
     @PrePersist
     protected void onCreate() {
-        this.id = UUID.randomUUID();
+        if (this.id == null) {
+            this.id = UuidV7.next();
+        }
     }
 }
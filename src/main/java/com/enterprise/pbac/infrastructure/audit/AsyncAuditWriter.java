@@ -0,0 +1,267 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.infrastructure.repository.AuditLogBatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit records off the request thread.
+ *
+ * Callers enqueue into a bounded lock-free queue; a single writer thread drains it and inserts
+ * batches with multi-row statements, flushing when a batch is full or its oldest record has
+ * waited {@code flush-interval-ms}. A failed batch is retried every {@code retry-delay-ms} up to
+ * {@code max-flush-attempts} times and then dropped and counted, so a database outage cannot stall
+ * the writer, and with it every caller blocked on a full queue, indefinitely. When the queue is
+ * full the configured {@link AuditOverflowPolicy} applies. On shutdown the queue is drained and
+ * flushed before the datasource closes; records submitted after that are written synchronously,
+ * and records that raced into the queue as the writer stopped are written by a final drain.
+ */
+@Component
+@ConditionalOnProperty(name = "pbac.audit.sink", havingValue = "queue", matchIfMissing = true)
+@Slf4j
+public class AsyncAuditWriter implements AuditRecordSink {
+    
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long DROP_WARN_INTERVAL = 10_000;
+    
+    private final AuditLogBatchRepository batchRepository;
+    private final AuditRollupAggregator rollupAggregator;
+    private final BoundedMpscQueue<AuditLog> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final int maxFlushAttempts;
+    private final long retryDelayNanos;
+    private final long shutdownTimeoutMs;
+    private final Thread writerThread;
+    private final Object finalDrainLock = new Object();
+    private volatile boolean running = true;
+    // Set once the writer thread no longer polls the queue; from then on the queue is drained under finalDrainLock
+    private volatile boolean consumerStopped;
+    
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder abandonedBatches = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    public AsyncAuditWriter(AuditLogBatchRepository batchRepository,
+                            AuditRollupAggregator rollupAggregator,
+                            @Value("${pbac.audit.writer.queue-capacity:65536}") int queueCapacity,
+                            @Value("${pbac.audit.writer.batch-size:500}") int batchSize,
+                            @Value("${pbac.audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${pbac.audit.writer.overflow-policy:block}") String overflowPolicy,
+                            @Value("${pbac.audit.writer.max-flush-attempts:5}") int maxFlushAttempts,
+                            @Value("${pbac.audit.writer.retry-delay-ms:1000}") long retryDelayMs,
+                            @Value("${pbac.audit.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.batchRepository = batchRepository;
+        this.rollupAggregator = rollupAggregator;
+        this.queue = new BoundedMpscQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.overflowPolicy = AuditOverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        this.maxFlushAttempts = Math.max(1, maxFlushAttempts);
+        this.retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, retryDelayMs));
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.writerThread = new Thread(this::drainLoop, "audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+    
+    /**
+     * Queues a record for writing. The record must already carry its id and timestamp.
+     */
+    @Override
+    public void submit(AuditLog record) {
+        submitted.increment();
+        if (!running) {
+            writeSynchronously(record);
+            return;
+        }
+        if (queue.offer(record)) {
+            if (!running) {
+                // Shutdown began after the check above; the writer may already have stopped polling
+                drainIfStopped();
+            } else if (queue.size() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
+        }
+        
+        switch (overflowPolicy) {
+            case BLOCK:
+                blocked.increment();
+                while (!queue.offer(record)) {
+                    if (!running) {
+                        writeSynchronously(record);
+                        return;
+                    }
+                    LockSupport.unpark(writerThread);
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                if (!running) {
+                    drainIfStopped();
+                }
+                break;
+            case SPILL:
+                spilled.increment();
+                writeSynchronously(record);
+                break;
+            default:
+                long total = dropped.incrementAndGet();
+                if (total % DROP_WARN_INTERVAL == 1) {
+                    log.warn("Audit queue full, {} records dropped so far", total);
+                }
+                break;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.error("Audit writer did not finish within {} ms, {} records still queued",
+                    shutdownTimeoutMs, queue.size());
+        } else {
+            log.info("Audit writer stopped, {} records written", written.sum());
+        }
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sink", "queue");
+        report.put("overflowPolicy", overflowPolicy);
+        report.put("queueDepth", queue.size());
+        report.put("queueCapacity", queue.capacity());
+        report.put("submitted", submitted.sum());
+        report.put("written", written.sum());
+        report.put("batches", batches.sum());
+        report.put("failedFlushes", failedFlushes.sum());
+        report.put("abandonedBatches", abandonedBatches.sum());
+        report.put("blocked", blocked.sum());
+        report.put("spilled", spilled.sum());
+        report.put("dropped", dropped.get());
+        return report;
+    }
+    
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (running || !queue.isEmpty()) {
+            AuditLog record = queue.poll();
+            if (record != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + flushIntervalNanos;
+                }
+                batch.add(record);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+                continue;
+            }
+            
+            if (batch.isEmpty()) {
+                // Woken early by producers once a full batch is queued, or by shutdown
+                LockSupport.parkNanos(flushIntervalNanos);
+            } else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    flush(batch);
+                } else {
+                    LockSupport.parkNanos(remaining);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+        consumerStopped = true;
+        drainIfStopped();
+    }
+    
+    /**
+     * Writes whatever producers queued after the writer thread's last poll. Does nothing while the
+     * writer thread still consumes the queue: a producer whose record lands before the writer stops
+     * is covered by the writer's own call here, and one whose record lands after finds the writer
+     * stopped and drains itself.
+     */
+    private void drainIfStopped() {
+        if (!consumerStopped) {
+            return;
+        }
+        synchronized (finalDrainLock) {
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            AuditLog record;
+            while ((record = queue.poll()) != null) {
+                batch.add(record);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+    
+    private void flush(List<AuditLog> batch) {
+        int attempt = 0;
+        while (true) {
+            try {
+                batchRepository.insertAll(batch);
+                rollupAggregator.recordAll(batch);
+                written.add(batch.size());
+                batches.increment();
+                batch.clear();
+                return;
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                attempt++;
+                if (!running || attempt >= maxFlushAttempts) {
+                    log.error("Failed to flush {} audit records after {} attempts, dropping them: {}",
+                            batch.size(), attempt, e.getMessage());
+                    abandonedBatches.increment();
+                    dropped.addAndGet(batch.size());
+                    batch.clear();
+                    return;
+                }
+                log.warn("Failed to flush {} audit records, retrying: {}", batch.size(), e.getMessage());
+                LockSupport.parkNanos(retryDelayNanos);
+            }
+        }
+    }
+    
+    private void writeSynchronously(AuditLog record) {
+        try {
+            batchRepository.insertAll(List.of(record));
+            rollupAggregator.record(record);
+            written.increment();
+        } catch (RuntimeException e) {
+            dropped.incrementAndGet();
+            log.error("Failed to write audit record {}: {}", record.getId(), e.getMessage());
+        }
+    }
+}
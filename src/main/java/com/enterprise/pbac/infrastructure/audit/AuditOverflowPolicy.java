@@ -0,0 +1,13 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+/**
+ * What the audit writer does with a record when its queue is full.
+ */
+public enum AuditOverflowPolicy {
+    /** Wait on the calling thread until the writer frees space. */
+    BLOCK,
+    /** Discard the record and count it. */
+    DROP,
+    /** Write the record synchronously on the calling thread, bypassing the queue. */
+    SPILL
+}
@@ -0,0 +1,116 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary form of an audit record in the write-ahead log.
+ *
+ * Layout: id (2 x int64) | user id (2 x int64) | timestamp epoch second (int64) | nano (int32)
+ * | decision (1 byte) | resource | action | reason | request context JSON.
+ * Strings are a varint of (UTF-8 length + 1), 0 meaning null, followed by the bytes.
+ */
+final class AuditRecordCodec {
+    
+    private static final AuthorizationDecision[] DECISIONS = AuthorizationDecision.values();
+    
+    private AuditRecordCodec() {
+    }
+    
+    static byte[] encode(AuditLog record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        writeLong(out, record.getId().getMostSignificantBits());
+        writeLong(out, record.getId().getLeastSignificantBits());
+        writeLong(out, record.getUserId().getMostSignificantBits());
+        writeLong(out, record.getUserId().getLeastSignificantBits());
+        writeLong(out, record.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        writeInt(out, record.getTimestamp().getNano());
+        out.write(record.getDecision().ordinal());
+        writeString(out, record.getResource());
+        writeString(out, record.getAction());
+        writeString(out, record.getReason());
+        writeString(out, record.getRequestContext() == null ? null : record.getRequestContext().toString());
+        return out.toByteArray();
+    }
+    
+    static AuditLog decode(ByteBuffer payload, ObjectMapper objectMapper) {
+        UUID id = new UUID(payload.getLong(), payload.getLong());
+        UUID userId = new UUID(payload.getLong(), payload.getLong());
+        long epochSecond = payload.getLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(epochSecond, payload.getInt(), ZoneOffset.UTC);
+        AuthorizationDecision decision = DECISIONS[payload.get()];
+        String resource = readString(payload);
+        String action = readString(payload);
+        String reason = readString(payload);
+        String requestContext = readString(payload);
+        try {
+            return AuditLog.builder()
+                    .id(id)
+                    .userId(userId)
+                    .timestamp(timestamp)
+                    .decision(decision)
+                    .resource(resource)
+                    .action(action)
+                    .reason(reason)
+                    .requestContext(requestContext == null ? null : objectMapper.readTree(requestContext))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid request context in audit record " + id, e);
+        }
+    }
+    
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+    
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            out.write(value >>> shift);
+        }
+    }
+    
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int length = utf8.length + 1;
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        out.write(utf8, 0, utf8.length);
+    }
+    
+    private static String readString(ByteBuffer payload) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed string length");
+            }
+            int b = payload.get() & 0xFF;
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (length == 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length - 1];
+        payload.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import java.util.Map;
+
+/**
+ * Destination for audit records produced on the request path.
+ *
+ * Implementations take ownership of a fully populated record (id and timestamp assigned) and
+ * persist it to the audit_logs table without making the caller wait for the database.
+ */
+public interface AuditRecordSink {
+    
+    void submit(AuditLog record);
+    
+    /**
+     * Gets counters describing the sink's throughput and backlog.
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,208 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.infrastructure.repository.AuditRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts audit decisions per (minute, resource, action, decision) in memory and periodically
+ * adds the counts to the audit_rollups table, so dashboards read a few rollup rows instead of
+ * scanning audit_logs. The audit sinks record a decision only once it has been inserted, so records
+ * a sink drops are not counted either. A batch shipped again after a crash that interrupted it is
+ * counted again, though its rows are not inserted twice.
+ *
+ * Recording is a map lookup and a compare-and-set increment. Each counter remembers how much of
+ * its total has been flushed, so a flush writes only the difference and never loses increments
+ * made while it runs. A flush adds all differences in one transaction, so a failed flush writes
+ * nothing and is retried in full with the next one.
+ *
+ * Counters for minutes that closed more than {@code CLOSE_AFTER_MINUTES} ago are swapped out of
+ * the map and then sealed. A recorder still holding a swapped-out counter either increments it
+ * before the seal, and the increment is flushed, or finds it sealed and records into the counter
+ * that replaced it. A sealed counter is dropped once its final total has been flushed. Counts not
+ * yet flushed when the process dies are lost; at most {@code flush-interval-ms} of them.
+ */
+@Component
+@Slf4j
+public class AuditRollupAggregator {
+    
+    private static final int CLOSE_AFTER_MINUTES = 2;
+    
+    private final AuditRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final ConcurrentHashMap<AuditRollupKey, Counter> counters = new ConcurrentHashMap<>();
+    // Sealed counters swapped out of the map for closed minutes; guarded by this
+    private final Map<Counter, AuditRollupKey> retired = new IdentityHashMap<>();
+    
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder rowsFlushed = new LongAdder();
+    
+    private static final class Counter {
+        private static final long SEALED = Long.MIN_VALUE;
+        
+        // Count of records, with the sign bit set once sealed
+        private final AtomicLong value = new AtomicLong();
+        // Only read and written by the flushing thread
+        private long flushed;
+        
+        /**
+         * Adds one record, or returns false if the counter is sealed and takes no more.
+         */
+        boolean tryIncrement() {
+            long current;
+            do {
+                current = value.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!value.compareAndSet(current, current + 1));
+            return true;
+        }
+        
+        void seal() {
+            value.getAndUpdate(current -> current | SEALED);
+        }
+        
+        long total() {
+            return value.get() & ~SEALED;
+        }
+    }
+    
+    public AuditRollupAggregator(AuditRollupRepository rollupRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 Clock clock,
+                                 @Value("${pbac.audit.rollup.enabled:true}") boolean enabled) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.enabled = enabled;
+    }
+    
+    /**
+     * Counts records that have been written to audit_logs.
+     */
+    public void recordAll(List<AuditLog> auditLogs) {
+        for (AuditLog auditLog : auditLogs) {
+            record(auditLog);
+        }
+    }
+    
+    public void record(AuditLog auditLog) {
+        if (!enabled) {
+            return;
+        }
+        AuditRollupKey key = new AuditRollupKey(
+                auditLog.getTimestamp().truncatedTo(ChronoUnit.MINUTES),
+                auditLog.getResource(),
+                auditLog.getAction(),
+                auditLog.getDecision());
+        while (true) {
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(key, k -> new Counter());
+            }
+            if (counter.tryIncrement()) {
+                break;
+            }
+            // Sealed by a flush after its minute closed and already removed; look up its replacement
+        }
+        recorded.increment();
+    }
+    
+    @Scheduled(fixedDelayString = "${pbac.audit.rollup.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+    
+    /**
+     * Adds counts recorded since the last successful flush to the rollup table.
+     *
+     * @return whether the counts were written
+     */
+    public synchronized boolean flush() {
+        LocalDateTime closedBefore = LocalDateTime.now(clock).truncatedTo(ChronoUnit.MINUTES)
+                .minusMinutes(CLOSE_AFTER_MINUTES);
+        for (Map.Entry<AuditRollupKey, Counter> entry : counters.entrySet()) {
+            if (entry.getKey().getBucketStart().isBefore(closedBefore)
+                    && counters.remove(entry.getKey(), entry.getValue())) {
+                // Removed before sealing, so a recorder that finds it sealed never finds it again
+                entry.getValue().seal();
+                retired.put(entry.getValue(), entry.getKey());
+            }
+        }
+        
+        Map<AuditRollupKey, Long> deltas = new HashMap<>();
+        Map<Counter, Long> totals = new IdentityHashMap<>();
+        counters.forEach((key, counter) -> collectDelta(key, counter, deltas, totals));
+        retired.forEach((counter, key) -> collectDelta(key, counter, deltas, totals));
+        
+        if (!deltas.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rollupRepository.addCounts(deltas));
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                log.warn("Failed to flush {} audit rollup counters, retrying with the next flush: {}",
+                        deltas.size(), e.getMessage());
+                return false;
+            }
+            totals.forEach((counter, total) -> counter.flushed = total);
+            flushes.increment();
+            rowsFlushed.add(deltas.size());
+        }
+        
+        // Sealed counters take no more records, so once flushed they are done
+        retired.keySet().removeIf(counter -> counter.total() == counter.flushed);
+        return true;
+    }
+    
+    private static void collectDelta(AuditRollupKey key, Counter counter,
+                                     Map<AuditRollupKey, Long> deltas, Map<Counter, Long> totals) {
+        long total = counter.total();
+        if (total > counter.flushed) {
+            // A closed minute can have both a retired counter and a new one
+            deltas.merge(key, total - counter.flushed, Long::sum);
+            totals.put(counter, total);
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", enabled);
+        report.put("recorded", recorded.sum());
+        report.put("counters", counters.size());
+        report.put("flushes", flushes.sum());
+        report.put("rowsFlushed", rowsFlushed.sum());
+        report.put("flushFailures", flushFailures.sum());
+        return report;
+    }
+}
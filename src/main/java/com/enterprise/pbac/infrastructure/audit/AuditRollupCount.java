@@ -0,0 +1,14 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Number of decisions recorded in a rollup bucket.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AuditRollupCount {
+    private final AuditRollupKey key;
+    private final long count;
+}
@@ -0,0 +1,22 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Identifies one rollup bucket: the decisions for a resource and action within one bucket of time.
+ */
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class AuditRollupKey {
+    private final LocalDateTime bucketStart;
+    private final String resource;
+    private final String action;
+    private final AuthorizationDecision decision;
+}
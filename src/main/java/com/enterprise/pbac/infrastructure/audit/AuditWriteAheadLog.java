@@ -0,0 +1,458 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of audit records in fixed-size memory-mapped segment files.
+ *
+ * Records are appended to the active segment {@code audit-<sequence>.open}. Sealing forces it to
+ * disk and renames it to {@code audit-<sequence>.seg}; sealed segments are immutable and are the
+ * only ones read back. Each segment starts with a 16 byte header (magic, format version, sequence)
+ * followed by frames of length (int32) | CRC32C of payload (int32) | payload. The unwritten tail of
+ * a segment is zero, so a zero length marks the end of the data. A frame failing its checksum is
+ * skipped when readable frames follow it and otherwise taken as the record torn by a crash. On
+ * startup, segments left open by a crash are sealed as they are. The directory is forced after
+ * every file creation and rename, so a segment and its name survive a power failure together.
+ *
+ * A record is in the page cache once {@link #append} returns and survives a process crash; it is
+ * on disk once {@link #awaitDurable} for its position returns. Concurrent waiters share one force
+ * (group commit): whoever finds no force running forces everything appended so far, and the others
+ * wait for it, so the number of forces does not grow with the number of appends.
+ */
+@Slf4j
+final class AuditWriteAheadLog implements Closeable {
+    
+    static final int HEADER_SIZE = 16;
+    
+    private static final int MAGIC = 0x50424157;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int FRAME_OVERHEAD = 8;
+    private static final String OPEN_SUFFIX = ".open";
+    private static final String SEALED_SUFFIX = ".seg";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.(open|seg)");
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    
+    // Guarded by lock
+    private long nextSequence;
+    private long activeSequence;
+    private MappedByteBuffer active;
+    private int writePosition;
+    private long activeOpenedAtNanos;
+    private long appended;
+    private long appendedBytes;
+    private long sealed;
+    
+    // Guarded by syncLock
+    private long durable;
+    private boolean syncing;
+    private long syncs;
+    
+    /**
+     * Opens the log in the directory, sealing any segment left open by a previous process.
+     *
+     * @param minSequence lowest sequence number to give a new segment, so numbering never goes
+     *                    back past segments that were already shipped and deleted
+     */
+    AuditWriteAheadLog(Path directory, int segmentSize, long minSequence) throws IOException {
+        if (segmentSize < 64 * 1024) {
+            throw new IllegalArgumentException("Audit segment size must be at least 64 KiB");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        
+        long highest = minSequence - 1;
+        List<Path> leftOpen = listSegments(OPEN_SUFFIX);
+        for (Path segment : leftOpen) {
+            log.warn("Sealing audit segment {} left open by a previous run", segment.getFileName());
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                // Whatever reached the page cache before a process crash is made durable before sealing
+                channel.force(true);
+            }
+            Files.move(segment, segmentPath(sequenceOf(segment), SEALED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        }
+        if (!leftOpen.isEmpty()) {
+            syncDirectory(directory);
+        }
+        for (Path segment : listSegments(SEALED_SUFFIX)) {
+            highest = Math.max(highest, sequenceOf(segment));
+        }
+        this.nextSequence = highest + 1;
+    }
+    
+    /**
+     * Appends one record, rolling over to a new segment when the active one is full.
+     *
+     * @return the record's position in the log, to pass to {@link #awaitDurable}
+     */
+    long append(byte[] payload) throws IOException {
+        int frameLength = FRAME_OVERHEAD + payload.length;
+        if (frameLength > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Audit record of " + payload.length + " bytes exceeds the segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int checksum = (int) crc.getValue();
+        
+        lock.lock();
+        try {
+            if (active != null && writePosition + frameLength > segmentSize) {
+                sealActive();
+            }
+            if (active == null) {
+                openNext();
+            }
+            active.put(writePosition + FRAME_OVERHEAD, payload);
+            active.putInt(writePosition + 4, checksum);
+            // Length goes last: a reader that sees it also sees the payload
+            active.putInt(writePosition, payload.length);
+            writePosition += frameLength;
+            appendedBytes += frameLength;
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Returns once the record at the given position, and every record before it, is on disk.
+     * Forces the log itself unless another thread's force already covers the position.
+     */
+    void awaitDurable(long position) throws IOException {
+        syncLock.lock();
+        try {
+            while (durable < position) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long reached = durable;
+                syncLock.unlock();
+                try {
+                    reached = force();
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    durable = Math.max(durable, reached);
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    /**
+     * Forces records appended so far to disk. Appends continue while the pages are written.
+     */
+    void sync() throws IOException {
+        long position;
+        lock.lock();
+        try {
+            position = appended;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(position);
+    }
+    
+    /**
+     * Forces the active segment and returns the position it covers. Earlier segments were forced
+     * when they were sealed.
+     */
+    private long force() {
+        MappedByteBuffer buffer;
+        long position;
+        lock.lock();
+        try {
+            buffer = active;
+            position = appended;
+        } finally {
+            lock.unlock();
+        }
+        if (buffer != null) {
+            buffer.force();
+        }
+        syncLock.lock();
+        try {
+            syncs++;
+        } finally {
+            syncLock.unlock();
+        }
+        return position;
+    }
+    
+    /**
+     * Seals the active segment if it holds records and was opened at least {@code maxAgeNanos} ago,
+     * so that records become shippable even when traffic is too low to fill a segment.
+     */
+    boolean sealIfOlderThan(long maxAgeNanos) throws IOException {
+        lock.lock();
+        try {
+            if (active == null || writePosition == HEADER_SIZE || System.nanoTime() - activeOpenedAtNanos < maxAgeNanos) {
+                return false;
+            }
+            sealActive();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the sealed segments in sequence order.
+     */
+    List<Path> sealedSegments() throws IOException {
+        return listSegments(SEALED_SUFFIX);
+    }
+    
+    static long sequenceOf(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not an audit segment: " + segment);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+    
+    /**
+     * Opens a sealed segment for reading, positioned at the given offset.
+     */
+    static SegmentReader read(Path segment, int fromOffset) throws IOException {
+        return new SegmentReader(segment, fromOffset);
+    }
+    
+    long getAppended() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    long getAppendedBytes() {
+        lock.lock();
+        try {
+            return appendedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    long getSealed() {
+        lock.lock();
+        try {
+            return sealed;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    long getSyncs() {
+        syncLock.lock();
+        try {
+            return syncs;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    /**
+     * Forces a directory's entries (file creations, renames and deletions) to disk.
+     * Platforms that cannot open a directory for this, such as Windows, are skipped.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            log.debug("Cannot open {} to force directory entries: {}", directory, e.getMessage());
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+    
+    /**
+     * Seals the active segment. Records appended afterwards go to a new segment, which the next
+     * process seals on startup.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (active != null) {
+                sealActive();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void openNext() throws IOException {
+        long sequence = nextSequence;
+        Path path = segmentPath(sequence, OPEN_SUFFIX);
+        MappedByteBuffer buffer;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            // Sparse on most filesystems: only pages actually written take space
+            file.setLength(segmentSize);
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.putInt(0, MAGIC);
+            buffer.put(4, FORMAT_VERSION);
+            buffer.putLong(8, sequence);
+            // Header and file size, then the new name, so later forces of the mapping alone suffice
+            file.getChannel().force(true);
+        }
+        syncDirectory(directory);
+        nextSequence = sequence + 1;
+        activeSequence = sequence;
+        active = buffer;
+        writePosition = HEADER_SIZE;
+        activeOpenedAtNanos = System.nanoTime();
+    }
+    
+    private void sealActive() throws IOException {
+        Path openPath = segmentPath(activeSequence, OPEN_SUFFIX);
+        active.force();
+        active = null;
+        if (writePosition == HEADER_SIZE) {
+            Files.delete(openPath);
+            return;
+        }
+        Files.move(openPath, segmentPath(activeSequence, SEALED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(directory);
+        sealed++;
+    }
+    
+    private Path segmentPath(long sequence, String suffix) {
+        return directory.resolve(String.format("audit-%020d%s", sequence, suffix));
+    }
+    
+    private List<Path> listSegments(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .forEach(segments::add);
+            segments.sort(Comparator.comparingLong(AuditWriteAheadLog::sequenceOf));
+            return segments;
+        }
+    }
+    
+    /**
+     * Forward-only reader over the records of a sealed segment.
+     */
+    static final class SegmentReader implements Closeable {
+        
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final boolean corrupt;
+        private int position;
+        private boolean torn;
+        private int skippedFrames;
+        
+        private SegmentReader(Path segment, int fromOffset) throws IOException {
+            this.channel = FileChannel.open(segment, StandardOpenOption.READ);
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            boolean valid = buffer.limit() >= HEADER_SIZE
+                    && buffer.getInt(0) == MAGIC
+                    && buffer.get(4) == FORMAT_VERSION;
+            // A crash between creating a segment and writing its header leaves only zeros
+            this.corrupt = !valid && buffer.limit() >= 4 && buffer.getInt(0) != 0;
+            this.position = valid ? Math.max(HEADER_SIZE, fromOffset) : buffer.limit();
+        }
+        
+        /**
+         * Gets the next record's payload, or null at the end of the segment's data. Frames failing
+         * their checksum are skipped while readable frames follow them; see {@link #getSkippedFrames}.
+         */
+        ByteBuffer next() {
+            while (position + FRAME_OVERHEAD <= buffer.limit()) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    return null;
+                }
+                int frameEnd = position + FRAME_OVERHEAD + length;
+                if (length < 0 || frameEnd > buffer.limit()) {
+                    // No way to find the next frame
+                    torn = true;
+                    return null;
+                }
+                ByteBuffer payload = buffer.slice(position + FRAME_OVERHEAD, length);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() == buffer.getInt(position + 4)) {
+                    position = frameEnd;
+                    return payload;
+                }
+                if (frameEnd + FRAME_OVERHEAD > buffer.limit() || buffer.getInt(frameEnd) == 0) {
+                    // Nothing after it: the record being written when the process died
+                    torn = true;
+                    return null;
+                }
+                // Damaged in place, with more records behind it
+                skippedFrames++;
+                position = frameEnd;
+            }
+            return null;
+        }
+        
+        /**
+         * Offset of the next unread record.
+         */
+        int position() {
+            return position;
+        }
+        
+        /**
+         * Whether reading stopped at a partially written or unreadable frame rather than the end of the data.
+         */
+        boolean isTorn() {
+            return torn;
+        }
+        
+        /**
+         * Gets the number of frames skipped so far because their checksum did not match.
+         */
+        int getSkippedFrames() {
+            return skippedFrames;
+        }
+        
+        /**
+         * Whether the file does not start with a segment header.
+         */
+        boolean isCorrupt() {
+            return corrupt;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.infrastructure.repository.AuditLogBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audit sink that makes records durable in a local {@link AuditWriteAheadLog} before they reach
+ * PostgreSQL, so no acknowledged record is lost if the process crashes or the database is down.
+ *
+ * Submitting appends to the memory-mapped active segment and, with the default
+ * {@code sync-interval-ms} of 0, waits until the record is forced to disk; concurrent submits share
+ * one force. A positive interval acknowledges once the record is in the page cache and forces
+ * every interval instead, trading the last interval's records on power loss for latency. A
+ * background task seals the active segment once it is {@code seal-interval-ms} old; a shipper task
+ * loads sealed segments into audit_logs in batches. After each batch the shipper durably records a
+ * checkpoint (segment, offset), and fully shipped segments are deleted. Inserts skip ids that
+ * already exist, so re-shipping the batch that was in flight during a crash does not duplicate rows.
+ *
+ * Damaged data never stops shipping: frames failing their checksum are skipped, and records that
+ * cannot be decoded are copied to {@code quarantine/} for inspection, both with an error logged.
+ */
+@Component
+@ConditionalOnProperty(name = "pbac.audit.sink", havingValue = "wal")
+@Slf4j
+public class WalAuditSink implements AuditRecordSink {
+    
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String QUARANTINE_DIRECTORY = "quarantine";
+    
+    private final AuditLogBatchRepository batchRepository;
+    private final AuditRollupAggregator rollupAggregator;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final AuditWriteAheadLog wal;
+    private final boolean syncBeforeAck;
+    private final int shipBatchSize;
+    private final long sealIntervalNanos;
+    private final long shutdownTimeoutMs;
+    private final ScheduledExecutorService scheduler;
+    private final Object shipLock = new Object();
+    
+    // Written only under shipLock
+    private volatile long checkpointSegment;
+    private volatile int checkpointOffset;
+    
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder shipped = new LongAdder();
+    private final LongAdder shipBatches = new LongAdder();
+    private final LongAdder shipFailures = new LongAdder();
+    private final LongAdder tornRecords = new LongAdder();
+    private final LongAdder corruptFrames = new LongAdder();
+    private final LongAdder quarantined = new LongAdder();
+    private final LongAdder fallbackWrites = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    
+    public WalAuditSink(AuditLogBatchRepository batchRepository,
+                        AuditRollupAggregator rollupAggregator,
+                        ObjectMapper objectMapper,
+                        @Value("${pbac.audit.wal.directory:data/audit-wal}") String directory,
+                        @Value("${pbac.audit.wal.segment-size-bytes:16777216}") int segmentSizeBytes,
+                        @Value("${pbac.audit.wal.sync-interval-ms:0}") long syncIntervalMs,
+                        @Value("${pbac.audit.wal.seal-interval-ms:1000}") long sealIntervalMs,
+                        @Value("${pbac.audit.wal.ship-interval-ms:500}") long shipIntervalMs,
+                        @Value("${pbac.audit.wal.ship-batch-size:1000}") int shipBatchSize,
+                        @Value("${pbac.audit.wal.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) throws IOException {
+        this.batchRepository = batchRepository;
+        this.rollupAggregator = rollupAggregator;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.shipBatchSize = Math.max(1, shipBatchSize);
+        this.sealIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, sealIntervalMs));
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        
+        Files.createDirectories(this.directory);
+        loadCheckpoint();
+        this.wal = new AuditWriteAheadLog(this.directory, segmentSizeBytes, checkpointSegment);
+        // A sync interval of 0 forces every record to disk before submit returns
+        this.syncBeforeAck = syncIntervalMs <= 0;
+        
+        AtomicInteger threads = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "audit-wal-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long syncPeriodMs = syncIntervalMs > 0 ? syncIntervalMs : Math.max(1, sealIntervalMs);
+        scheduler.scheduleWithFixedDelay(this::syncAndSeal, syncPeriodMs, syncPeriodMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::shipPending, 0, Math.max(1, shipIntervalMs), TimeUnit.MILLISECONDS);
+        log.info("Audit write-ahead log opened in {}, shipping from segment {} offset {}",
+                this.directory, checkpointSegment, checkpointOffset);
+    }
+    
+    @Override
+    public void submit(AuditLog record) {
+        submitted.increment();
+        try {
+            long position = wal.append(AuditRecordCodec.encode(record));
+            if (syncBeforeAck) {
+                wal.awaitDurable(position);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The log is unusable (disk full, permissions); do not lose the record if the database is up.
+            // If the record did reach the log, shipping it later skips the id written here.
+            log.error("Failed to write audit record {} to the write-ahead log, writing directly: {}",
+                    record.getId(), e.getMessage());
+            writeSynchronously(record);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Audit write-ahead log tasks did not stop within {} ms", shutdownTimeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            log.error("Failed to seal the active audit segment: {}", e.getMessage());
+        }
+        // Best effort; anything left is shipped from the checkpoint on the next start
+        shipPending();
+        log.info("Audit write-ahead log closed, {} records shipped, {} segments pending",
+                shipped.sum(), pendingSegments());
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sink", "wal");
+        report.put("submitted", submitted.sum());
+        report.put("appended", wal.getAppended());
+        report.put("appendedBytes", wal.getAppendedBytes());
+        report.put("segmentsSealed", wal.getSealed());
+        report.put("segmentsPending", pendingSegments());
+        report.put("shipped", shipped.sum());
+        report.put("shipBatches", shipBatches.sum());
+        report.put("shipFailures", shipFailures.sum());
+        report.put("tornRecords", tornRecords.sum());
+        report.put("corruptFrames", corruptFrames.sum());
+        report.put("quarantined", quarantined.sum());
+        report.put("fallbackWrites", fallbackWrites.sum());
+        report.put("dropped", dropped.sum());
+        report.put("checkpoint", checkpointSegment + ":" + checkpointOffset);
+        return report;
+    }
+    
+    private void syncAndSeal() {
+        try {
+            wal.sync();
+            wal.sealIfOlderThan(sealIntervalNanos);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to sync the audit write-ahead log: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Ships every sealed segment from the checkpoint on. Stops at the first failure; the next run
+     * resumes from the last checkpoint.
+     */
+    private void shipPending() {
+        synchronized (shipLock) {
+            try {
+                for (Path segment : wal.sealedSegments()) {
+                    long sequence = AuditWriteAheadLog.sequenceOf(segment);
+                    if (sequence < checkpointSegment) {
+                        // Shipped before a crash prevented its deletion
+                        Files.deleteIfExists(segment);
+                        continue;
+                    }
+                    shipSegment(segment, sequence, sequence == checkpointSegment ? checkpointOffset : 0);
+                }
+            } catch (IOException | RuntimeException e) {
+                shipFailures.increment();
+                log.warn("Failed to ship audit segments, retrying from segment {} offset {}: {}",
+                        checkpointSegment, checkpointOffset, e.getMessage());
+            }
+        }
+    }
+    
+    private void shipSegment(Path segment, long sequence, int fromOffset) throws IOException {
+        try (AuditWriteAheadLog.SegmentReader reader = AuditWriteAheadLog.read(segment, fromOffset)) {
+            if (reader.isCorrupt()) {
+                Path quarantined = segment.resolveSibling(segment.getFileName() + ".corrupt");
+                log.error("Audit segment {} has no valid header, moved aside to {}", segment.getFileName(), quarantined);
+                Files.move(segment, quarantined, StandardCopyOption.ATOMIC_MOVE);
+                return;
+            }
+            List<AuditLog> batch = new ArrayList<>(shipBatchSize);
+            ByteBuffer payload;
+            while ((payload = reader.next()) != null) {
+                AuditLog record;
+                try {
+                    record = AuditRecordCodec.decode(payload.duplicate(), objectMapper);
+                } catch (RuntimeException e) {
+                    quarantine(segment, reader.position(), payload, e);
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() >= shipBatchSize) {
+                    insert(batch);
+                    saveCheckpoint(sequence, reader.position());
+                }
+            }
+            if (!batch.isEmpty()) {
+                insert(batch);
+            }
+            if (reader.getSkippedFrames() > 0) {
+                corruptFrames.add(reader.getSkippedFrames());
+                log.error("Audit segment {} has {} records failing their checksum after offset {}, skipped",
+                        segment.getFileName(), reader.getSkippedFrames(), fromOffset);
+            }
+            if (reader.isTorn()) {
+                tornRecords.increment();
+                log.warn("Audit segment {} ends with a partially written record at offset {}, ignored",
+                        segment.getFileName(), reader.position());
+            }
+        }
+        saveCheckpoint(sequence + 1, 0);
+        Files.delete(segment);
+    }
+    
+    /**
+     * Copies a record that checksums correctly but cannot be decoded (for example, written by a
+     * newer format) out of the log, so shipping continues and the record can still be recovered.
+     */
+    private void quarantine(Path segment, int endOffset, ByteBuffer payload, RuntimeException cause) throws IOException {
+        Path quarantineDirectory = Files.createDirectories(directory.resolve(QUARANTINE_DIRECTORY));
+        Path file = quarantineDirectory.resolve(
+                "audit-" + AuditWriteAheadLog.sequenceOf(segment) + "-" + endOffset + ".rec");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(payload.duplicate());
+            channel.force(true);
+        }
+        AuditWriteAheadLog.syncDirectory(quarantineDirectory);
+        quarantined.increment();
+        log.error("Audit record ending at offset {} of segment {} cannot be decoded, moved to {}: {}",
+                endOffset, segment.getFileName(), file, cause.toString());
+    }
+    
+    private void insert(List<AuditLog> batch) {
+        batchRepository.insertAll(batch);
+        rollupAggregator.recordAll(batch);
+        shipped.add(batch.size());
+        shipBatches.increment();
+        batch.clear();
+    }
+    
+    private void loadCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        String[] parts = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+        checkpointSegment = Long.parseLong(parts[0]);
+        checkpointOffset = Integer.parseInt(parts[1]);
+    }
+    
+    /**
+     * Records that everything before the offset in the segment is in the database. Written to a
+     * temporary file, forced and atomically renamed, so a crash leaves either checkpoint intact.
+     */
+    private void saveCheckpoint(long segment, int offset) throws IOException {
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        byte[] content = (segment + " " + offset + "\n").getBytes(StandardCharsets.US_ASCII);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(content));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        AuditWriteAheadLog.syncDirectory(directory);
+        checkpointSegment = segment;
+        checkpointOffset = offset;
+    }
+    
+    private long pendingSegments() {
+        try {
+            return wal.sealedSegments().size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+    
+    private void writeSynchronously(AuditLog record) {
+        try {
+            batchRepository.insertAll(List.of(record));
+            rollupAggregator.record(record);
+            fallbackWrites.increment();
+        } catch (RuntimeException e) {
+            dropped.increment();
+            log.error("Failed to write audit record {}: {}", record.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.UUID;
+
+/**
+ * Invalidation message exchanged between nodes through the {@link CacheInvalidationBus}.
+ * Messages received from other nodes are re-published as application events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheInvalidation {
+    
+    public enum Type {
+        /** Cached applicable policies for one (resource, action) pair are stale. */
+        APPLICABLE_POLICIES,
+        /** A policy was created, updated or deleted; in-memory policy snapshots must refresh it. */
+        POLICY
+    }
+    
+    private Type type;
+    private String resource;
+    private String action;
+    private UUID policyId;
+    private String origin;
+    
+    public static CacheInvalidation applicablePolicies(String resource, String action) {
+        return CacheInvalidation.builder()
+                .type(Type.APPLICABLE_POLICIES)
+                .resource(resource)
+                .action(action)
+                .build();
+    }
+    
+    public static CacheInvalidation policy(UUID policyId) {
+        return CacheInvalidation.builder()
+                .type(Type.POLICY)
+                .policyId(policyId)
+                .build();
+    }
+}
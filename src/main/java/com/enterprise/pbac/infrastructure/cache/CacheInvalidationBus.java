@@ -0,0 +1,12 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+/**
+ * Broadcasts cache invalidations to the other nodes of the cluster.
+ *
+ * The publishing node applies an invalidation itself before publishing; implementations deliver
+ * messages from other nodes as {@link CacheInvalidation} application events and drop their own.
+ */
+public interface CacheInvalidationBus {
+    
+    void publish(CacheInvalidation invalidation);
+}
@@ -0,0 +1,34 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import java.util.List;
+
+/**
+ * Cached policy set for one (resource, action) pair, with the time it was loaded from the database.
+ * The load time travels with the set through Redis, so every node agrees on how old it is.
+ */
+public final class CachedPolicySet {
+    
+    private final List<CompiledPolicy> policies;
+    private final long loadedAtMillis;
+    
+    public CachedPolicySet(List<CompiledPolicy> policies, long loadedAtMillis) {
+        this.policies = List.copyOf(policies);
+        this.loadedAtMillis = loadedAtMillis;
+    }
+    
+    public List<CompiledPolicy> getPolicies() {
+        return policies;
+    }
+    
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+    
+    /**
+     * Whether this is a negative entry, i.e. no policies apply to the pair.
+     */
+    public boolean isEmpty() {
+        return policies.isEmpty();
+    }
+}
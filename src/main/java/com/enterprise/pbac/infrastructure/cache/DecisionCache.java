@@ -0,0 +1,134 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of authorization decisions.
+ *
+ * Entries are keyed by the user's attribute map, resource and action, plus the policy epoch at
+ * the time of evaluation. Bumping the epoch after a policy change makes every existing entry
+ * unreachable at once; the stale entries then age out through size-based eviction.
+ * Only decisions that depend on nothing but the user's attributes may be cached.
+ */
+@Component
+@Slf4j
+public class DecisionCache {
+    
+    private final boolean enabled;
+    private final Cache<DecisionKey, PolicyEvaluationResult> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    
+    public DecisionCache(@Value("${pbac.decision-cache.enabled:true}") boolean enabled,
+                         @Value("${pbac.decision-cache.max-size:100000}") long maxSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Gets the current policy epoch. Read it before looking up policies so a decision computed
+     * against an outdated policy set is never stored under a newer epoch.
+     */
+    public long currentEpoch() {
+        return epoch.get();
+    }
+    
+    public void bumpEpoch() {
+        long newEpoch = epoch.incrementAndGet();
+        log.debug("Decision cache epoch advanced to {}", newEpoch);
+    }
+    
+    public PolicyEvaluationResult get(long policyEpoch, AuthorizationContext context,
+                                      Supplier<PolicyEvaluationResult> evaluator) {
+        if (!enabled) {
+            return evaluator.get();
+        }
+        
+        DecisionKey key = new DecisionKey(policyEpoch, context.getUserAttributes(),
+                context.getResource(), context.getAction());
+        PolicyEvaluationResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        PolicyEvaluationResult result = evaluator.get();
+        // Store with a private copy of the attributes so later changes to the caller's map cannot alter the key
+        cache.put(key.detached(), result);
+        return result;
+    }
+    
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", enabled);
+        report.put("epoch", epoch.get());
+        report.put("size", cache.estimatedSize());
+        report.put("hits", stats.hitCount());
+        report.put("misses", stats.missCount());
+        report.put("hitRate", stats.hitRate());
+        report.put("evictions", stats.evictionCount());
+        return report;
+    }
+    
+    private static final class DecisionKey {
+        private final long epoch;
+        private final Map<String, String> attributes;
+        private final String resource;
+        private final String action;
+        private final int hash;
+        
+        private DecisionKey(long epoch, Map<String, String> attributes, String resource, String action) {
+            this(epoch, attributes == null ? Map.of() : attributes, resource, action,
+                    Objects.hash(epoch, attributes == null ? Map.of() : attributes, resource, action));
+        }
+        
+        private DecisionKey(long epoch, Map<String, String> attributes, String resource, String action, int hash) {
+            this.epoch = epoch;
+            this.attributes = attributes;
+            this.resource = resource;
+            this.action = action;
+            this.hash = hash;
+        }
+        
+        private DecisionKey detached() {
+            return new DecisionKey(epoch, Collections.unmodifiableMap(new HashMap<>(attributes)), resource, action, hash);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey that = (DecisionKey) other;
+            return epoch == that.epoch
+                    && hash == that.hash
+                    && Objects.equals(resource, that.resource)
+                    && Objects.equals(action, that.action)
+                    && attributes.equals(that.attributes);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
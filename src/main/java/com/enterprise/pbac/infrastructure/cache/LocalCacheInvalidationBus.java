@@ -0,0 +1,20 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidation bus for single-node deployments and tests without Redis pub/sub.
+ * Every cache lives in this JVM and is invalidated by the publisher itself, so there is nobody to notify.
+ */
+@Component
+@ConditionalOnProperty(name = "pbac.policy-cache.invalidation", havingValue = "local")
+@Slf4j
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+    
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        log.debug("Cache invalidation applied locally: {}", invalidation);
+    }
+}
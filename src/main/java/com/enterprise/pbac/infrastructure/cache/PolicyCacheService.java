@@ -1,71 +1,268 @@
 package com.enterprise.pbac.infrastructure.cache;
 
-import com.enterprise.pbac.domain.entity.Policy;
-import lombok.RequiredArgsConstructor;
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import java.time.Clock;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
- * Redis-based caching service for policies to improve evaluation performance.
+ * Two-tier caching service for policies to improve evaluation performance.
+ *
+ * A bounded in-process L1 (W-TinyLFU eviction) sits in front of Redis as L2, so repeated
+ * lookups skip both the network hop and deserialization. Invalidations are applied locally
+ * and broadcast through the {@link CacheInvalidationBus} so other nodes drop their L1 entries.
+ *
+ * Neither tier is authoritative: snapshot builds use a cached set only after checking it against the
+ * committed policy versions, and the evaluation engine's snapshot, not this cache, serves authorization
+ * reads. Staleness of that snapshot is bounded by {@code PolicyIndexService#reconcile}, not by the TTLs here.
+ *
+ * Policy sets are cached in compiled form: Redis holds them in the compact {@link PolicySetCodec}
+ * format and L1 holds the decoded {@link CompiledPolicy} lists, ready for evaluation.
+ *
+ * Misses are loaded through {@link #getOrLoad}, which lets a single caller per key query the
+ * database while concurrent callers wait for its result. Empty sets are cached as negative
+ * entries with their own, shorter TTL, and Redis TTLs are jittered so keys written together
+ * do not all expire together.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PolicyCacheService {
     
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final PolicySetCodec codec;
+    private final CacheInvalidationBus invalidationBus;
+    private final Clock clock;
+    private final Cache<String, CachedPolicySet> localCache;
+    private final Map<String, CompletableFuture<List<CompiledPolicy>>> inFlightLoads = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final long negativeTtlSeconds;
+    private final double ttlJitter;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
     private static final String CACHE_KEY_PREFIX = "policies:";
     private static final long CACHE_TTL_MINUTES = 30;
     
-    public void cacheApplicablePolicies(String resource, String action, List<Policy> policies) {
-        String cacheKey = buildCacheKey(resource, action);
+    public PolicyCacheService(RedisTemplate<String, byte[]> redisTemplate,
+                              PolicySetCodec codec,
+                              CacheInvalidationBus invalidationBus,
+                              Clock clock,
+                              @Value("${pbac.policy-cache.local.max-size:10000}") long localMaxSize,
+                              @Value("${pbac.policy-cache.local.ttl-seconds:60}") long localTtlSeconds,
+                              @Value("${pbac.policy-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                              @Value("${pbac.policy-cache.ttl-jitter:0.1}") double ttlJitter) {
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.invalidationBus = invalidationBus;
+        this.clock = clock;
+        this.negativeTtlSeconds = negativeTtlSeconds;
+        this.ttlJitter = Math.max(0, Math.min(ttlJitter, 1));
+        
+        // The local TTL limits how long an entry missed by a lost invalidation is offered to snapshot builds,
+        // which check it against the database before using it
+        long localTtlNanos = TimeUnit.SECONDS.toNanos(localTtlSeconds);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(Math.min(localTtlSeconds, negativeTtlSeconds));
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfter(new Expiry<String, CachedPolicySet>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPolicySet value, long currentTime) {
+                        return value.isEmpty() ? negativeTtlNanos : localTtlNanos;
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPolicySet value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, CachedPolicySet value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Gets the cached policy set, or loads it with the given loader and caches it.
+     *
+     * Concurrent misses for the same key on this node share one load: the first caller runs the
+     * loader and the others block until it finishes, receiving its result or its exception.
+     */
+    public List<CompiledPolicy> getOrLoad(String resource, String action, Supplier<List<CompiledPolicy>> loader) {
+        CachedPolicySet cached = getEntry(resource, action);
+        if (cached != null) {
+            return cached.getPolicies();
+        }
+        
+        String localKey = buildLocalKey(resource, action);
+        CompletableFuture<List<CompiledPolicy>> load = new CompletableFuture<>();
+        CompletableFuture<List<CompiledPolicy>> running = inFlightLoads.putIfAbsent(localKey, load);
+        if (running != null) {
+            coalescedLoads.increment();
+            return await(running);
+        }
         
         try {
-            redisTemplate.opsForValue().set(
-                    cacheKey,
-                    policies,
-                    CACHE_TTL_MINUTES,
-                    TimeUnit.MINUTES
-            );
-            log.debug("Policies cached for {}:{}", resource, action);
-        } catch (Exception e) {
-            log.warn("Failed to cache policies: {}", e.getMessage());
+            // A load that finished between our miss and claiming the key has already filled L1
+            CachedPolicySet loaded = localCache.getIfPresent(localKey);
+            List<CompiledPolicy> policies = loaded != null ? loaded.getPolicies() : load(resource, action, loader);
+            load.complete(policies);
+            return policies;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(localKey, load);
         }
     }
     
-    @SuppressWarnings("unchecked")
-    public List<Policy> getApplicablePolicies(String resource, String action) {
-        String cacheKey = buildCacheKey(resource, action);
+    public void cacheApplicablePolicies(String resource, String action, List<CompiledPolicy> policies) {
+        CachedPolicySet policySet = new CachedPolicySet(policies, clock.millis());
+        localCache.put(buildLocalKey(resource, action), policySet);
         
         try {
-            return (List<Policy>) redisTemplate.opsForValue().get(cacheKey);
+            byte[] payload = codec.encode(policySet);
+            redisTemplate.opsForValue().set(
+                    buildCacheKey(resource, action),
+                    payload,
+                    policySet.isEmpty() ? negativeTtlSeconds : jitteredTtlSeconds(),
+                    TimeUnit.SECONDS
+            );
+            log.debug("Policies cached for {}:{} ({} bytes)", resource, action, payload.length);
         } catch (Exception e) {
-            log.warn("Failed to retrieve policies from cache: {}", e.getMessage());
-            return null;
+            log.warn("Failed to cache policies: {}", e.getMessage());
         }
     }
     
     public void invalidateApplicablePoliciesCache(String resource, String action) {
-        String cacheKey = buildCacheKey(resource, action);
+        invalidationSequence.incrementAndGet();
+        localCache.invalidate(buildLocalKey(resource, action));
         
         try {
-            redisTemplate.delete(cacheKey);
+            redisTemplate.delete(buildCacheKey(resource, action));
             log.debug("Policy cache invalidated for {}:{}", resource, action);
         } catch (Exception e) {
             log.warn("Failed to invalidate cache: {}", e.getMessage());
         }
+        invalidationBus.publish(CacheInvalidation.applicablePolicies(resource, action));
     }
     
-    public void invalidateAllCache() {
+    /**
+     * Drops L1 entries invalidated on another node; Redis was already updated by the sender.
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.getType() == CacheInvalidation.Type.APPLICABLE_POLICIES) {
+            invalidationSequence.incrementAndGet();
+            localCache.invalidate(buildLocalKey(invalidation.getResource(), invalidation.getAction()));
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        CacheStats stats = localCache.stats();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("localSize", localCache.estimatedSize());
+        report.put("localHits", stats.hitCount());
+        report.put("localMisses", stats.missCount());
+        report.put("localHitRate", stats.hitRate());
+        report.put("localEvictions", stats.evictionCount());
+        report.put("negativeHits", negativeHits.sum());
+        report.put("loads", loads.sum());
+        report.put("coalescedLoads", coalescedLoads.sum());
+        return report;
+    }
+    
+    private CachedPolicySet getEntry(String resource, String action) {
+        String localKey = buildLocalKey(resource, action);
+        
+        CachedPolicySet local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            if (local.isEmpty()) {
+                negativeHits.increment();
+            }
+            return local;
+        }
+        
         try {
-            redisTemplate.getConnectionFactory().getConnection().flushAll();
-            log.info("All policy cache cleared");
+            // Payloads from another format version decode to null and are reloaded as a miss
+            CachedPolicySet shared = codec.decode(redisTemplate.opsForValue()
+                    .get(buildCacheKey(resource, action)));
+            if (shared != null) {
+                localCache.put(localKey, shared);
+            }
+            return shared;
         } catch (Exception e) {
-            log.warn("Failed to clear all cache: {}", e.getMessage());
+            log.warn("Failed to retrieve policies from cache: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Runs the loader and caches its result, unless the key was invalidated while it ran.
+     */
+    private List<CompiledPolicy> load(String resource, String action, Supplier<List<CompiledPolicy>> loader) {
+        long sequence = invalidationSequence.get();
+        loads.increment();
+        List<CompiledPolicy> policies = List.copyOf(loader.get());
+        if (sequence == invalidationSequence.get()) {
+            cacheApplicablePolicies(resource, action, policies);
+        } else {
+            // The result may predate the change that caused the invalidation, so do not cache it
+            log.debug("Policy cache invalidated during load of {}:{}, result not cached", resource, action);
         }
+        return policies;
+    }
+    
+    private List<CompiledPolicy> await(CompletableFuture<List<CompiledPolicy>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Spreads the Redis TTL by up to ±ttlJitter so keys cached at the same moment expire at different times.
+     */
+    private long jitteredTtlSeconds() {
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds(CACHE_TTL_MINUTES);
+        long spread = (long) (ttlSeconds * ttlJitter);
+        if (spread == 0) {
+            return ttlSeconds;
+        }
+        return ttlSeconds + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+    }
+    
+    private String buildLocalKey(String resource, String action) {
+        return resource + ":" + action;
     }
     
     private String buildCacheKey(String resource, String action) {
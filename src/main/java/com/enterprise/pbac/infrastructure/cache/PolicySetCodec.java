@@ -0,0 +1,409 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.condition.impl.ConstantCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.ContextAttributeCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.IpRangeCondition;
+import com.enterprise.pbac.domain.engine.condition.impl.TimeRangeCondition;
+import com.enterprise.pbac.domain.engine.network.IpPrefix;
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import com.enterprise.pbac.domain.engine.subject.SubjectMatcher;
+import com.enterprise.pbac.domain.engine.subject.impl.AttributeSubjectMatcher;
+import com.enterprise.pbac.domain.engine.subject.impl.WildcardSubjectMatcher;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of cached policy sets.
+ *
+ * Sets are stored in their compiled form (subject constraints and conditions), so a cache hit
+ * decodes straight into {@link CompiledPolicy} instances without entities, JSON or recompiling.
+ *
+ * Layout (integers are unsigned LEB128 varints unless noted):
+ * <pre>
+ * magic (1 byte) | format version (1 byte) | body length | body
+ * body:   loaded-at epoch millis | string count, strings (byte length + UTF-8) | policy count, policies
+ * policy: record length | flags (1 byte) | [id: 2 x int64] | name | effect (1 byte) | priority (zigzag)
+ *         | resource | action | [version: epoch second (zigzag), nano] | subject | conditions
+ * </pre>
+ * Strings are written once per set and referenced by table index + 1 (0 is null), so repeated
+ * resources, actions and attribute keys cost one byte each and decode to shared instances.
+ * Payloads with another magic or format version decode to null and are treated as cache misses.
+ */
+@Component
+public class PolicySetCodec {
+    
+    /**
+     * Version 2 added the time the set was loaded from the database.
+     */
+    public static final byte FORMAT_VERSION = 2;
+    
+    private static final byte MAGIC = 0x50;
+    
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_HAS_ID = 1 << 1;
+    private static final int FLAG_HAS_VERSION = 1 << 2;
+    
+    private static final byte CONDITION_CONSTANT = 1;
+    private static final byte CONDITION_CONTEXT = 2;
+    private static final byte CONDITION_IP_RANGE = 3;
+    private static final byte CONDITION_TIME_RANGE = 4;
+    
+    /**
+     * Encodes a policy set.
+     *
+     * @throws IllegalArgumentException if a policy uses a condition type this format cannot carry
+     */
+    public byte[] encode(CachedPolicySet policySet) {
+        Collection<CompiledPolicy> policies = policySet.getPolicies();
+        StringTable strings = new StringTable();
+        Output records = new Output();
+        records.writeVarInt(policies.size());
+        for (CompiledPolicy policy : policies) {
+            Output record = new Output();
+            writePolicy(record, policy, strings);
+            records.writeVarInt(record.size());
+            records.writeBytes(record);
+        }
+        
+        Output body = new Output();
+        body.writeVarLong(policySet.getLoadedAtMillis());
+        body.writeVarInt(strings.values.size());
+        for (String value : strings.values) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            body.writeVarInt(utf8.length);
+            body.write(utf8, 0, utf8.length);
+        }
+        body.writeBytes(records);
+        
+        Output payload = new Output();
+        payload.write(MAGIC);
+        payload.write(FORMAT_VERSION);
+        payload.writeVarInt(body.size());
+        payload.writeBytes(body);
+        return payload.toByteArray();
+    }
+    
+    /**
+     * Decodes a policy set, or returns null if the payload was written in another format version.
+     *
+     * @throws IllegalArgumentException if the payload is truncated or malformed
+     */
+    public CachedPolicySet decode(byte[] payload) {
+        if (payload == null || payload.length < 2 || payload[0] != MAGIC || payload[1] != FORMAT_VERSION) {
+            return null;
+        }
+        
+        Input input = new Input(payload, 2);
+        int bodyLength = input.readVarInt();
+        if (bodyLength != input.remaining()) {
+            throw new IllegalArgumentException("Policy set length mismatch: expected " + bodyLength
+                    + " bytes, found " + input.remaining());
+        }
+        
+        long loadedAtMillis = input.readVarLong();
+        String[] strings = new String[input.readVarInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUtf8(input.readVarInt());
+        }
+        
+        int count = input.readVarInt();
+        List<CompiledPolicy> policies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int recordEnd = input.readVarInt() + input.position;
+            policies.add(readPolicy(input, strings));
+            if (input.position != recordEnd) {
+                throw new IllegalArgumentException("Policy record length mismatch at offset " + input.position);
+            }
+        }
+        return new CachedPolicySet(policies, loadedAtMillis);
+    }
+    
+    private void writePolicy(Output out, CompiledPolicy policy, StringTable strings) {
+        int flags = (policy.isActive() ? FLAG_ACTIVE : 0)
+                | (policy.getId() != null ? FLAG_HAS_ID : 0)
+                | (policy.getVersion() != null ? FLAG_HAS_VERSION : 0);
+        out.write(flags);
+        if (policy.getId() != null) {
+            out.writeLong(policy.getId().getMostSignificantBits());
+            out.writeLong(policy.getId().getLeastSignificantBits());
+        }
+        out.writeVarInt(strings.ref(policy.getName()));
+        out.write(policy.getEffect() == null ? 0 : policy.getEffect().ordinal() + 1);
+        out.writeZigZag(policy.getPriority());
+        out.writeVarInt(strings.ref(policy.getResource()));
+        out.writeVarInt(strings.ref(policy.getAction()));
+        if (policy.getVersion() != null) {
+            out.writeZigZag(policy.getVersion().toEpochSecond(ZoneOffset.UTC));
+            out.writeVarInt(policy.getVersion().getNano());
+        }
+        
+        List<AttributeConstraint> constraints = policy.getSubjectMatcher().getConstraints();
+        out.writeVarInt(constraints.size());
+        for (AttributeConstraint constraint : constraints) {
+            out.writeVarInt(strings.ref(constraint.getKey()));
+            out.write(constraint.getKind().ordinal());
+            out.writeVarInt(constraint.getValues().size());
+            for (String value : constraint.getValues()) {
+                out.writeVarInt(strings.ref(value));
+            }
+        }
+        
+        List<Condition> conditions = policy.getConditions().getConditions();
+        out.writeVarInt(conditions.size());
+        for (Condition condition : conditions) {
+            writeCondition(out, condition, strings);
+        }
+    }
+    
+    private void writeCondition(Output out, Condition condition, StringTable strings) {
+        if (condition instanceof ConstantCondition) {
+            ConstantCondition constant = (ConstantCondition) condition;
+            out.write(CONDITION_CONSTANT);
+            out.write(constant.isResult() ? 1 : 0);
+            out.writeVarInt(strings.ref(constant.getLabel()));
+        } else if (condition instanceof ContextAttributeCondition) {
+            ContextAttributeCondition context = (ContextAttributeCondition) condition;
+            out.write(CONDITION_CONTEXT);
+            out.writeVarInt(strings.ref(context.getKey()));
+            out.writeVarInt(strings.ref(context.getExpectedValue()));
+        } else if (condition instanceof IpRangeCondition) {
+            List<IpPrefix> ranges = ((IpRangeCondition) condition).getAllowedRanges();
+            out.write(CONDITION_IP_RANGE);
+            out.writeVarInt(ranges.size());
+            for (IpPrefix range : ranges) {
+                out.writeVarInt(strings.ref(range.toString()));
+            }
+        } else if (condition instanceof TimeRangeCondition) {
+            TimeRangeCondition timeRange = (TimeRangeCondition) condition;
+            int days = 0;
+            for (DayOfWeek day : timeRange.getDays()) {
+                days |= 1 << day.ordinal();
+            }
+            out.write(CONDITION_TIME_RANGE);
+            out.writeVarLong(timeRange.getStartTime().toNanoOfDay());
+            out.writeVarLong(timeRange.getEndTime().toNanoOfDay());
+            out.write(days);
+            out.writeVarInt(strings.ref(timeRange.getZone().getId()));
+        } else {
+            throw new IllegalArgumentException("Unsupported condition type: " + condition.getClass().getSimpleName());
+        }
+    }
+    
+    private CompiledPolicy readPolicy(Input in, String[] strings) {
+        int flags = in.readByte();
+        UUID id = (flags & FLAG_HAS_ID) != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+        String name = in.readString(strings);
+        int effect = in.readByte();
+        int priority = (int) in.readZigZag();
+        String resource = in.readString(strings);
+        String action = in.readString(strings);
+        LocalDateTime version = null;
+        if ((flags & FLAG_HAS_VERSION) != 0) {
+            long epochSecond = in.readZigZag();
+            version = LocalDateTime.ofEpochSecond(epochSecond, in.readVarInt(), ZoneOffset.UTC);
+        }
+        
+        int constraintCount = in.readVarInt();
+        List<AttributeConstraint> constraints = new ArrayList<>(constraintCount);
+        for (int i = 0; i < constraintCount; i++) {
+            constraints.add(readConstraint(in, strings));
+        }
+        SubjectMatcher subjectMatcher = constraints.isEmpty()
+                ? WildcardSubjectMatcher.INSTANCE
+                : new AttributeSubjectMatcher(constraints);
+        
+        int conditionCount = in.readVarInt();
+        List<Condition> conditions = new ArrayList<>(conditionCount);
+        for (int i = 0; i < conditionCount; i++) {
+            conditions.add(readCondition(in, strings));
+        }
+        
+        return new CompiledPolicy(id, name, effect == 0 ? null : PolicyEffect.values()[effect - 1], priority,
+                resource, action, (flags & FLAG_ACTIVE) != 0, version, subjectMatcher, ConditionChain.of(conditions));
+    }
+    
+    private AttributeConstraint readConstraint(Input in, String[] strings) {
+        String key = in.readString(strings);
+        AttributeConstraint.Kind kind = AttributeConstraint.Kind.values()[in.readByte()];
+        int valueCount = in.readVarInt();
+        Set<String> values = new LinkedHashSet<>(valueCount * 2);
+        for (int i = 0; i < valueCount; i++) {
+            values.add(in.readString(strings));
+        }
+        switch (kind) {
+            case WILDCARD:
+                return AttributeConstraint.wildcard(key);
+            case EXACT:
+                return AttributeConstraint.exact(key, values.iterator().next());
+            default:
+                return AttributeConstraint.valueSet(key, values);
+        }
+    }
+    
+    private Condition readCondition(Input in, String[] strings) {
+        byte type = (byte) in.readByte();
+        switch (type) {
+            case CONDITION_CONSTANT:
+                return new ConstantCondition(in.readByte() != 0, in.readString(strings));
+            case CONDITION_CONTEXT:
+                return new ContextAttributeCondition(in.readString(strings), in.readString(strings));
+            case CONDITION_IP_RANGE:
+                int rangeCount = in.readVarInt();
+                List<IpPrefix> ranges = new ArrayList<>(rangeCount);
+                for (int i = 0; i < rangeCount; i++) {
+                    ranges.add(IpPrefix.parse(in.readString(strings)));
+                }
+                return new IpRangeCondition(List.copyOf(ranges));
+            case CONDITION_TIME_RANGE:
+                LocalTime start = LocalTime.ofNanoOfDay(in.readVarLong());
+                LocalTime end = LocalTime.ofNanoOfDay(in.readVarLong());
+                int dayBits = in.readByte();
+                Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if ((dayBits & (1 << day.ordinal())) != 0) {
+                        days.add(day);
+                    }
+                }
+                return new TimeRangeCondition(start, end, days, ZoneId.of(in.readString(strings)));
+            default:
+                throw new IllegalArgumentException("Unknown condition type tag: " + type);
+        }
+    }
+    
+    /**
+     * Per-set table assigning each distinct string a reference (index + 1; 0 means null).
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        
+        private int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+            return refs.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size();
+            });
+        }
+    }
+    
+    private static final class Output extends ByteArrayOutputStream {
+        
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+        
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+        
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+        
+        private void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+        
+        private void writeBytes(Output other) {
+            write(other.buf, 0, other.count);
+        }
+    }
+    
+    private static final class Input {
+        private final byte[] data;
+        private int position;
+        
+        private Input(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+        
+        private int remaining() {
+            return data.length - position;
+        }
+        
+        private int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated policy set");
+            }
+            return data[position++] & 0xFF;
+        }
+        
+        private int readVarInt() {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Varint out of range: " + value);
+            }
+            return (int) value;
+        }
+        
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+        
+        private long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+        
+        private String readUtf8(int length) {
+            if (length > remaining()) {
+                throw new IllegalArgumentException("Truncated policy set");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        
+        private String readString(String[] strings) {
+            int ref = readVarInt();
+            if (ref > strings.length) {
+                throw new IllegalArgumentException("String reference out of range: " + ref);
+            }
+            return ref == 0 ? null : strings[ref - 1];
+        }
+    }
+}
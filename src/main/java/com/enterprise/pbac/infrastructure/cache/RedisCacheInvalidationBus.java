@@ -0,0 +1,68 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Invalidation bus over a Redis pub/sub channel.
+ * Delivery is best effort: a node that misses a message serves stale L1 entries until they expire.
+ */
+@Component
+@ConditionalOnProperty(name = "pbac.policy-cache.invalidation", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, MessageListener {
+    
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                     ObjectMapper objectMapper,
+                                     ApplicationEventPublisher eventPublisher,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     @Value("${pbac.policy-cache.channel:pbac:cache-invalidation}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+    
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        try {
+            invalidation.setOrigin(nodeId);
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(invalidation));
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation {}: {}", invalidation.getType(), e.getMessage());
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidation invalidation = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), CacheInvalidation.class);
+            if (nodeId.equals(invalidation.getOrigin())) {
+                return;
+            }
+            log.debug("Cache invalidation received: {}", invalidation);
+            eventPublisher.publishEvent(invalidation);
+        } catch (Exception e) {
+            log.warn("Failed to handle cache invalidation message: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.enterprise.pbac.infrastructure.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Clock;
+
+/**
+ * Clock configuration so time-dependent logic can be driven by a fixed clock in replay and tests.
+ */
+@Configuration
+public class ClockConfig {
+    
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
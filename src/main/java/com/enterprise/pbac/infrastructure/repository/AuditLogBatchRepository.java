@@ -0,0 +1,61 @@
+package com.enterprise.pbac.infrastructure.repository;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes audit records with multi-row INSERT statements, bypassing the persistence context.
+ * Records must already carry their id and timestamp. Records whose id is already stored are
+ * skipped, so a batch can be sent again after a failure that may or may not have committed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogBatchRepository {
+    
+    private static final String INSERT_PREFIX = "INSERT INTO audit_logs "
+            + "(id, user_id, resource, action, decision, reason, request_context, timestamp) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?::jsonb, ?)";
+    private static final String ON_CONFLICT = " ON CONFLICT DO NOTHING";
+    private static final int COLUMNS = 8;
+    // Keeps each statement well below the PostgreSQL limit of 65535 bind parameters
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Inserts all records, one statement per chunk of up to 1000 rows.
+     */
+    public void insertAll(List<AuditLog> records) {
+        for (int from = 0; from < records.size(); from += MAX_ROWS_PER_STATEMENT) {
+            insertChunk(records.subList(from, Math.min(records.size(), from + MAX_ROWS_PER_STATEMENT)));
+        }
+    }
+    
+    private void insertChunk(List<AuditLog> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + ON_CONFLICT.length() + chunk.size() * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[chunk.size() * COLUMNS];
+        int arg = 0;
+        for (int row = 0; row < chunk.size(); row++) {
+            AuditLog record = chunk.get(row);
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[arg++] = record.getId();
+            args[arg++] = record.getUserId();
+            args[arg++] = record.getResource();
+            args[arg++] = record.getAction();
+            args[arg++] = record.getDecision().name();
+            args[arg++] = record.getReason();
+            args[arg++] = record.getRequestContext() == null ? null : record.getRequestContext().toString();
+            args[arg++] = Timestamp.valueOf(record.getTimestamp());
+        }
+        sql.append(ON_CONFLICT);
+        jdbcTemplate.update(sql.toString(), args);
+    }
+}
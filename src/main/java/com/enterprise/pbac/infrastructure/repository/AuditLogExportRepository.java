@@ -0,0 +1,50 @@
+package com.enterprise.pbac.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reads audit records for export without holding them in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogExportRepository {
+    
+    private static final String SELECT_RANGE = "SELECT id, user_id, resource, action, decision, reason, "
+            + "request_context::text AS request_context, timestamp FROM audit_logs "
+            + "WHERE timestamp >= ? AND timestamp <= ? ORDER BY timestamp, id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${pbac.audit.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+    
+    /**
+     * Passes every record in the range to the handler, oldest first, reading through a
+     * forward-only cursor {@code fetch-size} rows at a time.
+     *
+     * Must be called in a transaction: the PostgreSQL driver only uses a cursor when auto-commit
+     * is off and would otherwise read the whole result into memory.
+     */
+    public void streamByTimestampRange(LocalDateTime start, LocalDateTime end, RowCallbackHandler handler) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Audit export must run in a transaction");
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SELECT_RANGE, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(start));
+            statement.setTimestamp(2, Timestamp.valueOf(end));
+            return statement;
+        }, handler);
+    }
+}
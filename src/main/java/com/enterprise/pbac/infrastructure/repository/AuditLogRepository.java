@@ -1,9 +1,6 @@
 package com.enterprise.pbac.infrastructure.repository;
 
 import com.enterprise.pbac.domain.entity.AuditLog;
-import com.enterprise.pbac.domain.enums.AuthorizationDecision;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,15 +8,41 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Read access to audit records. Every query is bounded by timestamp so PostgreSQL only scans
+ * the partitions of audit_logs that overlap the range.
+ *
+ * Paged queries seek past the last (timestamp, id) returned instead of using OFFSET, and run no
+ * count query; each page costs the same however deep it is. Ordering and seeking use the
+ * timestamp first; the id only breaks ties between records of the same timestamp, so the order is
+ * stable across pages. New ids are version 7 UUIDs and usually follow creation order, but only
+ * approximately: a generator whose sequence overflows or whose clock steps back carries on from a
+ * millisecond ahead of the record's timestamp, rows written before version 7 ids carry random
+ * ones, and ids from different threads in one millisecond are unordered. Nothing here relies on
+ * id order matching time order.
+ */
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     
-    Page<AuditLog> findByUserIdOrderByTimestampDesc(UUID userId, Pageable pageable);
+    /**
+     * Gets up to {@code limit} records of a user that are older than the (timestamp, id) position
+     * given and not older than {@code start}, newest first.
+     */
+    @Query(value = "SELECT * FROM audit_logs WHERE user_id = ?1 "
+            + "AND timestamp >= ?2 AND timestamp <= ?3 AND (timestamp, id) < (?3, ?4) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT ?5", nativeQuery = true)
+    List<AuditLog> findUserPage(UUID userId, LocalDateTime start, LocalDateTime beforeTimestamp,
+                                UUID beforeId, int limit);
     
-    Page<AuditLog> findByResourceAndAction(String resource, String action, Pageable pageable);
+    @Query(value = "SELECT * FROM audit_logs WHERE resource = ?1 AND action = ?2 "
+            + "AND timestamp >= ?3 AND timestamp <= ?4 AND (timestamp, id) < (?4, ?5) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT ?6", nativeQuery = true)
+    List<AuditLog> findResourceActionPage(String resource, String action, LocalDateTime start,
+                                          LocalDateTime beforeTimestamp, UUID beforeId, int limit);
     
-    Page<AuditLog> findByDecision(AuthorizationDecision decision, Pageable pageable);
-    
-    @Query("SELECT al FROM AuditLog al WHERE al.timestamp BETWEEN ?1 AND ?2 ORDER BY al.timestamp DESC")
-    List<AuditLog> findByTimestampRange(LocalDateTime start, LocalDateTime end);
+    @Query(value = "SELECT * FROM audit_logs WHERE decision = ?1 "
+            + "AND timestamp >= ?2 AND timestamp <= ?3 AND (timestamp, id) < (?3, ?4) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT ?5", nativeQuery = true)
+    List<AuditLog> findDecisionPage(String decision, LocalDateTime start, LocalDateTime beforeTimestamp,
+                                    UUID beforeId, int limit);
 }
@@ -0,0 +1,131 @@
+package com.enterprise.pbac.infrastructure.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manages the range partitions of the audit_logs table.
+ *
+ * Partitions created here are named after the period they cover: {@code audit_logs_pYYYYMMDD} for a
+ * day and {@code audit_logs_pYYYYMM} for a month. Bounds are read from the catalog rather than the name,
+ * so partitions of both sizes coexist with {@code audit_logs_legacy}, the pre-partitioning table,
+ * whose range has no lower bound. There is no default partition, so a row is accepted only if a
+ * partition covering its timestamp exists.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditPartitionRepository {
+    
+    private static final String PREFIX = "audit_logs_p";
+    private static final Pattern BOUNDS = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    // Arbitrary key shared by all instances running partition maintenance
+    private static final long MAINTENANCE_LOCK_KEY = 0x5042414350415254L;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Getter
+    @RequiredArgsConstructor
+    public static class AuditPartition {
+        private final String name;
+        private final LocalDate from;
+        private final LocalDate to;
+        
+        public boolean overlaps(LocalDate start, LocalDate end) {
+            return from.isBefore(end) && start.isBefore(to);
+        }
+    }
+    
+    /**
+     * Gets the range partitions of audit_logs in order of their lower bound.
+     */
+    public List<AuditPartition> findPartitions() {
+        List<AuditPartition> partitions = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'audit_logs'::regclass",
+                row -> {
+                    AuditPartition partition = parse(row.getString(1), row.getString(2));
+                    if (partition != null) {
+                        partitions.add(partition);
+                    }
+                });
+        partitions.sort(Comparator.comparing(AuditPartition::getFrom));
+        return partitions;
+    }
+    
+    /**
+     * Parses a partition bound such as {@code FOR VALUES FROM ('2024-06-01 00:00:00') TO ('2024-07-01 00:00:00')};
+     * returns null for the default partition. Open ends become {@link LocalDate#MIN} and {@link LocalDate#MAX}.
+     */
+    static AuditPartition parse(String name, String bound) {
+        Matcher matcher = bound == null ? null : BOUNDS.matcher(bound);
+        if (matcher == null || !matcher.matches()) {
+            return null;
+        }
+        return new AuditPartition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)));
+    }
+    
+    private static LocalDate parseBound(String value) {
+        if ("MINVALUE".equals(value)) {
+            return LocalDate.MIN;
+        }
+        if ("MAXVALUE".equals(value)) {
+            return LocalDate.MAX;
+        }
+        // Bounds are whole days: 'YYYY-MM-DD 00:00:00'
+        return LocalDate.parse(value.substring(1, 11));
+    }
+    
+    public AuditPartition createDaily(LocalDate day) {
+        return create(PREFIX + DAY.format(day), day, day.plusDays(1));
+    }
+    
+    public AuditPartition createMonthly(YearMonth month) {
+        return create(PREFIX + MONTH.format(month), month.atDay(1), month.atDay(1).plusMonths(1));
+    }
+    
+    /**
+     * Detaches a partition from audit_logs without blocking reads or writes, then drops it with all
+     * its rows. A detach left pending by an interrupted earlier attempt is finalized instead.
+     * Must not run inside a transaction: a concurrent detach commits in two steps of its own.
+     */
+    public void detachAndDrop(AuditPartition partition) {
+        List<Boolean> pending = jdbcTemplate.queryForList(
+                "SELECT i.inhdetachpending FROM pg_inherits i "
+                        + "WHERE i.inhrelid = to_regclass(?) AND i.inhparent = 'audit_logs'::regclass",
+                Boolean.class, partition.getName());
+        if (!pending.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition.getName()
+                    + (Boolean.TRUE.equals(pending.get(0)) ? " FINALIZE" : " CONCURRENTLY"));
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.getName());
+    }
+    
+    /**
+     * Takes the maintenance lock for the current transaction, or returns false if another
+     * instance holds it.
+     */
+    public boolean tryLockForMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+    
+    private AuditPartition create(String name, LocalDate from, LocalDate to) {
+        // Names and bounds come from dates only, never from input
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF audit_logs "
+                + "FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        return new AuditPartition(name, from, to);
+    }
+}
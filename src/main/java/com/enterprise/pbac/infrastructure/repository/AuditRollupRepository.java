@@ -0,0 +1,93 @@
+package com.enterprise.pbac.infrastructure.repository;
+
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.infrastructure.audit.AuditRollupCount;
+import com.enterprise.pbac.infrastructure.audit.AuditRollupKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and updates per-minute decision counts in the audit_rollups table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditRollupRepository {
+    
+    private static final String ADD_COUNT = "INSERT INTO audit_rollups (bucket_start, resource, action, decision, count) "
+            + "VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (bucket_start, resource, action, decision) "
+            + "DO UPDATE SET count = audit_rollups.count + EXCLUDED.count";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Adds the counts to the stored ones. Several instances can add to the same bucket.
+     * Run it in a transaction: a batch retried after a partial write would count rows twice.
+     */
+    public void addCounts(Map<AuditRollupKey, Long> counts) {
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new Object[] {
+                Timestamp.valueOf(key.getBucketStart()),
+                key.getResource(),
+                key.getAction(),
+                key.getDecision().name(),
+                count
+        }));
+        jdbcTemplate.batchUpdate(ADD_COUNT, rows);
+    }
+    
+    /**
+     * Sums counts in [start, end) into buckets of the given unit (minutes, hours or days), ordered
+     * by bucket. Null filters match everything.
+     */
+    public List<AuditRollupCount> findCounts(LocalDateTime start, LocalDateTime end, ChronoUnit unit,
+                                             String resource, String action, AuthorizationDecision decision) {
+        String bucket = "date_trunc('" + truncationField(unit) + "', bucket_start)";
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucket).append(" AS bucket, resource, action, decision, ")
+                .append("SUM(count) AS total FROM audit_rollups WHERE bucket_start >= ? AND bucket_start < ?");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(start));
+        args.add(Timestamp.valueOf(end));
+        if (resource != null) {
+            sql.append(" AND resource = ?");
+            args.add(resource);
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action);
+        }
+        if (decision != null) {
+            sql.append(" AND decision = ?");
+            args.add(decision.name());
+        }
+        sql.append(" GROUP BY 1, resource, action, decision ORDER BY 1, resource, action, decision");
+        
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AuditRollupCount(
+                new AuditRollupKey(
+                        rs.getTimestamp("bucket").toLocalDateTime(),
+                        rs.getString("resource"),
+                        rs.getString("action"),
+                        AuthorizationDecision.valueOf(rs.getString("decision"))),
+                rs.getLong("total")), args.toArray());
+    }
+    
+    private static String truncationField(ChronoUnit unit) {
+        switch (unit) {
+            case MINUTES:
+                return "minute";
+            case HOURS:
+                return "hour";
+            case DAYS:
+                return "day";
+            default:
+                throw new IllegalArgumentException("Unsupported rollup unit " + unit);
+        }
+    }
+}
@@ -25,4 +25,11 @@ public interface PolicyRepository extends JpaRepository<Policy, UUID> {
     
     @Query("SELECT p FROM Policy p WHERE p.isActive = true")
     List<Policy> findAllActive();
+    
+    /**
+     * Gets the id, pair and version of every active policy, as {@code [id, resource, action, updatedAt]} rows,
+     * without loading subjects or conditions.
+     */
+    @Query("SELECT p.id, p.resource, p.action, p.updatedAt FROM Policy p WHERE p.isActive = true")
+    List<Object[]> findActivePolicyVersions();
 }
@@ -0,0 +1,24 @@
+package com.enterprise.pbac.infrastructure.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the address of the client behind a request, for network conditions and audit records.
+ */
+public final class ClientAddresses {
+    
+    private ClientAddresses() {
+    }
+    
+    /**
+     * Gets the first address in X-Forwarded-For, as set by the load balancer, or else the
+     * address of the connection.
+     */
+    public static String resolve(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,64 @@
+--liquibase formatted sql
+
+--changeset pbac:002-audit-logs-legacy-indexes runInTransaction:false
+-- Audit log table range-partitioned on timestamp. Existing rows are not copied: the current table is
+-- attached as the partition audit_logs_legacy, covering everything before a bound a little ahead of now,
+-- and AuditPartitionService creates the partitions after it.
+-- First, the indexes the partitioned table needs are built on the current table without blocking writes.
+-- Audit reads page by (timestamp, id) descending; ending each index with id lets a page be read as one
+-- index range scan, without sorting rows that share a timestamp. The primary key must include the
+-- partition key, so (id, timestamp) gets a unique index of its own.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS audit_logs_legacy_id_timestamp_key ON audit_logs(id, timestamp);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS audit_logs_legacy_user_timestamp_id ON audit_logs(user_id, timestamp DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS audit_logs_legacy_resource_action_timestamp_id ON audit_logs(resource, action, timestamp DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS audit_logs_legacy_decision_timestamp_id ON audit_logs(decision, timestamp DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS audit_logs_legacy_timestamp_id ON audit_logs(timestamp DESC, id DESC);
+
+--changeset pbac:002-audit-logs-legacy-bound splitStatements:false
+-- Proves that every current row lies below the legacy bound, so attaching the table needs no scan
+-- under an exclusive lock. The bound is the start of the month after next, leaving room for rows
+-- written by running instances until the table is attached. Validating only takes a lock that
+-- allows concurrent reads and writes.
+DO $$
+BEGIN
+    EXECUTE format('ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_legacy_bound '
+                   || 'CHECK (timestamp IS NOT NULL AND timestamp < %L) NOT VALID',
+                   (date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '2 months')::date);
+END $$;
+ALTER TABLE audit_logs VALIDATE CONSTRAINT audit_logs_legacy_bound;
+
+--changeset pbac:002-partition-audit-logs splitStatements:false
+-- Only catalog changes from here on: the indexes built above are attached, not rebuilt
+-- The partitioned table's primary key is matched to a constraint on the partition, not a bare index
+ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_legacy_id_timestamp_key UNIQUE USING INDEX audit_logs_legacy_id_timestamp_key;
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER TABLE audit_logs_legacy RENAME CONSTRAINT audit_logs_pkey TO audit_logs_legacy_pkey;
+DROP INDEX idx_audit_logs_user_id;
+DROP INDEX idx_audit_logs_timestamp;
+DROP INDEX idx_audit_logs_resource_action;
+
+CREATE TABLE audit_logs (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    resource VARCHAR(255) NOT NULL,
+    action VARCHAR(255) NOT NULL,
+    decision VARCHAR(10) NOT NULL CHECK (decision IN ('ALLOW', 'DENY')),
+    reason TEXT,
+    request_context JSONB,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX idx_audit_logs_user_timestamp_id ON audit_logs(user_id, timestamp DESC, id DESC);
+CREATE INDEX idx_audit_logs_resource_action_timestamp_id ON audit_logs(resource, action, timestamp DESC, id DESC);
+CREATE INDEX idx_audit_logs_decision_timestamp_id ON audit_logs(decision, timestamp DESC, id DESC);
+CREATE INDEX idx_audit_logs_timestamp_id ON audit_logs(timestamp DESC, id DESC);
+
+DO $$
+BEGIN
+    EXECUTE format('ALTER TABLE audit_logs ATTACH PARTITION audit_logs_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   (date_trunc('month', CURRENT_TIMESTAMP) + INTERVAL '2 months')::date);
+END $$;
+ALTER TABLE audit_logs_legacy DROP CONSTRAINT audit_logs_legacy_bound;
+-- No default partition: it would rule out detaching expired partitions concurrently. Inserts rely on
+-- the partitions AuditPartitionService creates ahead.
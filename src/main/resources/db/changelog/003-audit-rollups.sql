@@ -0,0 +1,15 @@
+--liquibase formatted sql
+
+--changeset pbac:003-audit-rollups
+-- Decision counts per minute, maintained incrementally by every instance from the audit pipeline
+CREATE TABLE audit_rollups (
+    bucket_start TIMESTAMP NOT NULL,
+    resource VARCHAR(255) NOT NULL,
+    action VARCHAR(255) NOT NULL,
+    decision VARCHAR(10) NOT NULL CHECK (decision IN ('ALLOW', 'DENY')),
+    count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, resource, action, decision)
+);
+
+CREATE INDEX idx_audit_rollups_resource_action ON audit_rollups(resource, action, bucket_start);
+CREATE INDEX idx_audit_rollups_decision ON audit_rollups(decision, bucket_start);
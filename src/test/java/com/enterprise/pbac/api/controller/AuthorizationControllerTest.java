@@ -0,0 +1,82 @@
+package com.enterprise.pbac.api.controller;
+
+import com.enterprise.pbac.application.service.UserService;
+import com.enterprise.pbac.domain.engine.PolicyEvaluationEngine;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthorizationControllerTest {
+    
+    private final PolicyEvaluationEngine policyEvaluationEngine = mock(PolicyEvaluationEngine.class);
+    private final UserService userService = mock(UserService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new AuthorizationController(policyEvaluationEngine, userService))
+            .build();
+    private final UUID userId = UUID.randomUUID();
+    
+    @Test
+    void singleCheckEvaluatesWithTheCallersAttributesAndAddress() throws Exception {
+        when(userService.getUserAttributes(userId)).thenReturn(Map.of("role", "admin"));
+        when(policyEvaluationEngine.evaluate(any()))
+                .thenReturn(PolicyEvaluationResult.noApplicablePolicies("document", "read"));
+        
+        mockMvc.perform(post("/api/authorization/check")
+                        .requestAttr("userId", userId)
+                        .header("X-Forwarded-For", "203.0.113.7, 10.0.0.1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"resource\":\"document\",\"action\":\"read\"}"))
+                .andExpect(status().isOk());
+        
+        ArgumentCaptor<AuthorizationContext> context = ArgumentCaptor.forClass(AuthorizationContext.class);
+        verify(policyEvaluationEngine).evaluate(context.capture());
+        assertThat(context.getValue().getIpAddress()).isEqualTo("203.0.113.7");
+        assertThat(context.getValue().getUserAttributes()).containsEntry("role", "admin");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void everyBatchCheckEvaluatesWithTheCallersAttributesAndAddress() throws Exception {
+        when(userService.getUserAttributes(userId)).thenReturn(Map.of("role", "admin"));
+        when(policyEvaluationEngine.evaluateAll(any())).thenReturn(List.of(
+                PolicyEvaluationResult.noApplicablePolicies("document", "read"),
+                PolicyEvaluationResult.noApplicablePolicies("document", "write")));
+        
+        mockMvc.perform(post("/api/authorization/check-batch")
+                        .requestAttr("userId", userId)
+                        .with(request -> {
+                            request.setRemoteAddr("198.51.100.4");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"checks\":[{\"resource\":\"document\",\"action\":\"read\"},"
+                                + "{\"resource\":\"document\",\"action\":\"write\"}]}"))
+                .andExpect(status().isOk());
+        
+        ArgumentCaptor<List<AuthorizationContext>> contexts = ArgumentCaptor.forClass(List.class);
+        verify(policyEvaluationEngine).evaluateAll(contexts.capture());
+        assertThat(contexts.getValue())
+                .extracting(AuthorizationContext::getIpAddress)
+                .containsExactly("198.51.100.4", "198.51.100.4");
+        assertThat(contexts.getValue())
+                .extracting(AuthorizationContext::getUserAttributes)
+                .containsOnly(Map.of("role", "admin"));
+        verify(userService, times(1)).getUserAttributes(userId);
+    }
+}
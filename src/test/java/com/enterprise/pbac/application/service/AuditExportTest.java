@@ -0,0 +1,137 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.infrastructure.audit.AuditRecordSink;
+import com.enterprise.pbac.infrastructure.mapper.AuditLogMapper;
+import com.enterprise.pbac.infrastructure.repository.AuditLogExportRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditLogRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditRollupRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditExportTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    private final AuditLogExportRepository exportRepository = mock(AuditLogExportRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ResultSet> rows = new ArrayList<>();
+    private final List<LocalDateTime> requestedRange = new ArrayList<>();
+    private AuditService auditService;
+    
+    @BeforeEach
+    void setUp() {
+        auditService = new AuditService(
+                mock(AuditLogRepository.class),
+                new AuditLogMapper(),
+                mock(AuditRecordSink.class),
+                mock(AuditRollupRepository.class),
+                exportRepository,
+                mock(PlatformTransactionManager.class),
+                objectMapper,
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        
+        // Hands each row to the handler the way JdbcTemplate walks a cursor
+        doAnswer(invocation -> {
+            requestedRange.add(invocation.getArgument(0));
+            requestedRange.add(invocation.getArgument(1));
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(exportRepository).streamByTimestampRange(any(), any(), any());
+    }
+    
+    @Test
+    void ndjsonWritesOneObjectPerLineWithTheRequestContextAsJson() throws Exception {
+        rows.add(row("11111111-1111-1111-1111-111111111111", "ALLOW", "Matched policy readers",
+                "{\"ip\":\"10.0.0.1\"}", NOW.minusHours(2)));
+        rows.add(row("22222222-2222-2222-2222-222222222222", "DENY", null, null, NOW.minusHours(1)));
+        
+        String[] lines = export(null, null, AuditExportFormat.NDJSON).split("\n");
+        
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText()).isEqualTo("11111111-1111-1111-1111-111111111111");
+        assertThat(first.get("requestContext").get("ip").asText()).isEqualTo("10.0.0.1");
+        assertThat(first.get("timestamp").asText()).isEqualTo("2024-06-01T10:00:00");
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("decision").asText()).isEqualTo("DENY");
+        assertThat(second.get("reason").isNull()).isTrue();
+        assertThat(second.get("requestContext").isNull()).isTrue();
+    }
+    
+    @Test
+    void csvQuotesFieldsContainingDelimitersQuotesOrLineBreaks() throws Exception {
+        rows.add(row("11111111-1111-1111-1111-111111111111", "DENY", "Denied, \"explicitly\"\nby policy",
+                "{\"a\":1,\"b\":2}", NOW.minusHours(1)));
+        
+        String csv = export(null, null, AuditExportFormat.CSV);
+        
+        assertThat(csv).isEqualTo("id,user_id,resource,action,decision,reason,request_context,timestamp\r\n"
+                + "11111111-1111-1111-1111-111111111111,33333333-3333-3333-3333-333333333333,document,read,DENY,"
+                + "\"Denied, \"\"explicitly\"\"\nby policy\",\"{\"\"a\"\":1,\"\"b\"\":2}\",2024-06-01T11:00:00\r\n");
+    }
+    
+    @Test
+    void exportWithoutBoundsCoversTheDefaultWindow() throws Exception {
+        export(null, null, AuditExportFormat.NDJSON);
+        
+        assertThat(requestedRange).containsExactly(NOW.minusDays(7), NOW);
+    }
+    
+    @Test
+    void windowIsValidatedBeforeAnythingIsRead() {
+        assertThatThrownBy(() -> auditService.exportAuditLogs(NOW.minusDays(120), NOW, AuditExportFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+        
+        verify(exportRepository, never()).streamByTimestampRange(any(), any(), any());
+    }
+    
+    private String export(LocalDateTime from, LocalDateTime to, AuditExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        auditService.exportAuditLogs(from, to, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static ResultSet row(String id, String decision, String reason, String requestContext,
+                                 LocalDateTime timestamp) throws SQLException {
+        Map<String, String> columns = new HashMap<>();
+        columns.put("id", id);
+        columns.put("user_id", "33333333-3333-3333-3333-333333333333");
+        columns.put("resource", "document");
+        columns.put("action", "read");
+        columns.put("decision", decision);
+        columns.put("reason", reason);
+        columns.put("request_context", requestContext);
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(any())).thenAnswer(invocation -> columns.get(invocation.<String>getArgument(0)));
+        when(row.getTimestamp("timestamp")).thenReturn(Timestamp.valueOf(timestamp));
+        return row;
+    }
+}
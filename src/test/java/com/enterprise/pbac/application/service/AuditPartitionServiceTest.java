@@ -0,0 +1,96 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.infrastructure.repository.AuditPartitionRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditPartitionRepository.AuditPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditPartitionServiceTest {
+    
+    private final AuditPartitionRepository partitionRepository = mock(AuditPartitionRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Clock clock = Clock.fixed(Instant.parse("2024-06-15T10:00:00Z"), ZoneOffset.UTC);
+    private final AuditPartition legacy = new AuditPartition("audit_logs_legacy", LocalDate.MIN, LocalDate.of(2024, 8, 1));
+    
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(partitionRepository.tryLockForMaintenance()).thenReturn(true);
+        when(partitionRepository.createMonthly(any())).thenAnswer(invocation -> {
+            YearMonth month = invocation.getArgument(0);
+            return new AuditPartition("audit_logs_p" + month, month.atDay(1), month.atDay(1).plusMonths(1));
+        });
+    }
+    
+    @Test
+    void partitionsAreCreatedOnlyAfterTheLegacyRange() {
+        when(partitionRepository.findPartitions()).thenReturn(new ArrayList<>(List.of(legacy)));
+        
+        service(3, 0).maintain();
+        
+        verify(partitionRepository, never()).createMonthly(YearMonth.of(2024, 6));
+        verify(partitionRepository, never()).createMonthly(YearMonth.of(2024, 7));
+        verify(partitionRepository).createMonthly(YearMonth.of(2024, 8));
+        verify(partitionRepository).createMonthly(YearMonth.of(2024, 9));
+    }
+    
+    @Test
+    void expiredPartitionsAreDroppedAfterTheTransactionCommits() {
+        AuditPartition april = new AuditPartition("audit_logs_p202404", LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1));
+        AuditPartition may = new AuditPartition("audit_logs_p202405", LocalDate.of(2024, 5, 1), LocalDate.of(2024, 6, 1));
+        when(partitionRepository.findPartitions()).thenReturn(new ArrayList<>(List.of(april, may, legacy)));
+        
+        service(2, 30).maintain();
+        
+        InOrder order = inOrder(transactionManager, partitionRepository);
+        order.verify(transactionManager).commit(any());
+        order.verify(partitionRepository).detachAndDrop(april);
+        verify(partitionRepository, never()).detachAndDrop(may);
+        verify(partitionRepository, never()).detachAndDrop(legacy);
+    }
+    
+    @Test
+    void failedDropDoesNotStopTheOthers() {
+        AuditPartition march = new AuditPartition("audit_logs_p202403", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1));
+        AuditPartition april = new AuditPartition("audit_logs_p202404", LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1));
+        when(partitionRepository.findPartitions()).thenReturn(new ArrayList<>(List.of(march, april, legacy)));
+        doThrow(new IllegalStateException("lock timeout")).when(partitionRepository).detachAndDrop(march);
+        
+        service(2, 30).maintain();
+        
+        verify(partitionRepository).detachAndDrop(april);
+    }
+    
+    @Test
+    void nothingIsDoneWhileAnotherInstanceHoldsTheLock() {
+        when(partitionRepository.tryLockForMaintenance()).thenReturn(false);
+        
+        service(2, 30).maintain();
+        
+        verify(partitionRepository, never()).findPartitions();
+        verify(partitionRepository, never()).detachAndDrop(any());
+    }
+    
+    private AuditPartitionService service(int premake, int retentionDays) {
+        return new AuditPartitionService(partitionRepository, transactionManager, clock,
+                true, "monthly", premake, retentionDays);
+    }
+}
@@ -0,0 +1,186 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.api.dto.AuditLogDto;
+import com.enterprise.pbac.api.dto.AuditLogPageDto;
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.infrastructure.audit.AuditRecordSink;
+import com.enterprise.pbac.infrastructure.mapper.AuditLogMapper;
+import com.enterprise.pbac.infrastructure.repository.AuditLogExportRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditLogRepository;
+import com.enterprise.pbac.infrastructure.repository.AuditRollupRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditServiceTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    // Newest first, as PostgreSQL orders (timestamp, id) DESC; uuid compares as unsigned bytes
+    private static final Comparator<AuditLog> DESCENDING = Comparator
+            .comparing(AuditLog::getTimestamp)
+            .thenComparing(AuditLog::getId, AuditServiceTest::compareUuids)
+            .reversed();
+    
+    private final AuditLogRepository auditLogRepository = mock(AuditLogRepository.class);
+    private final List<AuditLog> rows = new ArrayList<>();
+    private AuditService auditService;
+    
+    @BeforeEach
+    void setUp() {
+        auditService = new AuditService(
+                auditLogRepository,
+                new AuditLogMapper(),
+                mock(AuditRecordSink.class),
+                mock(AuditRollupRepository.class),
+                mock(AuditLogExportRepository.class),
+                mock(PlatformTransactionManager.class),
+                new ObjectMapper(),
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        
+        // Evaluates the keyset predicate of findDecisionPage over an in-memory table
+        when(auditLogRepository.findDecisionPage(eq("DENY"), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime start = invocation.getArgument(1);
+            AuditLog before = AuditLog.builder()
+                    .timestamp(invocation.getArgument(2))
+                    .id(invocation.getArgument(3))
+                    .build();
+            int limit = invocation.getArgument(4);
+            return rows.stream()
+                    .filter(row -> !row.getTimestamp().isBefore(start))
+                    .filter(row -> DESCENDING.compare(row, before) > 0)
+                    .sorted(DESCENDING)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+    }
+    
+    @Test
+    void pagesVisitEveryRowOnceIncludingTimestampTies() {
+        for (int i = 0; i < 25; i++) {
+            // Groups of five rows share a timestamp, so pages split inside a tie
+            addRow(NOW.minusMinutes(i / 5), UUID.randomUUID());
+        }
+        addRow(NOW.minusDays(8), UUID.randomUUID());
+        
+        List<UUID> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            AuditLogPageDto page = auditService.getDeniedAuthorizationLogs(null, null, cursor, 10);
+            page.getItems().stream().map(AuditLogDto::getId).forEach(seen::add);
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertThat(pageSizes).containsExactly(10, 10, 5);
+        Set<UUID> unique = new HashSet<>(seen);
+        assertThat(unique).hasSize(25);
+        // The row outside the default 7-day window is never returned
+        assertThat(seen).containsExactlyElementsOf(rows.stream()
+                .filter(row -> row.getTimestamp().isAfter(NOW.minusDays(7)))
+                .sorted(DESCENDING)
+                .map(AuditLog::getId)
+                .collect(Collectors.toList()));
+    }
+    
+    @Test
+    void cursorKeepsTheWindowOfTheFirstPage() {
+        for (int i = 0; i < 4; i++) {
+            addRow(NOW.minusHours(i), UUID.randomUUID());
+        }
+        LocalDateTime from = NOW.minusMinutes(150);
+        
+        AuditLogPageDto first = auditService.getDeniedAuthorizationLogs(from, null, null, 2);
+        // Bounds given with a cursor are ignored; the cursor carries the original window
+        AuditLogPageDto second = auditService.getDeniedAuthorizationLogs(
+                NOW.minusDays(30), null, first.getNextCursor(), 2);
+        
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(second.getItems()).extracting(AuditLogDto::getTimestamp).containsExactly(NOW.minusHours(2));
+        assertThat(second.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void rejectsCursorWhoseWindowExceedsTheMaximum() {
+        String cursor = new AuditCursor(NOW.minusDays(400), NOW, new UUID(0L, 0L)).encode();
+        
+        assertThatThrownBy(() -> auditService.getDeniedAuthorizationLogs(null, null, cursor, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid audit cursor");
+    }
+    
+    @Test
+    void rejectsCursorStartingInTheFuture() {
+        String cursor = new AuditCursor(NOW.plusDays(1), NOW.plusDays(2), new UUID(0L, 0L)).encode();
+        
+        assertThatThrownBy(() -> auditService.getDeniedAuthorizationLogs(null, null, cursor, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void rejectsCursorPositionedBeforeItsWindow() {
+        String cursor = new AuditCursor(NOW.minusDays(1), NOW.minusDays(2), new UUID(0L, 0L)).encode();
+        
+        assertThatThrownBy(() -> auditService.getDeniedAuthorizationLogs(null, null, cursor, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void rejectsMalformedCursor() {
+        String truncated = new AuditCursor(NOW.minusDays(1), NOW, UUID.randomUUID()).encode().substring(4);
+        
+        assertThatThrownBy(() -> auditService.getDeniedAuthorizationLogs(null, null, "not a cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> auditService.getDeniedAuthorizationLogs(null, null, truncated, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void cursorRoundTrips() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime timestamp = NOW.withNano(123_456_000);
+        
+        AuditCursor decoded = AuditCursor.decode(new AuditCursor(NOW.minusDays(3), timestamp, id).encode());
+        
+        assertThat(decoded.getWindowStart()).isEqualTo(NOW.minusDays(3));
+        assertThat(decoded.getTimestamp()).isEqualTo(timestamp);
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+    
+    private void addRow(LocalDateTime timestamp, UUID id) {
+        rows.add(AuditLog.builder()
+                .id(id)
+                .userId(UUID.randomUUID())
+                .resource("document")
+                .action("READ")
+                .decision(AuthorizationDecision.DENY)
+                .timestamp(timestamp)
+                .build());
+    }
+    
+    private static int compareUuids(UUID left, UUID right) {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+}
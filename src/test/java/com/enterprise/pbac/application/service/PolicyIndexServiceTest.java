@@ -0,0 +1,183 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.compiler.ConditionCompiler;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
+import com.enterprise.pbac.domain.engine.compiler.SubjectMatcherCompiler;
+import com.enterprise.pbac.domain.engine.index.PolicySnapshot;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.enterprise.pbac.infrastructure.cache.PolicyCacheService;
+import com.enterprise.pbac.infrastructure.repository.PolicyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PolicyIndexServiceTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    private final PolicyRepository policyRepository = mock(PolicyRepository.class);
+    private final PolicyCacheService policyCacheService = mock(PolicyCacheService.class);
+    private final PolicyCompiler policyCompiler = new PolicyCompiler(new SubjectMatcherCompiler(), new ConditionCompiler());
+    private PolicyIndexService policyIndexService;
+    
+    @BeforeEach
+    void setUp() {
+        policyIndexService = new PolicyIndexService(policyRepository, policyCompiler,
+                mock(PlatformTransactionManager.class), policyCacheService);
+    }
+    
+    @Test
+    void snapshotBuildServesCachedPairsHoldingTheCommittedVersions() {
+        Policy cachedPolicy = policy("document", "READ", CREATED_AT);
+        CompiledPolicy cached = policyCompiler.compile(cachedPolicy);
+        Policy uncached = policy("document", "WRITE", CREATED_AT);
+        committed(cachedPolicy, uncached);
+        when(policyRepository.findApplicablePolicies("document", "WRITE")).thenReturn(List.of(uncached));
+        when(policyCacheService.getOrLoad(eq("document"), eq("READ"), any())).thenReturn(List.of(cached));
+        when(policyCacheService.getOrLoad(eq("document"), eq("WRITE"), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<CompiledPolicy>>>getArgument(2).get());
+        
+        PolicySnapshot snapshot = policyIndexService.getSnapshot();
+        
+        assertThat(snapshot.getPolicyCount()).isEqualTo(2);
+        assertThat(snapshot.getPolicy(cached.getId())).isSameAs(cached);
+        assertThat(snapshot.getPolicy(uncached.getId())).isNotNull();
+        assertThat(snapshot.getIndex().getBucket("document", "READ").size()).isEqualTo(1);
+        verify(policyRepository, never()).findApplicablePolicies("document", "READ");
+        verify(policyCacheService, never()).cacheApplicablePolicies(any(), any(), any());
+    }
+    
+    @Test
+    void staleCachedPairIsReloadedFromTheDatabase() {
+        Policy current = policy("document", "READ", CREATED_AT.plusMinutes(1));
+        Policy stale = policy(current.getId(), "document", "READ", CREATED_AT);
+        Policy removed = policy("document", "READ", CREATED_AT);
+        committed(current);
+        when(policyRepository.findApplicablePolicies("document", "READ")).thenReturn(List.of(current));
+        when(policyCacheService.getOrLoad(eq("document"), eq("READ"), any()))
+                .thenReturn(List.of(policyCompiler.compile(stale), policyCompiler.compile(removed)));
+        
+        PolicySnapshot snapshot = policyIndexService.getSnapshot();
+        
+        assertThat(snapshot.getPolicyCount()).isEqualTo(1);
+        assertThat(snapshot.getPolicy(current.getId()).getVersion()).isEqualTo(current.getUpdatedAt());
+        assertThat(snapshot.getPolicy(removed.getId())).isNull();
+        verify(policyCacheService).cacheApplicablePolicies(eq("document"), eq("READ"),
+                argThat(policies -> policies.size() == 1 && policies.get(0).getVersion().equals(current.getUpdatedAt())));
+    }
+    
+    @Test
+    void policyMovedDuringTheBuildKeepsItsNewerVersion() {
+        Policy original = policy("document", "READ", CREATED_AT);
+        Policy moved = policy(original.getId(), "document", "WRITE", CREATED_AT.plusMinutes(1));
+        // The version query saw the old pair, the per-pair reads ran after the move
+        when(policyRepository.findActivePolicyVersions()).thenReturn(List.of(
+                versionRow(original),
+                new Object[]{UUID.randomUUID(), "document", "WRITE", CREATED_AT}));
+        when(policyRepository.findApplicablePolicies("document", "READ")).thenReturn(List.of(original));
+        when(policyRepository.findApplicablePolicies("document", "WRITE")).thenReturn(List.of(moved));
+        when(policyCacheService.getOrLoad(eq("document"), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<CompiledPolicy>>>getArgument(2).get());
+        
+        PolicySnapshot snapshot = policyIndexService.getSnapshot();
+        
+        assertThat(snapshot.getPolicyCount()).isEqualTo(1);
+        assertThat(snapshot.getPolicy(original.getId()).getAction()).isEqualTo("WRITE");
+        assertThat(snapshot.getIndex().getBucket("document", "READ").size()).isZero();
+        assertThat(snapshot.getIndex().getBucket("document", "WRITE").size()).isEqualTo(1);
+    }
+    
+    @Test
+    void reconcileKeepsASnapshotHoldingTheCommittedVersions() {
+        Policy policy = policy("document", "READ", CREATED_AT);
+        committed(policy);
+        when(policyRepository.findApplicablePolicies("document", "READ")).thenReturn(List.of(policy));
+        loadThroughCache();
+        PolicySnapshot built = policyIndexService.getSnapshot();
+        
+        assertThat(policyIndexService.reconcile()).isFalse();
+        assertThat(policyIndexService.getSnapshot()).isSameAs(built);
+    }
+    
+    @Test
+    void reconcileRebuildsAfterAMissedChange() {
+        Policy policy = policy("document", "READ", CREATED_AT);
+        committed(policy);
+        when(policyRepository.findApplicablePolicies("document", "READ")).thenReturn(List.of(policy));
+        loadThroughCache();
+        PolicySnapshot built = policyIndexService.getSnapshot();
+        
+        // Changed on another node whose notification never arrived
+        Policy changed = policy(policy.getId(), "document", "READ", CREATED_AT.plusMinutes(1));
+        Policy added = policy("document", "READ", CREATED_AT.plusMinutes(1));
+        committed(changed, added);
+        when(policyRepository.findApplicablePolicies("document", "READ")).thenReturn(List.of(changed, added));
+        
+        assertThat(policyIndexService.reconcile()).isTrue();
+        PolicySnapshot rebuilt = policyIndexService.getSnapshot();
+        assertThat(rebuilt.getVersion()).isGreaterThan(built.getVersion());
+        assertThat(rebuilt.getPolicyCount()).isEqualTo(2);
+        assertThat(rebuilt.getPolicy(policy.getId()).getVersion()).isEqualTo(changed.getUpdatedAt());
+        assertThat(policyIndexService.reconcile()).isFalse();
+    }
+    
+    @Test
+    void reconcileDoesNothingBeforeTheFirstBuild() {
+        assertThat(policyIndexService.reconcile()).isFalse();
+        verify(policyRepository, never()).findActivePolicyVersions();
+    }
+    
+    private void loadThroughCache() {
+        when(policyCacheService.getOrLoad(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<CompiledPolicy>>>getArgument(2).get());
+    }
+    
+    private void committed(Policy... policies) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Policy policy : policies) {
+            rows.add(versionRow(policy));
+        }
+        when(policyRepository.findActivePolicyVersions()).thenReturn(rows);
+    }
+    
+    private static Object[] versionRow(Policy policy) {
+        return new Object[]{policy.getId(), policy.getResource(), policy.getAction(), policy.getUpdatedAt()};
+    }
+    
+    private static Policy policy(String resource, String action, LocalDateTime updatedAt) {
+        return policy(UUID.randomUUID(), resource, action, updatedAt);
+    }
+    
+    private static Policy policy(UUID id, String resource, String action, LocalDateTime updatedAt) {
+        return Policy.builder()
+                .id(id)
+                .name("policy")
+                .effect(PolicyEffect.ALLOW)
+                .priority(10)
+                .subjectJson(MAPPER.createObjectNode().put("role", "admin"))
+                .resource(resource)
+                .action(action)
+                .isActive(true)
+                .createdAt(CREATED_AT)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
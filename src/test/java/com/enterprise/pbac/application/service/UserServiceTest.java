@@ -0,0 +1,62 @@
+package com.enterprise.pbac.application.service;
+
+import com.enterprise.pbac.domain.entity.User;
+import com.enterprise.pbac.domain.entity.UserAttribute;
+import com.enterprise.pbac.infrastructure.mapper.UserMapper;
+import com.enterprise.pbac.infrastructure.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserService userService =
+            new UserService(userRepository, mock(UserMapper.class), mock(PasswordEncoder.class));
+    private final UUID userId = UUID.randomUUID();
+    
+    @Test
+    void attributesAreReturnedByKey() {
+        withAttributes(attribute("role", "admin"), attribute("department", "sales"));
+        
+        assertThat(userService.getUserAttributes(userId))
+                .containsOnly(Map.entry("role", "admin"), Map.entry("department", "sales"));
+    }
+    
+    @Test
+    void duplicateKeysKeepTheSmallestValue() {
+        withAttributes(attribute("role", "manager"), attribute("role", "admin"), attribute("role", "guest"));
+        
+        assertThat(userService.getUserAttributes(userId)).containsOnly(Map.entry("role", "admin"));
+    }
+    
+    @Test
+    void attributesWithoutKeyOrValueAreSkipped() {
+        withAttributes(attribute("role", null), attribute(null, "admin"), attribute("department", "it"));
+        
+        assertThat(userService.getUserAttributes(userId)).containsOnly(Map.entry("department", "it"));
+    }
+    
+    private void withAttributes(UserAttribute... attributes) {
+        User user = User.builder()
+                .id(userId)
+                .attributes(Set.of(attributes))
+                .build();
+        when(userRepository.findByIdWithAttributes(userId)).thenReturn(Optional.of(user));
+    }
+    
+    private static UserAttribute attribute(String key, String value) {
+        return UserAttribute.builder()
+                .id(UUID.randomUUID())
+                .key(key)
+                .value(value)
+                .build();
+    }
+}
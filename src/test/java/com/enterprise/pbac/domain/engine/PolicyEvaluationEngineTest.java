@@ -0,0 +1,321 @@
+package com.enterprise.pbac.domain.engine;
+
+import com.enterprise.pbac.application.service.PolicyIndexService;
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.compiler.ConditionCompiler;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
+import com.enterprise.pbac.domain.engine.compiler.SubjectMatcherCompiler;
+import com.enterprise.pbac.domain.engine.metrics.ConditionCostTracker;
+import com.enterprise.pbac.domain.engine.metrics.EvaluationLatencyTracker;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import com.enterprise.pbac.domain.engine.strategy.impl.DefaultPolicyEvaluationStrategy;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.enterprise.pbac.infrastructure.cache.DecisionCache;
+import com.enterprise.pbac.infrastructure.cache.PolicyCacheService;
+import com.enterprise.pbac.infrastructure.repository.PolicyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the indexed engine against a plain scan of every active policy: the subject and
+ * conditions of each policy for the request's resource and action are evaluated directly, a
+ * matching DENY wins over a matching ALLOW, and no match denies.
+ */
+class PolicyEvaluationEngineTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final List<String> RESOURCES = List.of("document", "report", "invoice");
+    private static final List<String> ACTIONS = List.of("READ", "WRITE");
+    private static final List<String> ROLES = List.of("admin", "manager", "analyst", "guest");
+    private static final List<String> DEPARTMENTS = List.of("sales", "it", "finance");
+    private static final List<String> CHANNELS = List.of("web", "api");
+    private static final List<String> ADDRESSES = List.of(
+            "10.1.2.3", "10.200.0.1", "192.168.1.20", "172.16.5.4", "2001:db8::1", "2001:db9::1", "not-an-ip");
+    private static final List<String> NETWORKS = List.of(
+            "\"10.0.0.0/8\"", "\"10.1.0.0/16\"", "\"192.168.1.0/24\"", "[\"172.16.0.0/12\", \"2001:db8::/32\"]");
+    private static final List<Long> TIMESTAMPS = List.of(
+            // Monday 10:30, Saturday 14:00 and Wednesday 23:15 UTC
+            LocalDateTime.of(2024, 6, 3, 10, 30).toInstant(ZoneOffset.UTC).toEpochMilli(),
+            LocalDateTime.of(2024, 6, 8, 14, 0).toInstant(ZoneOffset.UTC).toEpochMilli(),
+            LocalDateTime.of(2024, 6, 5, 23, 15).toInstant(ZoneOffset.UTC).toEpochMilli());
+    
+    private final Random random = new Random(20240601);
+    private final Map<UUID, Policy> store = new LinkedHashMap<>();
+    private final PolicyCompiler referenceCompiler = new PolicyCompiler(new SubjectMatcherCompiler(), new ConditionCompiler());
+    private final DecisionCache decisionCache = new DecisionCache(true, 100_000);
+    private PolicyIndexService policyIndexService;
+    private PolicyEvaluationEngine engine;
+    private int updates;
+    
+    @BeforeEach
+    void setUp() {
+        PolicyRepository policyRepository = mock(PolicyRepository.class);
+        when(policyRepository.findActivePolicyVersions()).thenAnswer(invocation -> activePolicies().stream()
+                .map(PolicyEvaluationEngineTest::versionRow)
+                .collect(Collectors.toList()));
+        when(policyRepository.findApplicablePolicies(anyString(), anyString())).thenAnswer(invocation ->
+                activePolicies(invocation.getArgument(0), invocation.getArgument(1)));
+        when(policyRepository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(store.get(invocation.<UUID>getArgument(0))));
+        PolicyCacheService policyCacheService = mock(PolicyCacheService.class);
+        when(policyCacheService.getOrLoad(anyString(), anyString(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<List<CompiledPolicy>>>getArgument(2).get());
+        
+        PolicyCompiler policyCompiler = new PolicyCompiler(new SubjectMatcherCompiler(), new ConditionCompiler());
+        policyIndexService = new PolicyIndexService(policyRepository, policyCompiler,
+                mock(PlatformTransactionManager.class), policyCacheService);
+        engine = new PolicyEvaluationEngine(
+                policyIndexService,
+                new DefaultPolicyEvaluationStrategy(policyCompiler, new ConditionCostTracker(1)),
+                decisionCache,
+                new EvaluationLatencyTracker(1000),
+                Clock.systemUTC());
+    }
+    
+    @Test
+    void indexedEvaluationAgreesWithScanningEveryPolicy() {
+        for (int i = 0; i < 300; i++) {
+            Policy policy = randomPolicy();
+            store.put(policy.getId(), policy);
+        }
+        
+        // Both outcomes occur, so agreement is not vacuous
+        assertThat(assertAgreesWithScan(3000)).isBetween(100, 2900);
+    }
+    
+    @Test
+    void batchEvaluationAgreesWithScanningEveryPolicy() {
+        for (int i = 0; i < 300; i++) {
+            Policy policy = randomPolicy();
+            store.put(policy.getId(), policy);
+        }
+        
+        List<AuthorizationContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            contexts.add(randomContext());
+        }
+        List<PolicyEvaluationResult> results = engine.evaluateAll(contexts);
+        
+        for (int i = 0; i < contexts.size(); i++) {
+            assertMatchesScan(contexts.get(i), results.get(i));
+        }
+    }
+    
+    @Test
+    void incrementalUpdatesKeepAgreeingWithScanningEveryPolicy() {
+        for (int i = 0; i < 150; i++) {
+            Policy policy = randomPolicy();
+            store.put(policy.getId(), policy);
+        }
+        engine.evaluate(randomContext());
+        
+        for (int round = 0; round < 20; round++) {
+            for (int change = 0; change < 5; change++) {
+                policyIndexService.refreshPolicy(randomChange());
+            }
+            // As PolicyService does after publishing a change
+            decisionCache.bumpEpoch();
+            assertAgreesWithScan(200);
+        }
+    }
+    
+    /**
+     * Evaluates random requests and returns how many were allowed.
+     */
+    private int assertAgreesWithScan(int requests) {
+        int allowed = 0;
+        for (int i = 0; i < requests; i++) {
+            AuthorizationContext context = randomContext();
+            PolicyEvaluationResult result = engine.evaluate(context);
+            assertMatchesScan(context, result);
+            if (result.getDecision() == AuthorizationDecision.ALLOW) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+    
+    private void assertMatchesScan(AuthorizationContext context, PolicyEvaluationResult result) {
+        Map<PolicyEffect, List<UUID>> matches = new HashMap<>();
+        for (Policy policy : activePolicies(context.getResource(), context.getAction())) {
+            CompiledPolicy compiled = referenceCompiler.compile(policy);
+            if (compiled.getSubjectMatcher().matches(context.getUserAttributes())
+                    && compiled.getConditions().evaluate(context)) {
+                matches.computeIfAbsent(policy.getEffect(), effect -> new ArrayList<>()).add(policy.getId());
+            }
+        }
+        AuthorizationDecision expected = matches.containsKey(PolicyEffect.DENY) || !matches.containsKey(PolicyEffect.ALLOW)
+                ? AuthorizationDecision.DENY
+                : AuthorizationDecision.ALLOW;
+        
+        assertThat(result.getDecision()).as("decision for %s", context).isEqualTo(expected);
+        if (result.getMatchedPolicyId() != null) {
+            PolicyEffect winning = expected == AuthorizationDecision.DENY ? PolicyEffect.DENY : PolicyEffect.ALLOW;
+            assertThat(matches.get(winning)).as("matched policy for %s", context).contains(result.getMatchedPolicyId());
+        } else {
+            assertThat(matches).as("matches for %s", context).isEmpty();
+        }
+    }
+    
+    /**
+     * Changes, deactivates, deletes or adds one policy and returns its id.
+     */
+    private UUID randomChange() {
+        List<Policy> existing = new ArrayList<>(store.values());
+        Policy policy = existing.get(random.nextInt(existing.size()));
+        switch (random.nextInt(6)) {
+            case 0:
+                policy.setPriority(random.nextInt(20));
+                break;
+            case 1:
+                policy.setEffect(random.nextBoolean() ? PolicyEffect.ALLOW : PolicyEffect.DENY);
+                break;
+            case 2:
+                policy.setResource(pick(RESOURCES));
+                policy.setAction(pick(ACTIONS));
+                break;
+            case 3:
+                policy.setIsActive(!policy.getIsActive());
+                break;
+            case 4:
+                store.remove(policy.getId());
+                return policy.getId();
+            default:
+                policy = randomPolicy();
+                store.put(policy.getId(), policy);
+                return policy.getId();
+        }
+        policy.setSubjectJson(randomSubject());
+        policy.setConditionsJson(randomConditions());
+        policy.setUpdatedAt(CREATED_AT.plusSeconds(++updates));
+        return policy.getId();
+    }
+    
+    private List<Policy> activePolicies() {
+        return store.values().stream()
+                .filter(policy -> Boolean.TRUE.equals(policy.getIsActive()))
+                .collect(Collectors.toList());
+    }
+    
+    private static Object[] versionRow(Policy policy) {
+        return new Object[]{policy.getId(), policy.getResource(), policy.getAction(), policy.getUpdatedAt()};
+    }
+    
+    private List<Policy> activePolicies(String resource, String action) {
+        return activePolicies().stream()
+                .filter(policy -> policy.getResource().equals(resource) && policy.getAction().equals(action))
+                .collect(Collectors.toList());
+    }
+    
+    private Policy randomPolicy() {
+        return Policy.builder()
+                .id(UUID.randomUUID())
+                .name("policy-" + store.size())
+                .effect(random.nextInt(3) == 0 ? PolicyEffect.DENY : PolicyEffect.ALLOW)
+                .priority(random.nextInt(20))
+                .subjectJson(randomSubject())
+                .resource(pick(RESOURCES))
+                .action(pick(ACTIONS))
+                .conditionsJson(randomConditions())
+                .isActive(random.nextInt(10) != 0)
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT.plusSeconds(++updates))
+                .build();
+    }
+    
+    private JsonNode randomSubject() {
+        switch (random.nextInt(5)) {
+            case 0:
+                return MAPPER.getNodeFactory().textNode("*");
+            case 1:
+                return json("{\"role\": \"" + pick(ROLES) + "\"}");
+            case 2:
+                return json("{\"role\": [\"" + pick(ROLES) + "\", \"" + pick(ROLES) + "\"]}");
+            case 3:
+                return json("{\"department\": \"" + pick(DEPARTMENTS) + "\", \"role\": \"*\"}");
+            default:
+                return json("{\"role\": \"" + pick(ROLES) + "\", \"department\": \"" + pick(DEPARTMENTS) + "\"}");
+        }
+    }
+    
+    private JsonNode randomConditions() {
+        List<String> conditions = new ArrayList<>();
+        if (random.nextInt(10) == 0) {
+            conditions.add("\"enabled\": " + random.nextBoolean());
+        }
+        if (random.nextInt(4) == 0) {
+            conditions.add("\"context\": {\"channel\": \"" + pick(CHANNELS) + "\"}");
+        }
+        if (random.nextInt(3) == 0) {
+            conditions.add("\"ipRange\": " + pick(NETWORKS));
+        }
+        if (random.nextInt(4) == 0) {
+            conditions.add(random.nextBoolean()
+                    ? "\"timeRange\": {\"start\": \"09:00\", \"end\": \"17:00\", \"days\": [\"MONDAY\", \"WEDNESDAY\"]}"
+                    : "\"timeRange\": {\"start\": \"22:00\", \"end\": \"06:00\", \"timezone\": \"Europe/Berlin\"}");
+        }
+        if (random.nextInt(50) == 0) {
+            conditions.add("\"geoFence\": \"eu\"");
+        }
+        return conditions.isEmpty() && random.nextBoolean() ? null : json("{" + String.join(", ", conditions) + "}");
+    }
+    
+    private AuthorizationContext randomContext() {
+        Map<String, String> attributes = new HashMap<>();
+        if (random.nextInt(8) != 0) {
+            attributes.put("role", pick(ROLES));
+        }
+        if (random.nextBoolean()) {
+            attributes.put("department", pick(DEPARTMENTS));
+        }
+        Map<String, Object> additionalContext = random.nextBoolean() ? Map.of("channel", pick(CHANNELS)) : Map.of();
+        return AuthorizationContext.builder()
+                .userId(UUID.randomUUID())
+                .userAttributes(attributes)
+                // Occasionally a pair no policy covers
+                .resource(random.nextInt(20) == 0 ? "unknown" : pick(RESOURCES))
+                .action(pick(ACTIONS))
+                .ipAddress(random.nextInt(10) == 0 ? null : pick(ADDRESSES))
+                .timestamp(pick(TIMESTAMPS))
+                .additionalContext(additionalContext)
+                .build();
+    }
+    
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+    
+    private static JsonNode json(String text) {
+        try {
+            return MAPPER.readTree(text);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(text, e);
+        }
+    }
+}
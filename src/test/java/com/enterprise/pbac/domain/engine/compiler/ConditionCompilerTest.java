@@ -0,0 +1,67 @@
+package com.enterprise.pbac.domain.engine.compiler;
+
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionCompilerTest {
+    
+    private final ConditionCompiler compiler = new ConditionCompiler();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final AuthorizationContext context = AuthorizationContext.builder()
+            .resource("document")
+            .action("read")
+            .ipAddress("10.1.2.3")
+            .timestamp(System.currentTimeMillis())
+            .userAttributes(Map.of())
+            .additionalContext(Map.of("channel", "web"))
+            .build();
+    
+    @Test
+    void unsupportedConditionOnDenyPolicyAlwaysMatches() throws Exception {
+        ConditionChain chain = compiler.compile(json("{\"geoFence\": {\"country\": \"XX\"}}"), PolicyEffect.DENY);
+        
+        assertThat(chain.isEmpty()).isFalse();
+        assertThat(chain.evaluate(context)).isTrue();
+    }
+    
+    @Test
+    void malformedConditionOnDenyPolicyAlwaysMatches() throws Exception {
+        ConditionChain chain = compiler.compile(json("{\"ipRange\": \"not-a-cidr\"}"), PolicyEffect.DENY);
+        
+        assertThat(chain.evaluate(context)).isTrue();
+    }
+    
+    @Test
+    void nonObjectConditionsOnDenyPolicyAlwaysMatch() throws Exception {
+        ConditionChain chain = compiler.compile(json("[\"ipRange\"]"), PolicyEffect.DENY);
+        
+        assertThat(chain.evaluate(context)).isTrue();
+    }
+    
+    @Test
+    void unsupportedConditionOnAllowPolicyNeverMatches() throws Exception {
+        ConditionChain chain = compiler.compile(json("{\"geoFence\": {\"country\": \"XX\"}}"), PolicyEffect.ALLOW);
+        
+        assertThat(chain.evaluate(context)).isFalse();
+    }
+    
+    @Test
+    void validConditionsEvaluateNormallyForBothEffects() throws Exception {
+        JsonNode conditions = json("{\"ipRange\": \"192.168.0.0/16\"}");
+        
+        assertThat(compiler.compile(conditions, PolicyEffect.DENY).evaluate(context)).isFalse();
+        assertThat(compiler.compile(conditions, PolicyEffect.ALLOW).evaluate(context)).isFalse();
+    }
+    
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text);
+    }
+}
@@ -0,0 +1,104 @@
+package com.enterprise.pbac.domain.engine.compiler;
+
+import com.enterprise.pbac.domain.engine.index.PolicyBucket;
+import com.enterprise.pbac.domain.engine.index.PolicyDecisionIndex;
+import com.enterprise.pbac.domain.engine.subject.SubjectMatcher;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubjectMatcherCompilerTest {
+    
+    private final SubjectMatcherCompiler compiler = new SubjectMatcherCompiler();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final Map<String, String> admin = Map.of("role", "admin", "department", "sales");
+    private final Map<String, String> guest = Map.of("role", "guest");
+    
+    @Test
+    void wildcardSubjectMatchesEveryUser() throws Exception {
+        SubjectMatcher matcher = compiler.compile(json("\"*\""), PolicyEffect.ALLOW);
+        
+        assertThat(matcher.matches(admin)).isTrue();
+        assertThat(matcher.matches(Map.of())).isTrue();
+        assertThat(matcher.getConstraints()).isEmpty();
+    }
+    
+    @Test
+    void attributeSubjectMatchesExactValuesAndValueSets() throws Exception {
+        SubjectMatcher matcher = compiler.compile(
+                json("{\"role\": [\"admin\", \"manager\"], \"department\": \"sales\", \"region\": \"*\"}"),
+                PolicyEffect.ALLOW);
+        
+        assertThat(matcher.matches(admin)).isTrue();
+        assertThat(matcher.matches(Map.of("role", "manager", "department", "sales"))).isTrue();
+        assertThat(matcher.matches(Map.of("role", "admin", "department", "it"))).isFalse();
+        assertThat(matcher.matches(guest)).isFalse();
+        assertThat(matcher.getConstraints()).hasSize(2);
+    }
+    
+    @Test
+    void invalidSubjectOnAllowPolicyNeverMatches() throws Exception {
+        for (JsonNode subject : Arrays.asList(null, json("null"), json("\"admin\""), json("[\"admin\"]"), json("42"))) {
+            SubjectMatcher matcher = compiler.compile(subject, PolicyEffect.ALLOW);
+            
+            assertThat(matcher.matches(admin)).as("subject %s", subject).isFalse();
+            assertThat(matcher.matches(Map.of())).as("subject %s", subject).isFalse();
+        }
+    }
+    
+    @Test
+    void invalidSubjectOnDenyPolicyAppliesToEveryUser() throws Exception {
+        for (JsonNode subject : Arrays.asList(null, json("null"), json("\"admin\""), json("[\"admin\"]"), json("42"))) {
+            SubjectMatcher matcher = compiler.compile(subject, PolicyEffect.DENY);
+            
+            assertThat(matcher.matches(admin)).as("subject %s", subject).isTrue();
+            assertThat(matcher.matches(guest)).as("subject %s", subject).isTrue();
+            assertThat(matcher.matches(null)).as("subject %s", subject).isTrue();
+        }
+    }
+    
+    @Test
+    void decisionIndexNeverSelectsAnAllowPolicyWithAnInvalidSubject() throws Exception {
+        PolicyCompiler policyCompiler = new PolicyCompiler(compiler, new ConditionCompiler());
+        CompiledPolicy invalid = policyCompiler.compile(policy(PolicyEffect.ALLOW, json("[\"admin\"]")));
+        CompiledPolicy valid = policyCompiler.compile(policy(PolicyEffect.ALLOW, json("{\"role\": \"admin\"}")));
+        PolicyDecisionIndex index = PolicyDecisionIndex.build(List.of(invalid, valid));
+        PolicyBucket bucket = index.getBucket("document", "READ");
+        
+        long[] candidates = bucket.selectCandidates(index.getDictionary().encode(admin), null);
+        
+        for (int ordinal = 0; ordinal < bucket.size(); ordinal++) {
+            boolean selected = (candidates[ordinal >>> 6] & (1L << ordinal)) != 0;
+            assertThat(selected).as("policy %s", bucket.getPolicy(ordinal).getName())
+                    .isEqualTo(bucket.getPolicy(ordinal) == valid);
+        }
+    }
+    
+    private Policy policy(PolicyEffect effect, JsonNode subject) {
+        return Policy.builder()
+                .id(UUID.randomUUID())
+                .name(subject.toString())
+                .effect(effect)
+                .priority(10)
+                .subjectJson(subject)
+                .resource("document")
+                .action("READ")
+                .isActive(true)
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .build();
+    }
+    
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value);
+    }
+}
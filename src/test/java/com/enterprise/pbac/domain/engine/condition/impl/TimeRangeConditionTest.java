@@ -0,0 +1,85 @@
+package com.enterprise.pbac.domain.engine.condition.impl;
+
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeRangeConditionTest {
+    
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+    private static final Set<DayOfWeek> WEEKDAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+    
+    @Test
+    void evaluatesTheRequestTimestampInThePolicyZone() {
+        TimeRangeCondition businessHours = new TimeRangeCondition(LocalTime.of(9, 0), LocalTime.of(17, 0), WEEKDAYS, BERLIN);
+        
+        // Monday 2024-06-03: Berlin is UTC+2 in summer
+        assertThat(businessHours.evaluate(at("2024-06-03T07:00:00Z"))).isTrue();
+        assertThat(businessHours.evaluate(at("2024-06-03T06:59:59Z"))).isFalse();
+        assertThat(businessHours.evaluate(at("2024-06-03T14:59:59Z"))).isTrue();
+        assertThat(businessHours.evaluate(at("2024-06-03T15:00:00Z"))).isFalse();
+        // Saturday
+        assertThat(businessHours.evaluate(at("2024-06-08T10:00:00Z"))).isFalse();
+        // Monday 2024-01-08: UTC+1 in winter
+        assertThat(businessHours.evaluate(at("2024-01-08T08:00:00Z"))).isTrue();
+        assertThat(businessHours.evaluate(at("2024-01-08T07:59:00Z"))).isFalse();
+    }
+    
+    @Test
+    void windowEndingBeforeItStartsWrapsIntoTheNextDay() {
+        TimeRangeCondition nightShift = new TimeRangeCondition(LocalTime.of(22, 0), LocalTime.of(6, 0),
+                EnumSet.of(DayOfWeek.SUNDAY), BERLIN);
+        
+        // Sunday 23:00 and Monday 05:59 local time, then Monday 06:00
+        assertThat(nightShift.evaluate(at("2024-06-09T21:00:00Z"))).isTrue();
+        assertThat(nightShift.evaluate(at("2024-06-10T03:59:00Z"))).isTrue();
+        assertThat(nightShift.evaluate(at("2024-06-10T04:00:00Z"))).isFalse();
+        // Saturday night is not covered
+        assertThat(nightShift.evaluate(at("2024-06-08T21:00:00Z"))).isFalse();
+    }
+    
+    @Test
+    void equalBoundsCoverTheWholeDay() {
+        TimeRangeCondition allDay = new TimeRangeCondition(LocalTime.of(8, 0), LocalTime.of(8, 0));
+        
+        assertThat(allDay.evaluate(at("2024-06-03T07:59:59Z"))).isTrue();
+        assertThat(allDay.evaluate(at("2024-06-03T08:00:00Z"))).isTrue();
+    }
+    
+    @Test
+    void agreesWithZonedDateTimeAcrossDaylightSavingTransitions() {
+        TimeRangeCondition condition = new TimeRangeCondition(LocalTime.of(1, 30), LocalTime.of(3, 15), WEEKDAYS, BERLIN);
+        Random random = new Random(42);
+        long from = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+        long span = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli() - from;
+        
+        for (int i = 0; i < 100_000; i++) {
+            long millis = from + (long) (random.nextDouble() * span);
+            ZonedDateTime local = Instant.ofEpochMilli(millis).atZone(BERLIN);
+            LocalTime time = local.toLocalTime();
+            boolean expected = WEEKDAYS.contains(local.getDayOfWeek())
+                    && !time.isBefore(LocalTime.of(1, 30)) && time.isBefore(LocalTime.of(3, 15));
+            
+            assertThat(condition.containsInstant(millis)).as("%s", local).isEqualTo(expected);
+        }
+    }
+    
+    private static AuthorizationContext at(String instant) {
+        return AuthorizationContext.builder()
+                .resource("document")
+                .action("read")
+                .timestamp(Instant.parse(instant).toEpochMilli())
+                .userAttributes(Map.of())
+                .build();
+    }
+}
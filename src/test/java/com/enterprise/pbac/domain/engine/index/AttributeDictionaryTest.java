@@ -0,0 +1,88 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.subject.AttributeConstraint;
+import com.enterprise.pbac.domain.engine.subject.impl.AttributeSubjectMatcher;
+import com.enterprise.pbac.domain.engine.subject.impl.WildcardSubjectMatcher;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttributeDictionaryTest {
+    
+    private final CompiledPolicy admins = policy("admins", AttributeConstraint.exact("role", "admin"));
+    private final CompiledPolicy salesManagers = policy("sales managers",
+            AttributeConstraint.valueSet("role", Set.of("admin", "manager")),
+            AttributeConstraint.exact("department", "sales"));
+    private final CompiledPolicy everyone = new CompiledPolicy(UUID.randomUUID(), "everyone", PolicyEffect.ALLOW, 0,
+            "document", "READ", true, null, WildcardSubjectMatcher.INSTANCE, ConditionChain.EMPTY);
+    
+    @Test
+    void encodesOnlyKeysAndValuesThatPoliciesName() {
+        AttributeDictionary dictionary = AttributeDictionary.build(List.of(admins, salesManagers, everyone));
+        
+        int[] encoded = dictionary.encode(Map.of("role", "manager", "department", "it", "team", "blue"));
+        
+        assertThat(dictionary.keyCount()).isEqualTo(2);
+        int role = dictionary.keyId("role");
+        int department = dictionary.keyId("department");
+        assertThat(encoded[role]).isEqualTo(dictionary.valueId(role, "manager")).isNotEqualTo(AttributeDictionary.UNKNOWN);
+        assertThat(encoded[department]).isEqualTo(AttributeDictionary.UNKNOWN);
+        assertThat(dictionary.keyId("team")).isEqualTo(AttributeDictionary.UNKNOWN);
+        assertThat(dictionary.encode(null)).containsOnly(AttributeDictionary.UNKNOWN);
+    }
+    
+    @Test
+    void extendingKeepsExistingIds() {
+        AttributeDictionary dictionary = AttributeDictionary.build(List.of(admins));
+        int role = dictionary.keyId("role");
+        int admin = dictionary.valueId(role, "admin");
+        
+        AttributeDictionary extended = dictionary.extend(List.of(salesManagers));
+        
+        assertThat(extended.keyId("role")).isEqualTo(role);
+        assertThat(extended.valueId(role, "admin")).isEqualTo(admin);
+        assertThat(extended.valueId(role, "manager")).isNotEqualTo(AttributeDictionary.UNKNOWN);
+        assertThat(dictionary.valueId(role, "manager")).isEqualTo(AttributeDictionary.UNKNOWN);
+        assertThat(extended.extend(List.of(admins, everyone))).isSameAs(extended);
+    }
+    
+    @Test
+    void bucketSelectsExactlyThePoliciesWhoseSubjectMatches() {
+        CompiledPolicy nobody = policy("nobody", AttributeConstraint.valueSet("clearance", Set.of()));
+        List<CompiledPolicy> policies = List.of(admins, salesManagers, everyone, nobody);
+        PolicyDecisionIndex index = PolicyDecisionIndex.build(policies);
+        PolicyBucket bucket = index.getBucket("document", "READ");
+        
+        List<Map<String, String>> users = List.of(Map.of(), Map.of("role", "admin"),
+                Map.of("role", "manager", "department", "sales"), Map.of("role", "admin", "department", "sales"),
+                Map.of("role", "guest", "clearance", "top"));
+        for (Map<String, String> user : users) {
+            long[] candidates = bucket.selectCandidates(index.getDictionary().encode(user), null);
+            List<String> selected = new ArrayList<>();
+            List<String> expected = new ArrayList<>();
+            for (int ordinal = 0; ordinal < bucket.size(); ordinal++) {
+                CompiledPolicy policy = bucket.getPolicy(ordinal);
+                if (BitSets.get(candidates, ordinal)) {
+                    selected.add(policy.getName());
+                }
+                if (policy.getSubjectMatcher().matches(user)) {
+                    expected.add(policy.getName());
+                }
+            }
+            assertThat(selected).as("user %s", user).isEqualTo(expected);
+        }
+    }
+    
+    private static CompiledPolicy policy(String name, AttributeConstraint... constraints) {
+        return new CompiledPolicy(UUID.randomUUID(), name, PolicyEffect.ALLOW, 0, "document", "READ", true, null,
+                new AttributeSubjectMatcher(List.of(constraints)), ConditionChain.EMPTY);
+    }
+}
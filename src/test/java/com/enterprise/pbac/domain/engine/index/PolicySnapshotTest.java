@@ -0,0 +1,63 @@
+package com.enterprise.pbac.domain.engine.index;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.subject.impl.WildcardSubjectMatcher;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PolicySnapshotTest {
+    
+    private final CompiledPolicy readers = policy(UUID.randomUUID(), "readers", "document", "READ", true);
+    private final CompiledPolicy writers = policy(UUID.randomUUID(), "writers", "document", "WRITE", true);
+    
+    @Test
+    void changeProducesANewSnapshotAndLeavesTheOldOneIntact() {
+        PolicySnapshot original = PolicySnapshot.of(1, List.of(readers));
+        
+        PolicySnapshot changed = original.withPolicy(writers);
+        
+        assertThat(changed.getVersion()).isEqualTo(2);
+        assertThat(changed.getPolicy(writers.getId())).isSameAs(writers);
+        assertThat(changed.getIndex().getBucket("document", "WRITE").size()).isEqualTo(1);
+        assertThat(original.getPolicy(writers.getId())).isNull();
+        assertThat(original.getIndex().getBucket("document", "WRITE").isEmpty()).isTrue();
+        // The unaffected bucket is shared
+        assertThat(changed.getIndex().getBucket("document", "READ")).isSameAs(original.getIndex().getBucket("document", "READ"));
+    }
+    
+    @Test
+    void replacingAPolicyMovesItBetweenBuckets() {
+        PolicySnapshot original = PolicySnapshot.of(1, List.of(readers));
+        CompiledPolicy moved = policy(readers.getId(), "readers", "document", "DELETE", true);
+        
+        PolicySnapshot changed = original.withPolicy(moved);
+        
+        assertThat(changed.getPolicyCount()).isEqualTo(1);
+        assertThat(changed.getIndex().getBucket("document", "READ").isEmpty()).isTrue();
+        assertThat(changed.getIndex().getBucket("document", "DELETE").getPolicy(0)).isSameAs(moved);
+    }
+    
+    @Test
+    void deactivatedOrRemovedPoliciesLeaveTheSnapshot() {
+        PolicySnapshot original = PolicySnapshot.of(1, List.of(readers, writers));
+        
+        PolicySnapshot deactivated = original.withPolicy(policy(readers.getId(), "readers", "document", "READ", false));
+        PolicySnapshot removed = deactivated.withoutPolicy(writers.getId());
+        
+        assertThat(deactivated.getPolicy(readers.getId())).isNull();
+        assertThat(deactivated.getIndex().getBucket("document", "READ").isEmpty()).isTrue();
+        assertThat(removed.getPolicyCount()).isZero();
+        assertThat(removed.getVersion()).isEqualTo(3);
+        assertThat(removed.withoutPolicy(UUID.randomUUID())).isSameAs(removed);
+    }
+    
+    private static CompiledPolicy policy(UUID id, String name, String resource, String action, boolean active) {
+        return new CompiledPolicy(id, name, PolicyEffect.ALLOW, 10, resource, action, active, null,
+                WildcardSubjectMatcher.INSTANCE, ConditionChain.EMPTY);
+    }
+}
@@ -0,0 +1,61 @@
+package com.enterprise.pbac.domain.engine.metrics;
+
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.condition.impl.ConstantCondition;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionCostTrackerTest {
+    
+    private final AuthorizationContext context = AuthorizationContext.builder()
+            .resource("document")
+            .action("read")
+            .timestamp(System.currentTimeMillis())
+            .userAttributes(Map.of())
+            .build();
+    private final ConditionChain rejecting = ConditionChain.of(List.of(
+            new ConstantCondition(true, "on"), new ConstantCondition(false, "off")));
+    
+    @Test
+    void rateOfOneRecordsEveryEvaluation() {
+        ConditionCostTracker tracker = new ConditionCostTracker(1);
+        
+        for (int i = 0; i < 10; i++) {
+            assertThat(rejecting.evaluate(context, tracker)).isFalse();
+        }
+        
+        assertThat(tracker.snapshot().get("ConstantCondition"))
+                .containsEntry("sampleRate", 1)
+                .containsEntry("sampledEvaluations", 20L)
+                .containsEntry("sampledRejections", 10L);
+    }
+    
+    @Test
+    void onlyAboutOneInRateEvaluationsIsRecorded() {
+        ConditionCostTracker tracker = new ConditionCostTracker(50);
+        int evaluations = 64_000;
+        
+        for (int i = 0; i < evaluations; i++) {
+            assertThat(rejecting.evaluate(context, tracker)).isFalse();
+        }
+        
+        // Rounded up to 64, so about 1000 chains and 2000 conditions are sampled
+        Map<String, Object> stats = tracker.snapshot().get("ConstantCondition");
+        assertThat(stats).containsEntry("sampleRate", 64);
+        assertThat((long) stats.get("sampledEvaluations")).isBetween(1_400L, 2_600L);
+        assertThat(stats.get("sampledRejections")).isEqualTo((long) stats.get("sampledEvaluations") / 2);
+    }
+    
+    @Test
+    void unsampledEvaluationsGiveTheSameResult() {
+        ConditionCostTracker tracker = new ConditionCostTracker(1 << 30);
+        ConditionChain accepting = ConditionChain.of(List.of(new ConstantCondition(true, "on")));
+        
+        assertThat(accepting.evaluate(context, tracker)).isTrue();
+        assertThat(rejecting.evaluate(context, tracker)).isFalse();
+    }
+}
@@ -0,0 +1,45 @@
+package com.enterprise.pbac.domain.engine.metrics;
+
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvaluationLatencyTrackerTest {
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordsOverallByDecisionAndByResourceAction() {
+        EvaluationLatencyTracker tracker = new EvaluationLatencyTracker(10);
+        
+        tracker.record("document", "read", AuthorizationDecision.ALLOW, 1_000);
+        tracker.record("document", "read", AuthorizationDecision.DENY, 2_000);
+        tracker.record("document", "write", AuthorizationDecision.DENY, 3_000);
+        
+        Map<String, Object> snapshot = tracker.snapshot();
+        assertThat((Map<String, Object>) snapshot.get("overall")).containsEntry("count", 3L);
+        Map<String, Map<String, Object>> byDecision = (Map<String, Map<String, Object>>) snapshot.get("byDecision");
+        assertThat(byDecision.get("DENY")).containsEntry("count", 2L);
+        Map<String, Map<String, Map<String, Object>>> byResourceAction =
+                (Map<String, Map<String, Map<String, Object>>>) snapshot.get("byResourceAction");
+        assertThat(byResourceAction.get("document").get("read")).containsEntry("count", 2L);
+        assertThat(byResourceAction.get("document").get("write")).containsEntry("count", 1L);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void seriesBeyondTheCapAreFoldedIntoTheOverflowSeries() {
+        EvaluationLatencyTracker tracker = new EvaluationLatencyTracker(2);
+        
+        for (int i = 0; i < 5; i++) {
+            tracker.record("resource-" + i, "read", AuthorizationDecision.ALLOW, 1_000);
+        }
+        tracker.record("resource-0", "read", AuthorizationDecision.ALLOW, 1_000);
+        
+        Map<String, Object> snapshot = tracker.snapshot();
+        assertThat((Map<String, Object>) snapshot.get("byResourceAction")).hasSize(2);
+        assertThat((Map<String, Object>) snapshot.get(EvaluationLatencyTracker.OVERFLOW_KEY)).containsEntry("count", 3L);
+        assertThat((Map<String, Object>) snapshot.get("overall")).containsEntry("count", 6L);
+    }
+}
@@ -0,0 +1,48 @@
+package com.enterprise.pbac.domain.engine.metrics;
+
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+    
+    @Test
+    void everyValueFallsInABucketWhoseUpperBoundIsWithinAnEighth() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 100, 1_000, 123_456, 999_999_999L, Long.MAX_VALUE / 3};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.highestValueInBucket(index);
+            
+            assertThat(upper).as("upper bound of %d", value).isGreaterThanOrEqualTo(value);
+            assertThat(upper - value).as("error for %d", value).isLessThanOrEqualTo(value / 8);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestValueInBucket(index - 1)).isLessThan(value);
+            }
+        }
+    }
+    
+    @Test
+    void percentilesAreReportedWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        
+        Map<String, Object> snapshot = histogram.snapshot();
+        
+        assertThat(snapshot).containsEntry("count", 10_000L).containsEntry("maxNanos", 10_000L);
+        assertThat((long) snapshot.get("meanNanos")).isEqualTo(5_000L);
+        assertThat((long) snapshot.get("p50Nanos")).isBetween(5_000L, 5_625L);
+        assertThat((long) snapshot.get("p99Nanos")).isBetween(9_900L, 10_000L);
+        assertThat((long) snapshot.get("p999Nanos")).isBetween(9_990L, 10_000L);
+    }
+    
+    @Test
+    void emptyHistogramReportsZeros() {
+        assertThat(new LatencyHistogram().snapshot())
+                .containsEntry("count", 0L)
+                .containsEntry("p99Nanos", 0L)
+                .containsEntry("maxNanos", 0L);
+    }
+}
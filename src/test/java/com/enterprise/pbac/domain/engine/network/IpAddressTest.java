@@ -0,0 +1,83 @@
+package com.enterprise.pbac.domain.engine.network;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IpAddressTest {
+    
+    @Test
+    void parsesFullAndCompressedIpv6Forms() {
+        IpAddress full = IpAddress.parse("2001:0db8:0000:0000:0000:ff00:0042:8329");
+        
+        assertThat(IpAddress.parse("2001:db8::ff00:42:8329")).isEqualTo(full);
+        assertThat(IpAddress.parse("2001:DB8:0:0:0:FF00:42:8329")).isEqualTo(full);
+        assertThat(full.getHigh()).isEqualTo(0x2001_0db8_0000_0000L);
+        assertThat(full.getLow()).isEqualTo(0x0000_ff00_0042_8329L);
+    }
+    
+    @Test
+    void parsesCompressionAtEitherEnd() {
+        assertThat(IpAddress.parse("::")).isEqualTo(new IpAddress(0L, 0L));
+        assertThat(IpAddress.parse("::1")).isEqualTo(new IpAddress(0L, 1L));
+        assertThat(IpAddress.parse("fe80::")).isEqualTo(new IpAddress(0xfe80_0000_0000_0000L, 0L));
+        assertThat(IpAddress.parse("1:2:3:4:5:6:7::")).isEqualTo(IpAddress.parse("1:2:3:4:5:6:7:0"));
+    }
+    
+    @Test
+    void stripsBracketsAndZoneId() {
+        IpAddress expected = IpAddress.parse("fe80::1");
+        
+        assertThat(IpAddress.parse("[fe80::1]")).isEqualTo(expected);
+        assertThat(IpAddress.parse("fe80::1%eth0")).isEqualTo(expected);
+        assertThat(IpAddress.parse("[fe80::1%eth0]")).isEqualTo(expected);
+    }
+    
+    @Test
+    void embeddedIpv4TailSharesKeySpaceWithIpv4() {
+        IpAddress mapped = IpAddress.parse("::ffff:192.168.1.10");
+        
+        assertThat(mapped).isEqualTo(IpAddress.parse("192.168.1.10"));
+        assertThat(mapped.isIpv4()).isTrue();
+        assertThat(IpAddress.parse("64:ff9b::10.0.0.1").getLow()).isEqualTo(0x0000_0000_0a00_0001L);
+        assertThat(IpAddress.parse("0:0:0:0:0:ffff:10.0.0.1")).isEqualTo(IpAddress.parse("10.0.0.1"));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "localhost:8080",
+            "example.com:443",
+            "host:name",
+            ":",
+            ":::",
+            "1::2::3",
+            ":1::",
+            "1:2:3:4:5:6:7:",
+            "1:2:3:4:5:6:7",
+            "1:2:3:4:5:6:7:8:9",
+            "1:2:3:4:5:6:7::8",
+            "12345::1",
+            "g::1",
+            "1.2.3.4::",
+            "::1.2.3.4:5",
+            "::256.0.0.1",
+            "1:2:3:4:5:6:7:1.2.3.4",
+            "::١",
+            "[::1"
+    })
+    void rejectsMalformedLiteralsAndHostNames(String text) {
+        assertThat(IpAddress.tryParse(text)).isNull();
+        assertThatThrownBy(() -> IpAddress.parse(text)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void parsesIpv4AndRejectsOutOfRangeOctets() {
+        assertThat(IpAddress.parse("10.1.2.3").toString()).isEqualTo("10.1.2.3");
+        assertThat(IpAddress.tryParse("10.1.2.256")).isNull();
+        assertThat(IpAddress.tryParse("10.1.2")).isNull();
+        assertThat(IpAddress.tryParse("example.com")).isNull();
+    }
+}
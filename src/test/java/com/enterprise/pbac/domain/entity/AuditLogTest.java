@@ -0,0 +1,40 @@
+package com.enterprise.pbac.domain.entity;
+
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+    
+    @Test
+    void persistingKeepsAnIdAndTimestampAlreadySet() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime decidedAt = LocalDateTime.of(2024, 6, 1, 12, 0);
+        AuditLog auditLog = AuditLog.builder()
+                .id(id)
+                .timestamp(decidedAt)
+                .decision(AuthorizationDecision.ALLOW)
+                .build();
+        
+        auditLog.onCreate();
+        
+        assertThat(auditLog.getId()).isEqualTo(id);
+        assertThat(auditLog.getTimestamp()).isEqualTo(decidedAt);
+    }
+    
+    @Test
+    void persistingAssignsAMissingIdAndTimestamp() {
+        AuditLog auditLog = AuditLog.builder()
+                .decision(AuthorizationDecision.DENY)
+                .build();
+        
+        auditLog.onCreate();
+        
+        assertThat(auditLog.getId()).isNotNull();
+        assertThat(auditLog.getId().version()).isEqualTo(7);
+        assertThat(auditLog.getTimestamp()).isNotNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.enterprise.pbac.domain.id;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+    
+    private static final long MILLIS = 1_717_243_200_000L;
+    
+    @Test
+    void carriesVersionVariantAndTheGivenMillisecond() {
+        UUID id = onFreshThread(() -> UuidV7.next(MILLIS));
+        
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(millisOf(id)).isEqualTo(MILLIS);
+    }
+    
+    @Test
+    void idsOfOneThreadStrictlyIncrease() {
+        List<UUID> ids = onFreshThread(() -> {
+            List<UUID> generated = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                // Several ids per millisecond
+                generated.add(UuidV7.next(MILLIS + i / 10));
+            }
+            return generated;
+        });
+        
+        assertStrictlyIncreasing(ids);
+        assertThat(millisOf(ids.get(ids.size() - 1))).isEqualTo(MILLIS + 99);
+    }
+    
+    @Test
+    void sequenceOverflowMovesOnToTheNextMillisecond() {
+        // The sequence starts in the lower half of 4096 values, so this many ids overflow it
+        List<UUID> ids = onFreshThread(() -> {
+            List<UUID> generated = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                generated.add(UuidV7.next(MILLIS));
+            }
+            return generated;
+        });
+        
+        assertStrictlyIncreasing(ids);
+        assertThat(millisOf(ids.get(0))).isEqualTo(MILLIS);
+        assertThat(millisOf(ids.get(ids.size() - 1))).isEqualTo(MILLIS + 1);
+    }
+    
+    @Test
+    void clockSteppingBackKeepsIdsIncreasing() {
+        List<UUID> ids = onFreshThread(() -> List.of(
+                UuidV7.next(MILLIS),
+                UuidV7.next(MILLIS - 1000),
+                UuidV7.next(MILLIS - 999),
+                UuidV7.next(MILLIS + 1)));
+        
+        assertStrictlyIncreasing(ids);
+        // Carries on from the last millisecond until the clock catches up
+        assertThat(ids).extracting(UuidV7Test::millisOf).containsExactly(MILLIS, MILLIS, MILLIS, MILLIS + 1);
+    }
+    
+    private static void assertStrictlyIncreasing(List<UUID> ids) {
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+        }
+    }
+    
+    private static long millisOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+    
+    /**
+     * Runs on a new thread, so the generator's per-thread state starts empty.
+     */
+    private static <T> T onFreshThread(Supplier<T> action) {
+        AtomicReference<T> result = new AtomicReference<>();
+        Thread thread = new Thread(() -> result.set(action.get()));
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return result.get();
+    }
+}
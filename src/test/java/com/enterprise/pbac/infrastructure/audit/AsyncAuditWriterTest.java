@@ -0,0 +1,141 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.infrastructure.repository.AuditLogBatchRepository;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AsyncAuditWriterTest {
+    
+    private final AuditLogBatchRepository batchRepository = mock(AuditLogBatchRepository.class);
+    private final AuditRollupAggregator rollupAggregator = mock(AuditRollupAggregator.class);
+    private final Set<UUID> inserted = ConcurrentHashMap.newKeySet();
+    
+    @Test
+    void everySubmittedRecordIsWrittenWhenSubmitsRaceWithShutdown() throws InterruptedException {
+        recordInserts();
+        AsyncAuditWriter writer = new AsyncAuditWriter(batchRepository, rollupAggregator, 1024, 50, 5, "block", 3, 1, 10_000);
+        int producers = 4;
+        int perProducer = 20_000;
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < perProducer; i++) {
+                    writer.submit(record());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        started.await();
+        writer.shutdown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertThat(inserted).hasSize(producers * perProducer);
+        assertThat(writer.getStats())
+                .containsEntry("written", (long) producers * perProducer)
+                .containsEntry("dropped", 0L)
+                .containsEntry("queueDepth", 0);
+    }
+    
+    @Test
+    void failingBatchIsDroppedAfterTheConfiguredAttempts() throws InterruptedException {
+        doThrow(new IllegalStateException("database unavailable")).when(batchRepository).insertAll(any());
+        AsyncAuditWriter writer = new AsyncAuditWriter(batchRepository, rollupAggregator, 1024, 10, 5, "block", 3, 1, 10_000);
+        
+        for (int i = 0; i < 10; i++) {
+            writer.submit(record());
+        }
+        awaitStat(writer, "dropped", 10L);
+        
+        // However the records were split into batches, each was tried exactly three times
+        Map<String, Object> stats = writer.getStats();
+        assertThat((long) stats.get("abandonedBatches")).isPositive();
+        assertThat(stats.get("failedFlushes")).isEqualTo(3 * (long) stats.get("abandonedBatches"));
+        writer.shutdown();
+        // Dropped records never reach the rollups
+        verify(rollupAggregator, never()).recordAll(any());
+        verify(rollupAggregator, never()).record(any());
+    }
+    
+    @Test
+    void blockedCallersProceedDuringADatabaseOutage() throws InterruptedException {
+        doThrow(new IllegalStateException("database unavailable")).when(batchRepository).insertAll(any());
+        AsyncAuditWriter writer = new AsyncAuditWriter(batchRepository, rollupAggregator, 4, 4, 5, "block", 2, 1, 10_000);
+        
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                writer.submit(record());
+            }
+        });
+        producer.start();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        
+        assertThat(producer.isAlive()).isFalse();
+        writer.shutdown();
+        assertThat(writer.getStats()).containsEntry("submitted", 100L).containsEntry("dropped", 100L);
+    }
+    
+    @Test
+    void recordsSubmittedAfterShutdownAreWrittenSynchronously() {
+        recordInserts();
+        AsyncAuditWriter writer = new AsyncAuditWriter(batchRepository, rollupAggregator, 1024, 50, 5, "block", 3, 1, 10_000);
+        writer.shutdown();
+        
+        AuditLog record = record();
+        writer.submit(record);
+        
+        assertThat(inserted).containsExactly(record.getId());
+        verify(rollupAggregator).record(record);
+    }
+    
+    private void recordInserts() {
+        doAnswer(invocation -> {
+            List<AuditLog> batch = invocation.getArgument(0);
+            batch.forEach(record -> inserted.add(record.getId()));
+            return null;
+        }).when(batchRepository).insertAll(any());
+    }
+    
+    private static void awaitStat(AsyncAuditWriter writer, String name, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!expected.equals(writer.getStats().get(name)) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(writer.getStats()).containsEntry(name, expected);
+    }
+    
+    private static AuditLog record() {
+        return AuditLog.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .timestamp(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .decision(AuthorizationDecision.ALLOW)
+                .resource("document")
+                .action("read")
+                .reason("test")
+                .build();
+    }
+}
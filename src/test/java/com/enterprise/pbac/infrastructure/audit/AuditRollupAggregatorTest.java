@@ -0,0 +1,201 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.infrastructure.repository.AuditRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AuditRollupAggregatorTest {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    private final AuditRollupRepository rollupRepository = mock(AuditRollupRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final MutableClock clock = new MutableClock(START);
+    private final Map<AuditRollupKey, Long> stored = new HashMap<>();
+    private AuditRollupAggregator aggregator;
+    
+    @BeforeEach
+    void setUp() {
+        // Stands in for the audit_rollups upsert
+        doAnswer(invocation -> {
+            Map<AuditRollupKey, Long> counts = invocation.getArgument(0);
+            synchronized (stored) {
+                counts.forEach((key, count) -> stored.merge(key, count, Long::sum));
+            }
+            return null;
+        }).when(rollupRepository).addCounts(any());
+        aggregator = new AuditRollupAggregator(rollupRepository, transactionManager, clock, true);
+    }
+    
+    @Test
+    void flushWritesOnlyCountsAddedSinceTheLastFlush() {
+        record(START, AuthorizationDecision.ALLOW, 3);
+        record(START, AuthorizationDecision.DENY, 1);
+        assertThat(aggregator.flush()).isTrue();
+        
+        record(START, AuthorizationDecision.ALLOW, 2);
+        assertThat(aggregator.flush()).isTrue();
+        assertThat(aggregator.flush()).isTrue();
+        
+        assertThat(stored).containsEntry(key(START, AuthorizationDecision.ALLOW), 5L)
+                .containsEntry(key(START, AuthorizationDecision.DENY), 1L);
+        assertThat(aggregator.getStats()).containsEntry("flushes", 2L);
+    }
+    
+    @Test
+    void countsAreAddedInOneTransaction() {
+        record(START, AuthorizationDecision.ALLOW, 1);
+        record(START.plusMinutes(1), AuthorizationDecision.ALLOW, 1);
+        
+        aggregator.flush();
+        
+        var order = inOrder(transactionManager, rollupRepository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(rollupRepository).addCounts(any());
+        order.verify(transactionManager).commit(any());
+    }
+    
+    @Test
+    void countsFailingToFlushAreKeptUntilAWriteSucceeds() {
+        record(START, AuthorizationDecision.DENY, 4);
+        AtomicBoolean failing = new AtomicBoolean(true);
+        Map<AuditRollupKey, Long> written = new HashMap<>();
+        doAnswer(invocation -> {
+            if (failing.get()) {
+                throw new IllegalStateException("database down");
+            }
+            Map<AuditRollupKey, Long> counts = invocation.getArgument(0);
+            counts.forEach((key, count) -> written.merge(key, count, Long::sum));
+            return null;
+        }).when(rollupRepository).addCounts(any());
+        
+        assertThat(aggregator.flush()).isFalse();
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        record(START, AuthorizationDecision.DENY, 2);
+        // The minute closes while the database is unavailable
+        clock.set(START.plusMinutes(5));
+        assertThat(aggregator.flush()).isFalse();
+        
+        failing.set(false);
+        assertThat(aggregator.flush()).isTrue();
+        assertThat(written).containsExactly(Map.entry(key(START, AuthorizationDecision.DENY), 6L));
+        assertThat(aggregator.getStats()).containsEntry("flushFailures", 2L);
+    }
+    
+    @Test
+    void closedMinutesAreSwappedOutAndLateRecordsStillCount() {
+        record(START, AuthorizationDecision.ALLOW, 2);
+        clock.set(START.plusMinutes(5));
+        aggregator.flush();
+        assertThat(aggregator.getStats()).containsEntry("counters", 0);
+        
+        // A late record for the closed minute starts a new counter
+        record(START, AuthorizationDecision.ALLOW, 1);
+        aggregator.flush();
+        aggregator.flush();
+        aggregator.flush();
+        
+        assertThat(stored).containsEntry(key(START, AuthorizationDecision.ALLOW), 3L);
+    }
+    
+    @Test
+    void concurrentRecordingAcrossClosingMinutesLosesNoCounts() throws Exception {
+        int threads = 4;
+        int perThread = 200_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    // Spread over minutes that close while recording continues
+                    record(START.plusMinutes(i % 20), AuthorizationDecision.ALLOW, 1);
+                }
+                done.countDown();
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        
+        int minute = 0;
+        while (done.getCount() > 0) {
+            clock.set(START.plusMinutes(minute++ % 25));
+            aggregator.flush();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        clock.set(START.plusMinutes(30));
+        aggregator.flush();
+        aggregator.flush();
+        
+        long total = stored.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(total).isEqualTo((long) threads * perThread);
+        assertThat(aggregator.getStats()).containsEntry("counters", 0);
+    }
+    
+    private void record(LocalDateTime timestamp, AuthorizationDecision decision, int times) {
+        for (int i = 0; i < times; i++) {
+            aggregator.record(AuditLog.builder()
+                    .resource("document")
+                    .action("READ")
+                    .decision(decision)
+                    .timestamp(timestamp.plusSeconds(i % 60))
+                    .build());
+        }
+    }
+    
+    private static AuditRollupKey key(LocalDateTime minute, AuthorizationDecision decision) {
+        return new AuditRollupKey(minute, "document", "READ", decision);
+    }
+    
+    private static final class MutableClock extends Clock {
+        
+        private volatile Instant instant;
+        
+        MutableClock(LocalDateTime start) {
+            set(start);
+        }
+        
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
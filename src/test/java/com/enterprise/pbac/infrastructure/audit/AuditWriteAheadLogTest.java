@@ -0,0 +1,232 @@
+package com.enterprise.pbac.infrastructure.audit;
+
+import com.enterprise.pbac.domain.entity.AuditLog;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import com.enterprise.pbac.infrastructure.repository.AuditLogBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuditWriteAheadLogTest {
+    
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 16;
+    private static final int FRAME_OVERHEAD = 8;
+    
+    @TempDir
+    Path directory;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditRollupAggregator rollupAggregator = mock(AuditRollupAggregator.class);
+    
+    @Test
+    void reopeningSealsSegmentsLeftOpenByACrash() throws IOException {
+        AuditWriteAheadLog crashed = new AuditWriteAheadLog(directory, SEGMENT_SIZE, 0);
+        long position = 0;
+        for (int i = 0; i < 3; i++) {
+            position = crashed.append(payload(i));
+        }
+        crashed.awaitDurable(position);
+        // No close: the process died with the segment still open
+        
+        AuditWriteAheadLog recovered = new AuditWriteAheadLog(directory, SEGMENT_SIZE, 0);
+        
+        List<Path> segments = recovered.sealedSegments();
+        assertThat(segments).hasSize(1);
+        assertThat(readAll(segments.get(0))).containsExactly("record-0", "record-1", "record-2");
+        recovered.append(payload(3));
+        recovered.close();
+        assertThat(recovered.sealedSegments()).hasSize(2);
+    }
+    
+    @Test
+    void partiallyWrittenLastRecordIsIgnored() throws IOException {
+        Path segment = writeSegment(3);
+        corruptPayload(segment, 2);
+        
+        try (AuditWriteAheadLog.SegmentReader reader = AuditWriteAheadLog.read(segment, 0)) {
+            assertThat(drain(reader)).containsExactly("record-0", "record-1");
+            assertThat(reader.isTorn()).isTrue();
+            assertThat(reader.getSkippedFrames()).isZero();
+        }
+    }
+    
+    @Test
+    void damagedRecordWithRecordsAfterItIsSkipped() throws IOException {
+        Path segment = writeSegment(3);
+        corruptPayload(segment, 1);
+        
+        try (AuditWriteAheadLog.SegmentReader reader = AuditWriteAheadLog.read(segment, 0)) {
+            assertThat(drain(reader)).containsExactly("record-0", "record-2");
+            assertThat(reader.isTorn()).isFalse();
+            assertThat(reader.getSkippedFrames()).isEqualTo(1);
+        }
+    }
+    
+    @Test
+    void oneForceCoversEverythingAppendedBeforeIt() throws IOException {
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(directory, SEGMENT_SIZE, 0);
+        long last = 0;
+        for (int i = 0; i < 100; i++) {
+            last = wal.append(payload(i));
+        }
+        
+        wal.awaitDurable(last);
+        wal.awaitDurable(50);
+        wal.sync();
+        
+        assertThat(wal.getSyncs()).isEqualTo(1);
+        wal.append(payload(100));
+        wal.sync();
+        assertThat(wal.getSyncs()).isEqualTo(2);
+        wal.close();
+    }
+    
+    @Test
+    void sinkShipsEachRecordOnceAfterTheDatabaseRecovers() throws IOException {
+        AuditLogBatchRepository batchRepository = mock(AuditLogBatchRepository.class);
+        List<UUID> inserted = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            List<AuditLog> batch = invocation.getArgument(0);
+            batch.forEach(record -> inserted.add(record.getId()));
+            return null;
+        }).when(batchRepository).insertAll(any());
+        List<UUID> counted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<AuditLog> batch = invocation.getArgument(0);
+            batch.forEach(record -> counted.add(record.getId()));
+            return null;
+        }).when(rollupAggregator).recordAll(any());
+        
+        List<AuditLog> records = List.of(record(), record(), record());
+        WalAuditSink first = newSink(batchRepository);
+        records.forEach(first::submit);
+        first.shutdown();
+        assertThat(inserted).isEmpty();
+        assertThat(counted).isEmpty();
+        assertThat(first.getStats()).containsEntry("shipFailures", 1L).containsEntry("segmentsPending", 1L);
+        
+        WalAuditSink restarted = newSink(batchRepository);
+        restarted.shutdown();
+        
+        assertThat(inserted).containsExactlyElementsOf(records.stream().map(AuditLog::getId).toList());
+        assertThat(counted).isEqualTo(inserted);
+        assertThat(restarted.getStats()).containsEntry("segmentsPending", 0L);
+    }
+    
+    @Test
+    void sinkQuarantinesUndecodableRecordsAndShipsTheRest() throws IOException {
+        AuditLog before = record();
+        AuditLog after = record();
+        byte[] undecodable = {1, 2, 3};
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(directory, SEGMENT_SIZE, 0);
+        wal.append(AuditRecordCodec.encode(before));
+        wal.append(undecodable);
+        wal.append(AuditRecordCodec.encode(after));
+        wal.close();
+        
+        AuditLogBatchRepository batchRepository = mock(AuditLogBatchRepository.class);
+        List<UUID> inserted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<AuditLog> batch = invocation.getArgument(0);
+            batch.forEach(record -> inserted.add(record.getId()));
+            return null;
+        }).when(batchRepository).insertAll(any());
+        WalAuditSink sink = newSink(batchRepository);
+        sink.shutdown();
+        
+        assertThat(inserted).containsExactly(before.getId(), after.getId());
+        assertThat(sink.getStats()).containsEntry("quarantined", 1L).containsEntry("segmentsPending", 0L);
+        try (Stream<Path> files = Files.list(directory.resolve("quarantine"))) {
+            List<Path> quarantined = files.toList();
+            assertThat(quarantined).hasSize(1);
+            assertThat(Files.readAllBytes(quarantined.get(0))).isEqualTo(undecodable);
+        }
+    }
+    
+    private WalAuditSink newSink(AuditLogBatchRepository batchRepository) throws IOException {
+        // Long intervals: shipping happens on shutdown, when the test decides
+        return new WalAuditSink(batchRepository, rollupAggregator, objectMapper, directory.toString(), SEGMENT_SIZE,
+                0, 3_600_000, 3_600_000, 1000, 5000);
+    }
+    
+    private Path writeSegment(int records) throws IOException {
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(directory, SEGMENT_SIZE, 0);
+        for (int i = 0; i < records; i++) {
+            wal.append(payload(i));
+        }
+        wal.close();
+        return wal.sealedSegments().get(0);
+    }
+    
+    /**
+     * Flips a byte in the payload of the given frame, leaving its length intact.
+     */
+    private static void corruptPayload(Path segment, int frame) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = HEADER_SIZE;
+            ByteBuffer length = ByteBuffer.allocate(4);
+            for (int i = 0; i < frame; i++) {
+                length.clear();
+                channel.read(length, position);
+                position += FRAME_OVERHEAD + length.getInt(0);
+            }
+            ByteBuffer first = ByteBuffer.allocate(1);
+            channel.read(first, position + FRAME_OVERHEAD);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~first.get(0)}), position + FRAME_OVERHEAD);
+        }
+    }
+    
+    private static List<String> readAll(Path segment) throws IOException {
+        try (AuditWriteAheadLog.SegmentReader reader = AuditWriteAheadLog.read(segment, 0)) {
+            return drain(reader);
+        }
+    }
+    
+    private static List<String> drain(AuditWriteAheadLog.SegmentReader reader) {
+        List<String> payloads = new ArrayList<>();
+        ByteBuffer payload;
+        while ((payload = reader.next()) != null) {
+            payloads.add(StandardCharsets.UTF_8.decode(payload).toString());
+        }
+        return payloads;
+    }
+    
+    private static byte[] payload(int index) {
+        return ("record-" + index).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static AuditLog record() {
+        return AuditLog.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .timestamp(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .decision(AuthorizationDecision.ALLOW)
+                .resource("document")
+                .action("read")
+                .reason("test")
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.model.PolicyEvaluationResult;
+import com.enterprise.pbac.domain.enums.AuthorizationDecision;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecisionCacheTest {
+    
+    private final DecisionCache decisionCache = new DecisionCache(true, 1000);
+    private final AtomicInteger evaluations = new AtomicInteger();
+    
+    @Test
+    void equalAttributesShareAnEntry() {
+        long epoch = decisionCache.currentEpoch();
+        
+        PolicyEvaluationResult first = decisionCache.get(epoch, context(Map.of("role", "admin")), evaluator());
+        PolicyEvaluationResult second = decisionCache.get(epoch, context(new HashMap<>(Map.of("role", "admin"))), evaluator());
+        
+        assertThat(second).isSameAs(first);
+        assertThat(evaluations).hasValue(1);
+        assertThat(decisionCache.getStats()).containsEntry("hits", 1L);
+    }
+    
+    @Test
+    void differentAttributesOrActionsAreEvaluatedSeparately() {
+        long epoch = decisionCache.currentEpoch();
+        
+        decisionCache.get(epoch, context(Map.of("role", "admin")), evaluator());
+        decisionCache.get(epoch, context(Map.of("role", "guest")), evaluator());
+        decisionCache.get(epoch, context(null), evaluator());
+        
+        assertThat(evaluations).hasValue(3);
+    }
+    
+    @Test
+    void bumpingTheEpochHidesEarlierDecisions() {
+        decisionCache.get(decisionCache.currentEpoch(), context(Map.of("role", "admin")), evaluator());
+        
+        decisionCache.bumpEpoch();
+        decisionCache.get(decisionCache.currentEpoch(), context(Map.of("role", "admin")), evaluator());
+        
+        assertThat(evaluations).hasValue(2);
+        assertThat(decisionCache.getStats()).containsEntry("epoch", 1L);
+    }
+    
+    @Test
+    void changingTheCallersMapAfterwardsDoesNotAlterTheEntry() {
+        long epoch = decisionCache.currentEpoch();
+        Map<String, String> attributes = new HashMap<>(Map.of("role", "admin"));
+        decisionCache.get(epoch, context(attributes), evaluator());
+        
+        attributes.put("role", "guest");
+        decisionCache.get(epoch, context(Map.of("role", "admin")), evaluator());
+        
+        assertThat(evaluations).hasValue(1);
+    }
+    
+    @Test
+    void disabledCacheAlwaysEvaluates() {
+        DecisionCache disabled = new DecisionCache(false, 1000);
+        
+        disabled.get(0, context(Map.of("role", "admin")), evaluator());
+        disabled.get(0, context(Map.of("role", "admin")), evaluator());
+        
+        assertThat(evaluations).hasValue(2);
+    }
+    
+    private Supplier<PolicyEvaluationResult> evaluator() {
+        return () -> {
+            evaluations.incrementAndGet();
+            return PolicyEvaluationResult.matched(AuthorizationDecision.ALLOW, UUID.randomUUID(), "readers");
+        };
+    }
+    
+    private static AuthorizationContext context(Map<String, String> attributes) {
+        return AuthorizationContext.builder()
+                .resource("document")
+                .action("read")
+                .timestamp(System.currentTimeMillis())
+                .userAttributes(attributes)
+                .build();
+    }
+}
@@ -0,0 +1,216 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.compiler.ConditionCompiler;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
+import com.enterprise.pbac.domain.engine.compiler.SubjectMatcherCompiler;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PolicyCacheServiceTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, byte[]> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, byte[]> redisValues = mock(ValueOperations.class);
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private final PolicySetCodec codec = new PolicySetCodec();
+    private final PolicyCompiler policyCompiler = new PolicyCompiler(new SubjectMatcherCompiler(), new ConditionCompiler());
+    private final AtomicInteger loads = new AtomicInteger();
+    private PolicyCacheService policyCacheService;
+    private List<CompiledPolicy> policies;
+    
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(redisValues);
+        policyCacheService = new PolicyCacheService(redisTemplate, codec, invalidationBus,
+                Clock.systemUTC(), 100, 60, 30, 0.1);
+        policies = List.of(policyCompiler.compile(Policy.builder()
+                .id(UUID.randomUUID())
+                .name("readers")
+                .effect(PolicyEffect.ALLOW)
+                .priority(10)
+                .subjectJson(MAPPER.createObjectNode().put("role", "admin"))
+                .resource("document")
+                .action("READ")
+                .isActive(true)
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 12, 0))
+                .build()));
+    }
+    
+    @Test
+    void repeatedLookupIsServedFromTheLocalTier() {
+        assertThat(policyCacheService.getOrLoad("document", "READ", loader())).isEqualTo(policies);
+        assertThat(policyCacheService.getOrLoad("document", "READ", loader())).isEqualTo(policies);
+        
+        assertThat(loads).hasValue(1);
+        verify(redisValues, times(1)).get(anyString());
+        assertThat(policyCacheService.getStats()).containsEntry("localHits", 1L);
+    }
+    
+    @Test
+    void sharedTierFillsTheLocalTierWithoutLoading() {
+        byte[] shared = codec.encode(new CachedPolicySet(policies, System.currentTimeMillis()));
+        when(redisValues.get(anyString())).thenReturn(shared);
+        
+        List<CompiledPolicy> first = policyCacheService.getOrLoad("document", "READ", loader());
+        List<CompiledPolicy> second = policyCacheService.getOrLoad("document", "READ", loader());
+        
+        assertThat(loads).hasValue(0);
+        assertThat(first).extracting(CompiledPolicy::getId).containsExactly(policies.get(0).getId());
+        assertThat(second).isSameAs(first);
+        verify(redisValues, times(1)).get(anyString());
+    }
+    
+    @Test
+    void remoteInvalidationDropsTheLocalEntry() {
+        policyCacheService.getOrLoad("document", "READ", loader());
+        
+        policyCacheService.onRemoteInvalidation(CacheInvalidation.applicablePolicies("document", "READ"));
+        policyCacheService.getOrLoad("document", "READ", loader());
+        
+        assertThat(loads).hasValue(2);
+        verify(redisValues, times(2)).get(anyString());
+    }
+    
+    @Test
+    void localInvalidationIsBroadcast() {
+        policyCacheService.getOrLoad("document", "READ", loader());
+        
+        policyCacheService.invalidateApplicablePoliciesCache("document", "READ");
+        
+        verify(invalidationBus).publish(CacheInvalidation.applicablePolicies("document", "READ"));
+        policyCacheService.getOrLoad("document", "READ", loader());
+        assertThat(loads).hasValue(2);
+    }
+    
+    @Test
+    void invalidationDeletesOnlyThatPairsKey() {
+        policyCacheService.invalidateApplicablePoliciesCache("document", "READ");
+        
+        verify(redisTemplate).delete("policies:document:READ");
+        verify(redisTemplate, never()).getConnectionFactory();
+    }
+    
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<List<CompiledPolicy>> blockingLoader = () -> {
+            loads.incrementAndGet();
+            awaitQuietly(release);
+            return policies;
+        };
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<CompiledPolicy>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> policyCacheService.getOrLoad("document", "READ", blockingLoader)));
+            }
+            // Let the loader finish only once every other caller is waiting for it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((long) policyCacheService.getStats().get("coalescedLoads") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            
+            for (Future<List<CompiledPolicy>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(policies);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(policyCacheService.getStats()).containsEntry("loads", 1L).containsEntry("coalescedLoads", 7L);
+    }
+    
+    @Test
+    void emptySetIsCachedWithTheNegativeTtl() {
+        Supplier<List<CompiledPolicy>> emptyLoader = () -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+        
+        assertThat(policyCacheService.getOrLoad("document", "PURGE", emptyLoader)).isEmpty();
+        assertThat(policyCacheService.getOrLoad("document", "PURGE", emptyLoader)).isEmpty();
+        
+        assertThat(loads).hasValue(1);
+        verify(redisValues).set(eq("policies:document:PURGE"), any(byte[].class), eq(30L), eq(TimeUnit.SECONDS));
+        assertThat(policyCacheService.getStats()).containsEntry("negativeHits", 1L);
+    }
+    
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        Supplier<List<CompiledPolicy>> racingLoader = () -> {
+            loads.incrementAndGet();
+            // A policy change committed while the database was being read
+            policyCacheService.invalidateApplicablePoliciesCache("document", "READ");
+            return policies;
+        };
+        
+        assertThat(policyCacheService.getOrLoad("document", "READ", racingLoader)).isEqualTo(policies);
+        policyCacheService.getOrLoad("document", "READ", loader());
+        
+        assertThat(loads).hasValue(2);
+        verify(redisValues, times(1)).set(anyString(), any(byte[].class), anyLong(), any(TimeUnit.class));
+    }
+    
+    @Test
+    void failedLoadIsNotCached() {
+        Supplier<List<CompiledPolicy>> failingLoader = () -> {
+            throw new IllegalStateException("database unavailable");
+        };
+        
+        assertThatThrownBy(() -> policyCacheService.getOrLoad("document", "READ", failingLoader))
+                .isInstanceOf(IllegalStateException.class);
+        
+        assertThat(policyCacheService.getOrLoad("document", "READ", loader())).isEqualTo(policies);
+        assertThat(loads).hasValue(1);
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private Supplier<List<CompiledPolicy>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return policies;
+        };
+    }
+}
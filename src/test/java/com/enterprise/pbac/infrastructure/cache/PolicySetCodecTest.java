@@ -0,0 +1,183 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.enterprise.pbac.domain.engine.compiler.CompiledPolicy;
+import com.enterprise.pbac.domain.engine.compiler.ConditionCompiler;
+import com.enterprise.pbac.domain.engine.compiler.PolicyCompiler;
+import com.enterprise.pbac.domain.engine.compiler.SubjectMatcherCompiler;
+import com.enterprise.pbac.domain.engine.condition.Condition;
+import com.enterprise.pbac.domain.engine.condition.ConditionChain;
+import com.enterprise.pbac.domain.engine.model.AuthorizationContext;
+import com.enterprise.pbac.domain.engine.subject.impl.WildcardSubjectMatcher;
+import com.enterprise.pbac.domain.entity.Policy;
+import com.enterprise.pbac.domain.enums.PolicyEffect;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class PolicySetCodecTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long LOADED_AT = 1_717_243_200_123L;
+    private static final long MONDAY_MORNING = LocalDateTime.of(2024, 6, 3, 10, 30).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long SUNDAY_NIGHT = LocalDateTime.of(2024, 6, 2, 23, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    
+    private final PolicySetCodec codec = new PolicySetCodec();
+    private final PolicyCompiler policyCompiler = new PolicyCompiler(new SubjectMatcherCompiler(), new ConditionCompiler());
+    
+    @Test
+    void roundTripPreservesEveryPolicyField() throws Exception {
+        List<CompiledPolicy> policies = samplePolicies();
+        
+        CachedPolicySet decoded = codec.decode(codec.encode(new CachedPolicySet(policies, LOADED_AT)));
+        
+        assertThat(decoded.getLoadedAtMillis()).isEqualTo(LOADED_AT);
+        assertThat(decoded.getPolicies()).hasSameSizeAs(policies);
+        for (int i = 0; i < policies.size(); i++) {
+            CompiledPolicy original = policies.get(i);
+            CompiledPolicy copy = decoded.getPolicies().get(i);
+            assertThat(copy.getId()).isEqualTo(original.getId());
+            assertThat(copy.getName()).isEqualTo(original.getName());
+            assertThat(copy.getEffect()).isEqualTo(original.getEffect());
+            assertThat(copy.getPriority()).isEqualTo(original.getPriority());
+            assertThat(copy.getResource()).isEqualTo(original.getResource());
+            assertThat(copy.getAction()).isEqualTo(original.getAction());
+            assertThat(copy.isActive()).isEqualTo(original.isActive());
+            assertThat(copy.getVersion()).isEqualTo(original.getVersion());
+            assertThat(copy.getSubjectMatcher().getDescription()).isEqualTo(original.getSubjectMatcher().getDescription());
+            assertThat(copy.getConditions().getDescription()).isEqualTo(original.getConditions().getDescription());
+            assertThat(copy.getIpRangeCondition() == null).isEqualTo(original.getIpRangeCondition() == null);
+        }
+    }
+    
+    @Test
+    void decodedPoliciesMatchTheSameRequests() throws Exception {
+        List<CompiledPolicy> policies = samplePolicies();
+        List<CompiledPolicy> decoded = codec.decode(codec.encode(new CachedPolicySet(policies, LOADED_AT))).getPolicies();
+        
+        List<Map<String, String>> subjects = List.of(
+                Map.of(), Map.of("role", "admin"), Map.of("role", "manager", "department", "sales"),
+                Map.of("role", "guest", "department", "it"));
+        List<AuthorizationContext> contexts = List.of(
+                context("10.1.2.3", "web", MONDAY_MORNING),
+                context("2001:db8::1", "web", MONDAY_MORNING),
+                context("192.168.0.1", "web", MONDAY_MORNING),
+                context("10.1.2.3", "api", MONDAY_MORNING),
+                context("10.1.2.3", "web", SUNDAY_NIGHT),
+                context(null, null, MONDAY_MORNING));
+        for (int i = 0; i < policies.size(); i++) {
+            for (Map<String, String> subject : subjects) {
+                assertThat(decoded.get(i).getSubjectMatcher().matches(subject))
+                        .as("policy %d, subject %s", i, subject)
+                        .isEqualTo(policies.get(i).getSubjectMatcher().matches(subject));
+            }
+            for (AuthorizationContext context : contexts) {
+                assertThat(decoded.get(i).getConditions().evaluate(context))
+                        .as("policy %d, context %s", i, context)
+                        .isEqualTo(policies.get(i).getConditions().evaluate(context));
+            }
+        }
+    }
+    
+    @Test
+    void reEncodingADecodedSetGivesTheSameBytes() throws Exception {
+        byte[] encoded = codec.encode(new CachedPolicySet(samplePolicies(), LOADED_AT));
+        
+        assertThat(codec.encode(codec.decode(encoded))).isEqualTo(encoded);
+    }
+    
+    @Test
+    void emptySetRoundTrips() {
+        CachedPolicySet decoded = codec.decode(codec.encode(new CachedPolicySet(List.of(), LOADED_AT)));
+        
+        assertThat(decoded.isEmpty()).isTrue();
+        assertThat(decoded.getLoadedAtMillis()).isEqualTo(LOADED_AT);
+    }
+    
+    @Test
+    void otherFormatVersionDecodesAsAMiss() throws Exception {
+        byte[] encoded = codec.encode(new CachedPolicySet(samplePolicies(), LOADED_AT));
+        encoded[1] = (byte) (PolicySetCodec.FORMAT_VERSION - 1);
+        
+        assertThat(codec.decode(encoded)).isNull();
+        assertThat(codec.decode(new byte[0])).isNull();
+        assertThat(codec.decode(null)).isNull();
+    }
+    
+    @Test
+    void truncatedPayloadIsRejected() throws Exception {
+        byte[] encoded = codec.encode(new CachedPolicySet(samplePolicies(), LOADED_AT));
+        
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void conditionTypeWithoutEncodingIsRejected() {
+        CompiledPolicy policy = new CompiledPolicy(UUID.randomUUID(), "custom", PolicyEffect.ALLOW, 0,
+                "document", "READ", true, null, WildcardSubjectMatcher.INSTANCE,
+                ConditionChain.of(List.of(mock(Condition.class))));
+        
+        assertThatThrownBy(() -> codec.encode(new CachedPolicySet(List.of(policy), LOADED_AT)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported condition type");
+    }
+    
+    /**
+     * One policy per subject form and condition type, plus one without id, version or effect.
+     */
+    private List<CompiledPolicy> samplePolicies() throws Exception {
+        return List.of(
+                compile("wildcard", PolicyEffect.ALLOW, 0, "\"*\"", null),
+                compile("exact", PolicyEffect.DENY, -5, "{\"role\": \"admin\"}", "{\"enabled\": true}"),
+                compile("value set", PolicyEffect.ALLOW, 100,
+                        "{\"role\": [\"admin\", \"manager\"], \"department\": \"*\"}",
+                        "{\"context\": {\"channel\": \"web\"}}"),
+                compile("network", PolicyEffect.ALLOW, 7, "{\"department\": \"sales\"}",
+                        "{\"ipRange\": [\"10.0.0.0/8\", \"2001:db8::/32\"]}"),
+                compile("office hours", PolicyEffect.DENY, 3, "{\"role\": \"guest\"}",
+                        "{\"timeRange\": {\"start\": \"09:00\", \"end\": \"17:30\", "
+                                + "\"days\": [\"MONDAY\", \"FRIDAY\"], \"timezone\": \"Europe/Berlin\"}}"),
+                compile("everything", PolicyEffect.ALLOW, 1, "{\"role\": \"admin\"}",
+                        "{\"enabled\": true, \"context\": {\"channel\": \"web\"}, \"ipRange\": \"10.0.0.0/8\", "
+                                + "\"timeRange\": {\"start\": \"08:00\", \"end\": \"18:00\"}}"),
+                compile("invalid", PolicyEffect.DENY, 2, "\"*\"", "{\"geoFence\": \"eu\"}"),
+                new CompiledPolicy(null, null, null, 0, "document", "READ", false, null,
+                        WildcardSubjectMatcher.INSTANCE, ConditionChain.EMPTY));
+    }
+    
+    private CompiledPolicy compile(String name, PolicyEffect effect, int priority, String subject, String conditions)
+            throws Exception {
+        JsonNode conditionsJson = conditions == null ? null : MAPPER.readTree(conditions);
+        return policyCompiler.compile(Policy.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .effect(effect)
+                .priority(priority)
+                .subjectJson(MAPPER.readTree(subject))
+                .resource("document")
+                .action("READ")
+                .conditionsJson(conditionsJson)
+                .isActive(true)
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 12, 0, 0, 123_456_789))
+                .build());
+    }
+    
+    private static AuthorizationContext context(String ipAddress, String channel, long timestamp) {
+        return AuthorizationContext.builder()
+                .userId(UUID.randomUUID())
+                .ipAddress(ipAddress)
+                .timestamp(timestamp)
+                .additionalContext(channel == null ? Map.of() : Map.of("channel", channel))
+                .build();
+    }
+}
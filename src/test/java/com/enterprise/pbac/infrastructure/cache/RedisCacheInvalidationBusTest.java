@@ -0,0 +1,69 @@
+package com.enterprise.pbac.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RedisCacheInvalidationBusTest {
+    
+    private static final String CHANNEL = "pbac:cache-invalidation";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final RedisCacheInvalidationBus bus = new RedisCacheInvalidationBus(redisTemplate, objectMapper,
+            eventPublisher, mock(RedisMessageListenerContainer.class), CHANNEL);
+    
+    @Test
+    void messagesFromOtherNodesAreRepublishedLocally() throws Exception {
+        CacheInvalidation invalidation = CacheInvalidation.applicablePolicies("document", "READ");
+        invalidation.setOrigin("another-node");
+        
+        bus.onMessage(message(objectMapper.writeValueAsString(invalidation)), null);
+        
+        verify(eventPublisher).publishEvent(invalidation);
+    }
+    
+    @Test
+    void ownMessagesAreIgnored() {
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        bus.publish(CacheInvalidation.applicablePolicies("document", "READ"));
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), sent.capture());
+        
+        bus.onMessage(message(sent.getValue()), null);
+        
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void malformedMessagesAreDropped() {
+        bus.onMessage(message("not json"), null);
+        
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void publishingSurvivesARedisFailure() {
+        doThrow(new IllegalStateException("connection refused")).when(redisTemplate).convertAndSend(any(), any());
+        
+        assertThatCode(() -> bus.publish(CacheInvalidation.policy(UUID.randomUUID()))).doesNotThrowAnyException();
+    }
+    
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.enterprise.pbac.infrastructure.repository;
+
+import com.enterprise.pbac.infrastructure.repository.AuditPartitionRepository.AuditPartition;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditPartitionRepositoryTest {
+    
+    @Test
+    void boundsAreReadFromThePartitionDefinition() {
+        AuditPartition partition = AuditPartitionRepository.parse("audit_logs_p202406",
+                "FOR VALUES FROM ('2024-06-01 00:00:00') TO ('2024-07-01 00:00:00')");
+        
+        assertThat(partition.getName()).isEqualTo("audit_logs_p202406");
+        assertThat(partition.getFrom()).isEqualTo(LocalDate.of(2024, 6, 1));
+        assertThat(partition.getTo()).isEqualTo(LocalDate.of(2024, 7, 1));
+    }
+    
+    @Test
+    void legacyPartitionHasNoLowerBound() {
+        AuditPartition legacy = AuditPartitionRepository.parse("audit_logs_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2024-08-01 00:00:00')");
+        
+        assertThat(legacy.getFrom()).isEqualTo(LocalDate.MIN);
+        assertThat(legacy.overlaps(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1))).isTrue();
+        assertThat(legacy.overlaps(LocalDate.of(2024, 8, 1), LocalDate.of(2024, 9, 1))).isFalse();
+    }
+    
+    @Test
+    void defaultPartitionIsSkipped() {
+        assertThat(AuditPartitionRepository.parse("audit_logs_default", "DEFAULT")).isNull();
+    }
+}
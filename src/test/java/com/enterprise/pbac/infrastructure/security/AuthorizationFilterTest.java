@@ -0,0 +1,65 @@
+package com.enterprise.pbac.infrastructure.security;
+
+import com.enterprise.pbac.api.controller.HealthController;
+import com.enterprise.pbac.application.service.AuditService;
+import com.enterprise.pbac.application.service.PolicyIndexService;
+import com.enterprise.pbac.application.service.PolicyWarmupService;
+import com.enterprise.pbac.domain.engine.PolicyEvaluationEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.time.Clock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthorizationFilterTest {
+    
+    private final PolicyEvaluationEngine policyEvaluationEngine = mock(PolicyEvaluationEngine.class);
+    private final AuthorizationFilter authorizationFilter = new AuthorizationFilter(
+            policyEvaluationEngine, mock(AuditService.class), new ObjectMapper(), Clock.systemUTC());
+    
+    @Test
+    void unauthenticatedReadinessProbeGets503WhileWarmingUp() throws Exception {
+        MockMvc mockMvc = mockMvc(new PolicyWarmupService(mock(PolicyIndexService.class), true, 5000));
+        
+        mockMvc.perform(get("/api/health/ready"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("NOT_READY"));
+        mockMvc.perform(get("/api/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ready").value(false));
+        verify(policyEvaluationEngine, never()).evaluate(any());
+    }
+    
+    @Test
+    void unauthenticatedReadinessProbeGets200WhenReady() throws Exception {
+        // With warm-up disabled the service reports ready immediately
+        MockMvc mockMvc = mockMvc(new PolicyWarmupService(mock(PolicyIndexService.class), false, 5000));
+        
+        mockMvc.perform(get("/api/health/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("READY"));
+        verify(policyEvaluationEngine, never()).evaluate(any());
+    }
+    
+    @Test
+    void protectedEndpointStillRequiresToken() throws Exception {
+        MockMvc mockMvc = mockMvc(new PolicyWarmupService(mock(PolicyIndexService.class), false, 5000));
+        
+        mockMvc.perform(get("/api/policies"))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    private MockMvc mockMvc(PolicyWarmupService policyWarmupService) {
+        return MockMvcBuilders.standaloneSetup(new HealthController(policyWarmupService))
+                .addFilters(authorizationFilter)
+                .build();
+    }
+}